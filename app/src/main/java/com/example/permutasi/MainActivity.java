@@ -2,46 +2,116 @@ package com.example.permutasi;
 
 import android.content.ClipData;
 import android.content.ClipboardManager;
+import android.content.ContentResolver;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.text.TextUtils;
+import android.util.DisplayMetrics;
 import android.view.View;
 import android.widget.*;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
-
-import com.example.permutasi.core.BitmapIO;
+import androidx.lifecycle.ViewModelProvider;
+
+import com.example.permutasi.bitmap.BitmapIO;
+import com.example.permutasi.bitmap.BitmapPyramid;
+import com.example.permutasi.bitmap.PreviewRenderer;
+import com.example.permutasi.bitmap.RegionPixelSource;
+import com.example.permutasi.core.BandReconstructor;
+import com.example.permutasi.core.CoolingSchedule;
+import com.example.permutasi.core.CostTableCache;
+import com.example.permutasi.core.CostTables;
+import com.example.permutasi.core.EdgeCost;
+import com.example.permutasi.core.GridDetector;
+import com.example.permutasi.core.JobScheduler;
 import com.example.permutasi.core.PermutationAnnealer2D;
-
+import com.example.permutasi.core.PermutationFile;
+import com.example.permutasi.core.PermutationText;
+import com.example.permutasi.core.SolverMetrics;
+import com.example.permutasi.core.SolverSession;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MainActivity extends AppCompatActivity {
 
-  private Button btnPickImage, btnRun, btnCopy, btnApplyPermutation;
-  private EditText etRows, etCols, etIterations, etTemp, etPermutation;
+  /** Sisi tile minimal (px) di level pyramid untuk tabel biaya bila opsi pyramid aktif. */
+  private static final int PYRAMID_MIN_TILE_SIDE = 24;
+  /** Gambar di atas ini dimuat di-sample untuk preview; resolusi penuh dibaca per band saat solve/simpan. */
+  private static final long MAX_PREVIEW_PIXELS = 16_000_000L;
+  /** Jarak minimal antar frame preview live selama annealing. */
+  private static final long LIVE_FRAME_MS = 250;
+  /** Checkpoint sesi annealing di filesDir; file ".key" mencatat gambar + parameter tabel biayanya. */
+  private static final String CHECKPOINT_FILE = "anneal.ckpt";
+  private static final String STATE_IMAGE = "pickedImage", STATE_RUNNING = "annealRunning";
+  /** Cache tabel biaya di cacheDir (boleh dihapus sistem); file lama dipangkas di atas batas ini. */
+  private static final String TABLE_CACHE_DIR = "cost-tables";
+  private static final long TABLE_CACHE_BYTES = 256L << 20;
+  /** Hasil deteksi grid di bawah ini hanya ditampilkan, tidak diisikan ke rows/cols. */
+  private static final double MIN_GRID_CONFIDENCE = 0.3;
+  /** Berhenti dini: jendela stagnan = iterations / STALL_DIVISOR. */
+  private static final long STALL_DIVISOR = 5;
+  /** Folder (di filesDir) untuk hasil antrean batch: satu file permutasi per job. */
+  private static final String BATCH_RESULT_DIR = "hasil-batch";
+  /** Awalan nama job dari antrean banyak gambar (membedakannya dari run utama). */
+  private static final String BATCH_JOB_PREFIX = "Batch ";
+  /** Perkiraan memori job batch yang grid-nya baru dideteksi saat jalan. */
+  private static final long AUTO_GRID_JOB_BYTES = 64L << 20;
+  /** Jumlah job batch terakhir yang ditampilkan di daftar. */
+  private static final int MAX_LISTED_JOBS = 20;
+
+  private Button btnPickImage, btnRun, btnQuickSolve, btnCopy, btnApplyPermutation, btnSavePng;
+  private Button btnPause, btnCancel, btnDetectGrid, btnQueueImages, btnCancelQueue, btnExportMetrics;
+  private Button btnSavePermutation, btnLoadPermutation;
+  private CheckBox cbGreedyStart;
+  private CheckBox cbPyramid, cbEarlyStop;
+  private EditText etRows, etCols, etIterations, etTemp, etReplicas, etPermutation;
+  private Spinner spSchedule, spEdgeCost;
   private ProgressBar progressBar;
-  private TextView tvLog;
+  private TextView tvLog, tvJobs;
   private ImageView ivInput, ivOutput;
 
   private Uri pickedImage = null;
   private String lastPermutationText = "";
   private int[] lastPerm0;        // 0-based internal
   private int lastRows = 0, lastCols = 0;
-  private Bitmap srcBitmap = null;
+  private Bitmap srcBitmap = null;   // preview; di-sample 1/srcSampleSize bila gambar sangat besar
+  private int srcWidth, srcHeight, srcSampleSize = 1;
 
   // Toggles overlay angka (default: ON supaya langsung kelihatan)
   private boolean showNumbersInput = true;
   private boolean showNumbersOutput = true;
 
-  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  /** Preview diperkecil seukuran layar; output berbagi atlas dengan input bila grid sama (UI thread). */
+  private PreviewRenderer inputPreview, outputPreview;
+  /** Susunan terbaik terakhir dari solver untuk frame live berikutnya; dijaga {@code liveLock}. */
+  private final Object liveLock = new Object();
+  private int[] liveBest;
+  private int liveRows, liveCols;
+  private final AtomicBoolean liveFramePosted = new AtomicBoolean();
+  private volatile long lastLiveFrame;
+
+  private SolverViewModel solver;
+  /** Satu refresh daftar job sedang menunggu di UI thread (progres job datang sering). */
+  private final AtomicBoolean jobsRefreshPosted = new AtomicBoolean();
+  private CostTableCache tableCache;
 
   private final ActivityResultLauncher<String> imagePicker =
       registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
@@ -52,6 +122,31 @@ public class MainActivity extends AppCompatActivity {
         }
       });
 
+  private final ActivityResultLauncher<String> batchPicker =
+      registerForActivityResult(new ActivityResultContracts.GetMultipleContents(), uris -> {
+        if (uris != null && !uris.isEmpty()) enqueueBatch(uris);
+      });
+
+  private final ActivityResultLauncher<String> pngSaver =
+      registerForActivityResult(new ActivityResultContracts.CreateDocument("image/png"), uri -> {
+        if (uri != null) saveOutputPng(uri);
+      });
+
+  private final ActivityResultLauncher<String> metricsSaver =
+      registerForActivityResult(new ActivityResultContracts.CreateDocument("text/csv"), uri -> {
+        if (uri != null) exportMetrics(uri);
+      });
+
+  private final ActivityResultLauncher<String> permSaver =
+      registerForActivityResult(new ActivityResultContracts.CreateDocument("application/octet-stream"), uri -> {
+        if (uri != null) savePermutationFile(uri);
+      });
+
+  private final ActivityResultLauncher<String> permLoader =
+      registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
+        if (uri != null) loadPermutationFile(uri);
+      });
+
   @Override
   protected void onCreate(@Nullable Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
@@ -59,37 +154,132 @@ public class MainActivity extends AppCompatActivity {
 
     btnPickImage = findViewById(R.id.btnPickImage);
     btnRun = findViewById(R.id.btnRun);
+    btnQuickSolve = findViewById(R.id.btnQuickSolve);
+    cbGreedyStart = findViewById(R.id.cbGreedyStart);
+    cbPyramid = findViewById(R.id.cbPyramid);
+    cbEarlyStop = findViewById(R.id.cbEarlyStop);
     btnCopy = findViewById(R.id.btnCopy);
     btnApplyPermutation = findViewById(R.id.btnApplyPermutation);
+    btnSavePng = findViewById(R.id.btnSavePng);
+    btnPause = findViewById(R.id.btnPause);
+    btnCancel = findViewById(R.id.btnCancel);
+    btnDetectGrid = findViewById(R.id.btnDetectGrid);
+    btnQueueImages = findViewById(R.id.btnQueueImages);
+    btnCancelQueue = findViewById(R.id.btnCancelQueue);
+    btnExportMetrics = findViewById(R.id.btnExportMetrics);
+    btnSavePermutation = findViewById(R.id.btnSavePermutation);
+    btnLoadPermutation = findViewById(R.id.btnLoadPermutation);
 
     etRows = findViewById(R.id.etRows);
     etCols = findViewById(R.id.etCols);
     etIterations = findViewById(R.id.etIterations);
     etTemp = findViewById(R.id.etTemp);
+    etReplicas = findViewById(R.id.etReplicas);
+    spSchedule = findViewById(R.id.spSchedule);
+    spEdgeCost = findViewById(R.id.spEdgeCost);
     etPermutation = findViewById(R.id.etPermutation);
 
     progressBar = findViewById(R.id.progressBar);
     tvLog = findViewById(R.id.tvLog);
+    tvJobs = findViewById(R.id.tvJobs);
     ivInput = findViewById(R.id.ivInput);
     ivOutput = findViewById(R.id.ivOutput);
 
     btnPickImage.setOnClickListener(v -> imagePicker.launch("image/*"));
     btnRun.setOnClickListener(v -> runAnneal());
+    btnQuickSolve.setOnClickListener(v -> runQuickSolve());
+    btnDetectGrid.setOnClickListener(v -> detectGrid());
     btnCopy.setOnClickListener(v -> copyPermutation());
     btnApplyPermutation.setOnClickListener(v -> applyManualPermutation());
+    btnSavePng.setOnClickListener(v -> {
+      if (pickedImage == null || lastPerm0 == null) { toast("Belum ada hasil"); return; }
+      pngSaver.launch("hasil_permutasi.png");
+    });
+    btnExportMetrics.setOnClickListener(v -> {
+      if (solver.metrics().traceSize() == 0) { toast("Belum ada telemetri"); return; }
+      metricsSaver.launch("telemetri_anneal.csv");
+    });
+    btnSavePermutation.setOnClickListener(v -> {
+      if (lastPerm0 == null) { toast("Belum ada permutasi"); return; }
+      permSaver.launch("hasil_permutasi.perm");
+    });
+    btnLoadPermutation.setOnClickListener(v -> permLoader.launch("*/*"));
+
+    btnPause.setOnClickListener(v -> {
+      if (solver.isPaused()) solver.resume();
+      else solver.pause();
+      updateRunButtons();
+    });
+    btnCancel.setOnClickListener(v -> solver.cancel());
+    btnQueueImages.setOnClickListener(v -> batchPicker.launch("image/*"));
+    btnCancelQueue.setOnClickListener(v -> cancelQueue());
 
     // Long-press toggle angka untuk masing-masing preview
     ivInput.setOnLongClickListener(v -> { showNumbersInput = !showNumbersInput; refreshInputPreview(); return true; });
     ivOutput.setOnLongClickListener(v -> { showNumbersOutput = !showNumbersOutput; refreshOutputPreview(); return true; });
+
+    // Sesi annealing hidup di ViewModel; activity baru (mis. setelah rotasi) tinggal menempel lagi.
+    solver = new ViewModelProvider(this).get(SolverViewModel.class);
+    tableCache = new CostTableCache(new File(getCacheDir(), TABLE_CACHE_DIR), TABLE_CACHE_BYTES);
+    solver.attach(solverClient);
+    solver.scheduler().addListener(jobListener);
+    if (savedInstanceState != null) {
+      String uri = savedInstanceState.getString(STATE_IMAGE);
+      if (uri != null) {
+        pickedImage = Uri.parse(uri);
+        loadInputPreviewAsync();
+      }
+      if (savedInstanceState.getBoolean(STATE_RUNNING) && !solver.isRunning()
+          && new File(getFilesDir(), CHECKPOINT_FILE).exists()) {
+        tvLog.setText("Run sebelumnya terputus; tekan Susun untuk melanjutkan dari checkpoint.\n");
+      }
+    }
+    updateRunButtons();
+    refreshJobs();
+  }
+
+  @Override
+  protected void onSaveInstanceState(Bundle outState) {
+    super.onSaveInstanceState(outState);
+    if (pickedImage != null) outState.putString(STATE_IMAGE, pickedImage.toString());
+    outState.putBoolean(STATE_RUNNING, solver.isRunning());
+  }
+
+  @Override
+  protected void onDestroy() {
+    solver.detach(solverClient);
+    solver.scheduler().removeListener(jobListener);
+    ivOutput.removeCallbacks(drawLiveFrame);
+    super.onDestroy();
+  }
+
+  // ==== SUMBER GAMBAR ====
+
+  /** Muat gambar terpilih (thread worker); gambar sangat besar di-sample agar preview muat di heap. */
+  private void loadSource() throws IOException {
+    int[] size = BitmapIO.readBounds(getContentResolver(), pickedImage);
+    int sample = BitmapIO.sampleSizeFor(size[0], size[1], MAX_PREVIEW_PIXELS);
+    srcBitmap = BitmapIO.readSampled(getContentResolver(), pickedImage, sample);
+    srcWidth = size[0];
+    srcHeight = size[1];
+    srcSampleSize = sample;
+    if (sample > 1) {
+      runOnUiThread(() -> tvLog.append(String.format(Locale.US,
+          "Gambar %dx%d: preview 1/%d, hasil penuh lewat Simpan PNG\n", srcWidth, srcHeight, srcSampleSize)));
+    }
+  }
+
+  private BitmapPyramid sourcePyramid() {
+    return new BitmapPyramid(getContentResolver(), pickedImage, srcWidth, srcHeight, srcBitmap, srcSampleSize);
   }
 
   // ==== PREVIEW INPUT ====
 
   private void loadInputPreviewAsync() {
     if (pickedImage == null) return;
-    executor.execute(() -> {
+    runInteractive("Muat gambar", () -> {
       try {
-        srcBitmap = BitmapIO.read(getContentResolver(), pickedImage);
+        loadSource();
         runOnUiThread(this::refreshInputPreview);
       } catch (IOException e) {
         runOnUiThread(() -> toast("Gagal baca gambar: " + e.getMessage()));
@@ -103,14 +293,14 @@ public class MainActivity extends AppCompatActivity {
     Integer r = tryParseInt(etRows.getText().toString().trim());
     Integer c = tryParseInt(etCols.getText().toString().trim());
 
-    if (showNumbersInput && r != null && c != null && r > 0 && c > 0) {
+    if (r != null && c != null && r > 0 && c > 0) {
       try {
+        inputPreview = previewFor(inputPreview, outputPreview, r, c);
         int[] idPerm = new int[r * c];
         for (int i = 0; i < idPerm.length; i++) idPerm[i] = i; // identitas
-        Bitmap numbered = PermutationAnnealer2D.reconstructWithNumbers(srcBitmap, r, c, idPerm);
-        setImageFullSize(ivInput, numbered);
-        ivInput.setContentDescription("Input Preview (numbers ON)");
-        toastQuick("Angka input: ON");
+        showPreview(ivInput, inputPreview, idPerm, showNumbersInput);
+        ivInput.setContentDescription(showNumbersInput ? "Input Preview (numbers ON)" : "Input Preview (numbers OFF)");
+        toastQuick(numbersLabel("Angka input", showNumbersInput, inputPreview));
         return;
       } catch (Throwable ignored) {
         // fallback ke plain jika gagal
@@ -126,71 +316,423 @@ public class MainActivity extends AppCompatActivity {
 
   private void refreshOutputPreview() {
     if (srcBitmap == null || lastPerm0 == null || lastRows <= 0 || lastCols <= 0) return;
-    Bitmap out = showNumbersOutput
-        ? PermutationAnnealer2D.reconstructWithNumbers(srcBitmap, lastRows, lastCols, lastPerm0)
-        : PermutationAnnealer2D.reconstruct(srcBitmap, lastRows, lastCols, lastPerm0);
-    setImageFullSize(ivOutput, out);
+    outputPreview = previewFor(outputPreview, inputPreview, lastRows, lastCols);
+    showPreview(ivOutput, outputPreview, lastPerm0, showNumbersOutput);
     ivOutput.setContentDescription(showNumbersOutput ? "Output Preview (numbers ON)" : "Output Preview (numbers OFF)");
-    toastQuick(showNumbersOutput ? "Angka output: ON" : "Angka output: OFF");
+    toastQuick(numbersLabel("Angka output", showNumbersOutput, outputPreview));
+  }
+
+  private static String numbersLabel(String what, boolean numbers, PreviewRenderer r) {
+    if (!numbers) return what + ": OFF";
+    return r.canShowNumbers() ? what + ": ON" : what + ": OFF (tile preview terlalu kecil)";
+  }
+
+  /** Frame live dari susunan terbaik terakhir solver, paling sering tiap {@link #LIVE_FRAME_MS}. */
+  private final Runnable drawLiveFrame = () -> {
+    liveFramePosted.set(false);
+    lastLiveFrame = SystemClock.uptimeMillis();
+    if (srcBitmap == null) return;
+    synchronized (liveLock) {
+      if (liveBest == null || liveRows * liveCols != liveBest.length) return;
+      outputPreview = previewFor(outputPreview, inputPreview, liveRows, liveCols);
+      showPreview(ivOutput, outputPreview, liveBest, showNumbersOutput);
+    }
+  };
+
+  /** Renderer untuk grid ini dari {@link #srcBitmap}; atlas {@code other} dipakai ulang bila cocok. */
+  private PreviewRenderer previewFor(PreviewRenderer current, PreviewRenderer other, int rows, int cols) {
+    if (current != null && current.matches(srcBitmap, rows, cols)) return current;
+    if (other != null && other.matches(srcBitmap, rows, cols)) return other.sibling();
+    // Selebar layar, luas paling banyak satu layar.
+    DisplayMetrics dm = getResources().getDisplayMetrics();
+    return new PreviewRenderer(srcBitmap, rows, cols, dm.widthPixels, (long) dm.widthPixels * dm.heightPixels);
+  }
+
+  /** Gambar hanya tile yang berubah; ImageView yang sudah menampilkan frame ini cukup di-invalidate. */
+  private void showPreview(ImageView view, PreviewRenderer r, int[] perm0, boolean numbers) {
+    int drawn = r.render(perm0, numbers);
+    if (view.getTag() != r.frame()) setImageFullSize(view, r.frame());
+    else if (drawn > 0) view.invalidate();
   }
 
   // ==== PROSES ANNEAL ====
 
-  private void runAnneal() {
-    if (pickedImage == null) { toast("Pilih gambar dulu"); return; }
+  /** Parameter solve dari form; rows/cols 0 = deteksi otomatis (hanya untuk antrean batch). */
+  private static final class SolveParams {
+    int rows, cols;
+    long iterations;
+    double temp;
+    final PermutationAnnealer2D.Options opts = new PermutationAnnealer2D.Options();
+  }
+
+  /** Baca form; null (dan toast) bila tidak valid. {@code autoGrid}: rows/cols kosong boleh. */
+  private SolveParams readSolveParams(boolean autoGrid) {
     String rStr = etRows.getText().toString().trim();
     String cStr = etCols.getText().toString().trim();
     String itStr = etIterations.getText().toString().trim();
     String tStr = etTemp.getText().toString().trim();
-    if (TextUtils.isEmpty(rStr) || TextUtils.isEmpty(cStr) || TextUtils.isEmpty(itStr) || TextUtils.isEmpty(tStr)) {
-      toast("Isi rows, cols, iterations, temperature");
-      return;
+    boolean noGrid = TextUtils.isEmpty(rStr) && TextUtils.isEmpty(cStr);
+    if ((!autoGrid || !noGrid) && (TextUtils.isEmpty(rStr) || TextUtils.isEmpty(cStr)) || TextUtils.isEmpty(itStr)) {
+      toast(autoGrid ? "Isi iterations (rows/cols kosong = deteksi otomatis)" : "Isi rows, cols, iterations");
+      return null;
+    }
+    SolveParams p = new SolveParams();
+    PermutationAnnealer2D.Options opts = p.opts;
+    if (!noGrid) {
+      try { p.rows = Integer.parseInt(rStr); } catch (Exception e) { toast("Rows invalid"); return null; }
+      try { p.cols = Integer.parseInt(cStr); } catch (Exception e) { toast("Cols invalid"); return null; }
+      if (p.rows <= 0 || p.cols <= 0) { toast("Rows/Cols harus > 0"); return null; }
+    }
+    try { p.iterations = Long.parseLong(itStr); } catch (Exception e) { toast("Iterations invalid"); return null; }
+    // Temperature kosong/"auto" = kalibrasi dari tabel biaya
+    if (TextUtils.isEmpty(tStr) || tStr.equalsIgnoreCase("auto")) opts.autoTemperature = true;
+    else try { p.temp = Double.parseDouble(tStr); } catch (Exception e) { toast("Temperature invalid"); return null; }
+    int kind = spSchedule.getSelectedItemPosition();
+    if (kind >= 0 && kind < CoolingSchedule.Kind.values().length) opts.schedule = CoolingSchedule.Kind.values()[kind];
+    opts.edgeCost = selectedEdgeCost();
+    String repStr = etReplicas.getText().toString().trim();
+    if (!TextUtils.isEmpty(repStr)) {
+      try { opts.replicas = Integer.parseInt(repStr); } catch (Exception e) { toast("Replika invalid"); return null; }
+      if (opts.replicas <= 0) { toast("Replika harus > 0"); return null; }
     }
-    int rows, cols; long iterations; double temp;
-    try { rows = Integer.parseInt(rStr); } catch (Exception e) { toast("Rows invalid"); return; }
-    try { cols = Integer.parseInt(cStr); } catch (Exception e) { toast("Cols invalid"); return; }
-    try { iterations = Long.parseLong(itStr); } catch (Exception e) { toast("Iterations invalid"); return; }
-    try { temp = Double.parseDouble(tStr); } catch (Exception e) { toast("Temperature invalid"); return; }
-    if (rows <= 0 || cols <= 0) { toast("Rows/Cols harus > 0"); return; }
+    opts.greedyStart = cbGreedyStart.isChecked();
+    if (cbPyramid.isChecked()) opts.pyramidMinTileSide = PYRAMID_MIN_TILE_SIDE;
+    if (cbEarlyStop.isChecked()) opts.stallIterations = Math.max(1, p.iterations / STALL_DIVISOR);
+    opts.tableCache = tableCache;
+    return p;
+  }
 
-    btnRun.setEnabled(false);
+  private void runAnneal() {
+    if (pickedImage == null) { toast("Pilih gambar dulu"); return; }
+    SolveParams p = readSolveParams(false);
+    if (p == null) return;
+    final PermutationAnnealer2D.Options opts = p.opts;
+    opts.metrics = solver.metrics();
+    final int rows = p.rows, cols = p.cols;
+    final long iterations = p.iterations;
+    final double temp = p.temp;
+    final ContentResolver cr = getApplicationContext().getContentResolver();
+    final Uri uri = pickedImage;
+    final Bitmap loaded = srcBitmap;
+    final int loadedW = srcWidth, loadedH = srcHeight, loadedSample = srcSampleSize;
+    final File checkpoint = new File(getFilesDir(), CHECKPOINT_FILE);
+    final File checkpointKey = new File(getFilesDir(), CHECKPOINT_FILE + ".key");
+    final String key = uri + "|" + rows + "x" + cols + "|" + opts.edgeCost + "|" + opts.pyramidMinTileSide
+        + "|" + opts.candidateK;
+    final boolean resume = checkpoint.exists() && key.equals(readText(checkpointKey));
+
+    if (loaded != null && (loadedW % cols != 0 || loadedH % rows != 0)) {
+      tvLog.append(String.format(Locale.US,
+          "⚠️ Ukuran gambar (%dx%d) tidak habis dibagi rows=%d, cols=%d\n", loadedW, loadedH, rows, cols));
+    }
     progressBar.setProgress(0);
-    tvLog.setText("Memulai…\n");
+    tvLog.setText(resume ? "Melanjutkan dari checkpoint…\n" : "Memulai…\n");
+
+    solver.start(cb -> {
+      int w = loadedW, h = loadedH;
+      if (loaded == null) {
+        int[] size = BitmapIO.readBounds(cr, uri);
+        w = size[0];
+        h = size[1];
+      }
+      CostTables tables;
+      try (BitmapPyramid pyramid = new BitmapPyramid(cr, uri, w, h, loaded, loadedSample)) {
+        tables = PermutationAnnealer2D.buildTables(pyramid, rows, cols, opts, cb);
+      }
+      if (resume) {
+        try {
+          return SolverSession.restore(tables, opts, checkpoint);
+        } catch (IOException e) {
+          // Checkpoint lama/rusak: mulai baru.
+        }
+      }
+      writeText(checkpointKey, key);
+      return new SolverSession(tables, iterations, temp, opts);
+    }, rows, cols, checkpoint, PermutationAnnealer2D.estimateTableBytes(rows * cols, opts.candidateK));
+    updateRunButtons();
+  }
+
+  private final SolverViewModel.Client solverClient = new SolverViewModel.Client() {
+    private volatile String level = "";
+
+    @Override public void onPyramidLevel(int sampleSize, int levelWidth, int levelHeight) {
+      level = String.format(Locale.US, "Biaya dari level 1/%d (%dx%d)\n", sampleSize, levelWidth, levelHeight);
+    }
+
+    // Status terakhir; ditampilkan paling banyak sekali per posting UI, teks dirakit di buffer yang dipakai ulang.
+    private volatile long sec, iter, energy;
+    private volatile double donePct, temperature;
+    private final AtomicBoolean statusPosted = new AtomicBoolean();
+    private final StringBuilder statusText = new StringBuilder(256);
+    private final Runnable showStatus = () -> {
+      statusPosted.set(false);
+      statusText.setLength(0);
+      statusText.append(level)
+          .append("t=").append(Math.round(temperature * 100) / 100.0)
+          .append(" E=").append(energy).append(" iter=").append(iter).append(" sec=").append(sec)
+          .append(" (").append(Math.round(donePct * 10) / 10.0).append("%)\n");
+      solver.metrics().appendSummary(statusText);
+      statusText.append('\n');
+      progressBar.setProgress((int)Math.min(100, Math.round(donePct)));
+      tvLog.setText(statusText);
+    };
+
+    @Override public void onStatus(long sec, double donePct, long iter, double temperature, long energy) {
+      this.sec = sec;
+      this.donePct = donePct;
+      this.iter = iter;
+      this.temperature = temperature;
+      this.energy = energy;
+      if (statusPosted.compareAndSet(false, true)) runOnUiThread(showStatus);
+    }
+
+    @Override public void onStopped(PermutationAnnealer2D.StopReason reason, long iter, long bestEnergy) {
+      String why;
+      switch (reason) {
+        case STALLED: why = "energi tidak membaik"; break;
+        case TARGET_REACHED: why = "target energi tercapai"; break;
+        case TIME_BUDGET: why = "batas waktu"; break;
+        case OPTIMAL: why = "terbukti optimal"; break;
+        default: return;
+      }
+      final String line = String.format(Locale.US, "\nBerhenti dini (%s) di iterasi %d, E terbaik=%d\n",
+          why, iter, bestEnergy);
+      runOnUiThread(() -> tvLog.append(line));
+    }
+
+    @Override public void onPreview(int[] perm0, int rows, int cols, long bestEnergy) {
+      synchronized (liveLock) {
+        if (liveBest == null || liveBest.length != perm0.length) liveBest = new int[perm0.length];
+        System.arraycopy(perm0, 0, liveBest, 0, perm0.length);
+        liveRows = rows;
+        liveCols = cols;
+      }
+      if (liveFramePosted.compareAndSet(false, true)) {
+        long wait = Math.max(0, lastLiveFrame + LIVE_FRAME_MS - SystemClock.uptimeMillis());
+        ivOutput.postDelayed(drawLiveFrame, wait);
+      }
+    }
+
+    @Override public void onFinished(int[] perm0, int rows, int cols, boolean cancelled) {
+      runOnUiThread(() -> {
+        updateRunButtons();
+        if (cancelled) tvLog.append("\nDibatalkan; hasil terbaik sejauh ini:\n");
+        StringBuilder sb = new StringBuilder("\nTelemetri: ");
+        solver.metrics().appendSummary(sb);
+        tvLog.append(sb.append('\n'));
+      });
+      publishResult(perm0, rows, cols);
+    }
+
+    @Override public void onFailed(String message) {
+      runOnUiThread(() -> {
+        tvLog.append("\nGagal: " + message + "\n");
+        updateRunButtons();
+      });
+    }
+  };
+
+  /** Tombol run/jeda/batal sesuai state sesi di ViewModel. */
+  private void updateRunButtons() {
+    boolean running = solver.isRunning();
+    btnRun.setEnabled(!running);
+    btnQuickSolve.setEnabled(!running);
+    btnPause.setEnabled(running);
+    btnCancel.setEnabled(running);
+    btnPause.setText(solver.isPaused() ? "Lanjutkan" : "Jeda");
+  }
+
+  private static String readText(File f) {
+    if (!f.exists()) return null;
+    try (InputStream in = new FileInputStream(f)) {
+      byte[] buf = new byte[(int) f.length()];
+      int n = 0;
+      for (int r; n < buf.length && (r = in.read(buf, n, buf.length - n)) > 0; ) n += r;
+      return new String(buf, 0, n, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static void writeText(File f, String text) throws IOException {
+    try (OutputStream out = new FileOutputStream(f)) {
+      out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  // ==== ANTREAN JOB ====
 
-    executor.execute(() -> {
+  /** Kerja singkat yang menyentuh state activity; berurutan, mendahului job batch. */
+  private void runInteractive(String name, Runnable r) {
+    solver.scheduler().submit(name, JobScheduler.Priority.INTERACTIVE, 0, job -> {
+      r.run();
+      return null;
+    });
+  }
+
+  private final JobScheduler.Listener jobListener = job -> {
+    if (job.priority == JobScheduler.Priority.BATCH && jobsRefreshPosted.compareAndSet(false, true)) {
+      runOnUiThread(this::refreshJobs);
+    }
+  };
+
+  /** Daftar job batch terakhir dengan state dan progresnya. */
+  private void refreshJobs() {
+    jobsRefreshPosted.set(false);
+    StringBuilder sb = new StringBuilder();
+    int shown = 0;
+    List<JobScheduler.Job<?>> jobs = solver.scheduler().jobs();
+    for (int i = jobs.size() - 1; i >= 0 && shown < MAX_LISTED_JOBS; i--) {
+      JobScheduler.Job<?> j = jobs.get(i);
+      if (j.priority != JobScheduler.Priority.BATCH) continue;
+      String line = String.format(Locale.US, "#%d %s: %s %.0f%%", j.id, j.name, j.state(), j.progress());
+      if (j.energy() >= 0) line += " E=" + j.energy();
+      if (j.error() != null) line += " (" + j.error().getMessage() + ")";
+      else if (j.result() instanceof File) line += " → " + ((File) j.result()).getName();
+      sb.insert(0, line + "\n");
+      shown++;
+    }
+    tvJobs.setText(sb.length() == 0 ? "Tidak ada job" : sb.toString().trim());
+  }
+
+  /**
+   * Satu job batch per gambar dengan parameter form saat ini. Rows/cols kosong = dideteksi per
+   * gambar. Permutasi 1-based ditulis ke {@code files/hasil-batch/job-<id>.perm.txt}.
+   */
+  private void enqueueBatch(List<Uri> uris) {
+    final SolveParams p = readSolveParams(true);
+    if (p == null) return;
+    // Paralelisme datang dari banyak job sekaligus; tiap job satu thread.
+    p.opts.parallelism = 1;
+    final ContentResolver cr = getApplicationContext().getContentResolver();
+    final File outDir = new File(getFilesDir(), BATCH_RESULT_DIR);
+    long bytes = p.rows > 0
+        ? PermutationAnnealer2D.estimateTableBytes(p.rows * p.cols, p.opts.candidateK)
+        : AUTO_GRID_JOB_BYTES;
+    for (final Uri uri : uris) {
+      String name = BATCH_JOB_PREFIX + uri.getLastPathSegment();
+      solver.scheduler().submit(name, JobScheduler.Priority.BATCH, bytes, job -> {
+        int[] size = BitmapIO.readBounds(cr, uri);
+        int rows = p.rows, cols = p.cols;
+        CostTables tables;
+        try (BitmapPyramid pyramid = new BitmapPyramid(cr, uri, size[0], size[1], null, 1)) {
+          if (rows == 0) {
+            GridDetector.Result g = GridDetector.detect(pyramid, GridDetector.DEFAULT_MAX_COUNT);
+            if (g.confidence() < MIN_GRID_CONFIDENCE) throw new IOException("Grid tidak terdeteksi");
+            rows = g.rows();
+            cols = g.cols();
+          }
+          tables = PermutationAnnealer2D.buildTables(pyramid, rows, cols, p.opts, job.progressListener(null));
+        }
+        if (job.isCancelled()) return null;
+        SolverSession s = new SolverSession(tables, p.iterations, p.temp, p.opts);
+        job.attach(s);
+        int[] perm0 = s.run(job.progressListener(null));
+        if (!outDir.isDirectory() && !outDir.mkdirs()) throw new IOException("Tidak bisa membuat " + outDir);
+        File out = new File(outDir, "job-" + job.id + ".perm.txt");
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(out), StandardCharsets.UTF_8)) {
+          PermutationText.write(w, perm0, rows, cols);
+          w.write('\n');
+        }
+        return out;
+      });
+    }
+    toast(uris.size() + " gambar diantrekan");
+  }
+
+  /** Batalkan semua job batch antrean (run utama tidak ikut), lalu bersihkan yang sudah selesai. */
+  private void cancelQueue() {
+    for (JobScheduler.Job<?> j : solver.scheduler().jobs()) {
+      if (j.name.startsWith(BATCH_JOB_PREFIX) && !j.isDone()) j.cancel();
+    }
+    solver.scheduler().clearFinished();
+    refreshJobs();
+  }
+
+  /** Tebak rows/cols dari periodisitas sambungan tile; diisikan bila cukup yakin. */
+  private void detectGrid() {
+    if (pickedImage == null) { toast("Pilih gambar dulu"); return; }
+    btnDetectGrid.setEnabled(false);
+    runInteractive("Deteksi grid", () -> {
       try {
         if (srcBitmap == null) {
-          srcBitmap = BitmapIO.read(getContentResolver(), pickedImage);
+          loadSource();
           runOnUiThread(this::refreshInputPreview);
         }
-        int W = srcBitmap.getWidth(), H = srcBitmap.getHeight();
-        if (W % cols != 0 || H % rows != 0) {
-          runOnUiThread(() ->
-              tvLog.append(String.format(Locale.US,
-                  "⚠️ Ukuran gambar (%dx%d) tidak habis dibagi rows=%d, cols=%d\n", W, H, rows, cols)));
+        long t0 = System.currentTimeMillis();
+        GridDetector.Result g;
+        try (BitmapPyramid pyramid = sourcePyramid()) {
+          g = GridDetector.detect(pyramid, GridDetector.DEFAULT_MAX_COUNT);
         }
+        long ms = System.currentTimeMillis() - t0;
+        runOnUiThread(() -> {
+          btnDetectGrid.setEnabled(true);
+          tvLog.append(String.format(Locale.US, "Deteksi grid (%d ms): rows %s, cols %s\n",
+              ms, describeGuesses(g.rows), describeGuesses(g.cols)));
+          if (g.confidence() < MIN_GRID_CONFIDENCE) {
+            toast("Grid tidak terdeteksi dengan yakin, isi manual");
+            return;
+          }
+          etRows.setText(String.valueOf(g.rows()));
+          etCols.setText(String.valueOf(g.cols()));
+          refreshInputPreview();
+        });
+      } catch (IOException e) {
+        runOnUiThread(() -> {
+          btnDetectGrid.setEnabled(true);
+          toast("Gagal baca gambar: " + e.getMessage());
+        });
+      }
+    });
+  }
 
-        PermutationAnnealer2D.ProgressListener listener = (sec, donePct, iter, temperature, energy) ->
-            runOnUiThread(() -> {
-              progressBar.setProgress((int)Math.min(100, Math.round(donePct)));
-              String line = String.format(Locale.US,
-                  "t=%.2f E=%d iter=%d sec=%d (%.1f%%)\n", temperature, energy, iter, sec, donePct);
-              tvLog.setText(line);
-            });
+  private static String describeGuesses(GridDetector.Guess[] guesses) {
+    StringBuilder sb = new StringBuilder();
+    for (GridDetector.Guess g : guesses) {
+      if (sb.length() > 0) sb.append(", ");
+      sb.append(String.format(Locale.US, "%d (%.0f%%)", g.count, 100 * g.confidence));
+    }
+    return sb.toString();
+  }
 
-        int[] perm0 = PermutationAnnealer2D.solve(srcBitmap, rows, cols, iterations, temp, listener);
-        lastPerm0 = perm0;
-        lastRows = rows; lastCols = cols;
+  /** Susun greedy tanpa annealing: hasil kasar dalam hitungan detik. */
+  private void runQuickSolve() {
+    if (pickedImage == null) { toast("Pilih gambar dulu"); return; }
+    Integer r = tryParseInt(etRows.getText().toString().trim());
+    Integer c = tryParseInt(etCols.getText().toString().trim());
+    if (r == null || c == null || r <= 0 || c <= 0) { toast("Rows/Cols harus > 0"); return; }
+    final int rows = r, cols = c;
+    final boolean usePyramid = cbPyramid.isChecked();
+    final EdgeCost.Kind edgeCost = selectedEdgeCost();
+    final CostTableCache cache = tableCache;
 
-        lastPermutationText = formatPermutationMatrix1Based(perm0, rows, cols);
-        runOnUiThread(() -> {
-          // Tampilkan output sesuai toggle
-          refreshOutputPreview();
-          etPermutation.setText(lastPermutationText);
-          tvLog.append("\nPERMUTASI (1-based):\n" + lastPermutationText + "\n");
-          btnRun.setEnabled(true);
-          toast("Selesai");
-        });
+    btnRun.setEnabled(false);
+    tvLog.setText("Quick solve (greedy)…\n");
+    runInteractive("Quick solve", () -> {
+      try {
+        if (srcBitmap == null) {
+          loadSource();
+          runOnUiThread(this::refreshInputPreview);
+        }
+        long t0 = System.currentTimeMillis();
+        PermutationAnnealer2D.Options opts = new PermutationAnnealer2D.Options();
+        if (usePyramid) opts.pyramidMinTileSide = PYRAMID_MIN_TILE_SIDE;
+        opts.edgeCost = edgeCost;
+        opts.tableCache = cache;
+        int[] perm0;
+        try (BitmapPyramid pyramid = sourcePyramid()) {
+          perm0 = PermutationAnnealer2D.quickSolve(pyramid, rows, cols, opts, new PermutationAnnealer2D.ProgressListener() {
+            @Override public void onStatus(long sec, double donePct, long iter, double temperature, long energy) {}
+
+            @Override public void onPyramidLevel(int sampleSize, int levelWidth, int levelHeight) {
+              runOnUiThread(() -> tvLog.append(String.format(Locale.US,
+                  "Biaya dari level 1/%d (%dx%d)\n", sampleSize, levelWidth, levelHeight)));
+            }
+          });
+        }
+        long ms = System.currentTimeMillis() - t0;
+        runOnUiThread(() -> tvLog.append("Greedy selesai dalam " + ms + " ms\n"));
+        publishResult(perm0, rows, cols);
       } catch (IOException e) {
         runOnUiThread(() -> {
           tvLog.append("\nGagal: " + e.getMessage() + "\n");
@@ -200,12 +742,28 @@ public class MainActivity extends AppCompatActivity {
     });
   }
 
+  /** Simpan hasil solver lalu tampilkan preview + teks permutasi (dipanggil dari thread worker). */
+  private void publishResult(int[] perm0, int rows, int cols) {
+    lastPerm0 = perm0;
+    lastRows = rows; lastCols = cols;
+
+    lastPermutationText = PermutationText.formatPermutationMatrix1Based(perm0, rows, cols);
+    runOnUiThread(() -> {
+      // Tampilkan output sesuai toggle
+      refreshOutputPreview();
+      etPermutation.setText(lastPermutationText);
+      tvLog.append("\nPERMUTASI (1-based):\n" + lastPermutationText + "\n");
+      btnRun.setEnabled(true);
+      toast("Selesai");
+    });
+  }
+
   // ==== MANUAL PERMUTATION ====
 
   private void applyManualPermutation() {
     if (srcBitmap == null) { toast("Belum ada gambar"); return; }
-    String txt = etPermutation.getText().toString().trim();
-    if (TextUtils.isEmpty(txt)) { toast("Isi permutasi dulu"); return; }
+    CharSequence txt = etPermutation.getText(); // tanpa salinan String; parser melewati spasi
+    if (TextUtils.getTrimmedLength(txt) == 0) { toast("Isi permutasi dulu"); return; }
     if (lastRows <= 0 || lastCols <= 0) {
       String rStr = etRows.getText().toString().trim();
       String cStr = etCols.getText().toString().trim();
@@ -215,13 +773,8 @@ public class MainActivity extends AppCompatActivity {
     }
 
     try {
-      int[] perm1 = parsePermutation1Based(txt, lastRows, lastCols);
-      int[] perm0 = new int[perm1.length];
-      for (int i = 0; i < perm1.length; i++) {
-        perm0[i] = perm1[i] - 1;
-        if (perm0[i] < 0) throw new IllegalArgumentException("Index < 1 pada posisi " + i);
-      }
-      lastPerm0 = perm0;
+      // Parser juga menolak id ganda / di luar 1..N, jadi preview tidak pernah dari permutasi rusak.
+      lastPerm0 = PermutationText.parse(txt, lastRows, lastCols);
       // Tampilkan output sesuai toggle
       refreshOutputPreview();
       toast("Permutasi diterapkan");
@@ -230,6 +783,110 @@ public class MainActivity extends AppCompatActivity {
     }
   }
 
+  /** Tulis hasil resolusi penuh ke PNG per band: sumber dibaca lewat region decoder, tanpa bitmap penuh. */
+  private void saveOutputPng(Uri target) {
+    final int[] perm0 = lastPerm0;
+    final int rows = lastRows, cols = lastCols;
+    final Uri source = pickedImage;
+    tvLog.append("Menyimpan PNG…\n");
+    runInteractive("Simpan PNG", () -> {
+      long t0 = System.currentTimeMillis();
+      try (RegionPixelSource src = RegionPixelSource.open(getContentResolver(), source)) {
+        OutputStream out = getContentResolver().openOutputStream(target);
+        if (out == null) throw new IOException("Tidak bisa buka tujuan: " + target);
+        BandReconstructor.writePng(src, rows, cols, perm0, false, out);
+        long ms = System.currentTimeMillis() - t0;
+        runOnUiThread(() -> tvLog.append("PNG tersimpan (" + ms + " ms)\n"));
+      } catch (IOException | RuntimeException e) {
+        runOnUiThread(() -> tvLog.append("\nGagal simpan: " + e.getMessage() + "\n"));
+      }
+    });
+  }
+
+  /** Simpan permutasi terakhir dalam format biner {@link PermutationFile} (grid + checksum). */
+  private void savePermutationFile(Uri target) {
+    final int[] perm0 = lastPerm0;
+    final int rows = lastRows, cols = lastCols;
+    runInteractive("Simpan permutasi", () -> {
+      try (OutputStream out = getContentResolver().openOutputStream(target)) {
+        if (out == null) throw new IOException("Tidak bisa buka tujuan: " + target);
+        PermutationFile.write(out, perm0, rows, cols);
+        runOnUiThread(() -> tvLog.append("Permutasi tersimpan (" + rows + "x" + cols + ")\n"));
+      } catch (IOException | RuntimeException e) {
+        runOnUiThread(() -> tvLog.append("\nGagal simpan permutasi: " + e.getMessage() + "\n"));
+      }
+    });
+  }
+
+  /**
+   * Muat permutasi dari file biner {@link PermutationFile} (grid ikut file) atau teks
+   * {@code [a,b;c,d]} (grid dari hasil terakhir / isian rows-cols), lalu terapkan ke preview.
+   */
+  private void loadPermutationFile(Uri source) {
+    int rows = lastRows, cols = lastCols;
+    if (rows <= 0 || cols <= 0) {
+      try {
+        rows = Integer.parseInt(etRows.getText().toString().trim());
+        cols = Integer.parseInt(etCols.getText().toString().trim());
+      } catch (NumberFormatException ignored) {
+        rows = cols = 0;
+      }
+    }
+    final int textRows = rows, textCols = cols;
+    runInteractive("Muat permutasi", () -> {
+      try (InputStream raw = getContentResolver().openInputStream(source)) {
+        if (raw == null) throw new IOException("Tidak bisa buka: " + source);
+        BufferedInputStream in = new BufferedInputStream(raw);
+        in.mark(4);
+        byte[] head = new byte[4];
+        int k = 0;
+        for (int r; k < head.length && (r = in.read(head, k, head.length - k)) > 0; ) k += r;
+        in.reset();
+        final int[] perm0;
+        final int r, c;
+        if (PermutationFile.looksLike(head)) {
+          PermutationFile.Permutation p = PermutationFile.read(in);
+          perm0 = p.pos2tile;
+          r = p.rows;
+          c = p.cols;
+        } else {
+          if (textRows <= 0 || textCols <= 0) throw new IOException("Rows/Cols belum valid untuk file teks");
+          perm0 = PermutationText.read(new InputStreamReader(in, StandardCharsets.UTF_8), textRows, textCols);
+          r = textRows;
+          c = textCols;
+        }
+        final String text = PermutationText.formatPermutationMatrix1Based(perm0, r, c);
+        runOnUiThread(() -> {
+          lastPerm0 = perm0;
+          lastRows = r;
+          lastCols = c;
+          lastPermutationText = text;
+          etPermutation.setText(text);
+          refreshOutputPreview();
+          tvLog.append("Permutasi dimuat (" + r + "x" + c + ")\n");
+        });
+      } catch (IOException | RuntimeException e) {
+        runOnUiThread(() -> tvLog.append("\nGagal muat permutasi: " + e.getMessage() + "\n"));
+      }
+    });
+  }
+
+  /** Tulis telemetri run terakhir (ringkasan + jejak energi) sebagai CSV. */
+  private void exportMetrics(Uri target) {
+    final SolverMetrics metrics = solver.metrics();
+    runInteractive("Ekspor telemetri", () -> {
+      try (OutputStream out = getContentResolver().openOutputStream(target)) {
+        if (out == null) throw new IOException("Tidak bisa buka tujuan: " + target);
+        Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        metrics.writeCsv(w);
+        w.flush();
+        runOnUiThread(() -> tvLog.append("Telemetri tersimpan (" + metrics.traceSize() + " sampel)\n"));
+      } catch (IOException e) {
+        runOnUiThread(() -> tvLog.append("\nGagal simpan telemetri: " + e.getMessage() + "\n"));
+      }
+    });
+  }
+
   private void copyPermutation() {
     if (TextUtils.isEmpty(lastPermutationText)) { toast("Belum ada permutasi"); return; }
     ClipboardManager cm = (ClipboardManager) getSystemService(Context.CLIPBOARD_SERVICE);
@@ -243,6 +900,7 @@ public class MainActivity extends AppCompatActivity {
   private void setImageFullSize(ImageView view, Bitmap bmp) {
     if (bmp == null) return;
     view.setImageBitmap(bmp);
+    view.setTag(bmp);
     if (view.getLayoutParams() != null) {
       view.getLayoutParams().width = bmp.getWidth();
       view.getLayoutParams().height = bmp.getHeight();
@@ -250,42 +908,10 @@ public class MainActivity extends AppCompatActivity {
     }
   }
 
-  private static String formatPermutationMatrix1Based(int[] perm0, int rows, int cols) {
-    StringBuilder sb = new StringBuilder();
-    sb.append('[');
-    for (int r = 0; r < rows; r++) {
-      for (int c = 0; c < cols; c++) {
-        int idx = r * cols + c;
-        sb.append(perm0[idx] + 1);
-        if (c + 1 < cols) sb.append(',');
-      }
-      if (r + 1 < rows) sb.append(';');
-    }
-    sb.append(']');
-    return sb.toString();
-  }
-
-  /** Parse teks 1-based ke array panjang rows*cols. Format: [a,b,c;d,e,f;...] */
-  private static int[] parsePermutation1Based(String text, int rows, int cols) {
-    String t = text.trim();
-    if (t.startsWith("[")) t = t.substring(1);
-    if (t.endsWith("]")) t = t.substring(0, t.length()-1);
-    String[] rowParts = t.split(";");
-    if (rowParts.length != rows) throw new IllegalArgumentException("Jumlah baris != rows");
-    ArrayList<Integer> vals = new ArrayList<>(rows * cols);
-    for (String row : rowParts) {
-      row = row.trim();
-      if (row.isEmpty()) throw new IllegalArgumentException("Baris kosong");
-      String[] xs = row.split(",");
-      if (xs.length != cols) throw new IllegalArgumentException("Jumlah kolom != cols");
-      for (String s : xs) {
-        int v = Integer.parseInt(s.trim());
-        vals.add(v);
-      }
-    }
-    int[] out = new int[vals.size()];
-    for (int i = 0; i < out.length; i++) out[i] = vals.get(i);
-    return out;
+  private EdgeCost.Kind selectedEdgeCost() {
+    int i = spEdgeCost.getSelectedItemPosition();
+    EdgeCost.Kind[] kinds = EdgeCost.Kind.values();
+    return i >= 0 && i < kinds.length ? kinds[i] : EdgeCost.Kind.L1;
   }
 
   private Integer tryParseInt(String s) {
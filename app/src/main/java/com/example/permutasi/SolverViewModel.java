@@ -0,0 +1,157 @@
+package com.example.permutasi;
+
+import androidx.lifecycle.ViewModel;
+
+import com.example.permutasi.core.JobScheduler;
+import com.example.permutasi.core.PermutationAnnealer2D;
+import com.example.permutasi.core.SolverMetrics;
+import com.example.permutasi.core.SolverSession;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Menahan {@link JobScheduler} dan sesi annealing utama melewati rotasi / activity dibuat ulang.
+ * Run utama adalah job batch di scheduler; activity yang sedang tampil menempel lewat {@link #attach}
+ * dan menerima progres serta hasil. Checkpoint ditulis berkala supaya run panjang bisa dilanjutkan
+ * setelah proses dimatikan.
+ */
+public class SolverViewModel extends ViewModel {
+  /** Jarak antar checkpoint otomatis. */
+  static final long CHECKPOINT_INTERVAL_MS = 30_000;
+
+  /** Callback ke activity; dipanggil dari thread worker. */
+  interface Client extends PermutationAnnealer2D.ProgressListener {
+    void onFinished(int[] perm0, int rows, int cols, boolean cancelled);
+
+    void onFailed(String message);
+
+    /** Susunan terbaik sementara untuk preview live; {@code perm0} hanya sah selama panggilan. */
+    void onPreview(int[] perm0, int rows, int cols, long bestEnergy);
+  }
+
+  /** Bangun tabel biaya lalu sesi baru atau sesi dari checkpoint; jalan di thread worker. */
+  interface SessionFactory {
+    SolverSession create(PermutationAnnealer2D.ProgressListener cb) throws IOException;
+  }
+
+  private final JobScheduler scheduler =
+      new JobScheduler(JobScheduler.defaultConcurrency(), JobScheduler.defaultMemoryBudget());
+  private volatile JobScheduler.Job<Void> job;
+  /** True dari start sampai hasil dikirim; yang pertama mengosongkannya yang mengirim hasil. */
+  private final AtomicBoolean running = new AtomicBoolean();
+  private volatile int runRows, runCols;
+  /** Telemetri run utama; dikosongkan tiap {@link #start}, buffer jejaknya dipakai ulang. */
+  private final SolverMetrics metrics = new SolverMetrics();
+  private Client client;
+  private Runnable pendingDelivery;
+
+  private final PermutationAnnealer2D.ProgressListener forward = new PermutationAnnealer2D.ProgressListener() {
+    @Override public void onStatus(long seconds, double donePct, long iter, double temperature, long energy) {
+      Client c = currentClient();
+      if (c != null) c.onStatus(seconds, donePct, iter, temperature, energy);
+    }
+
+    @Override public void onPyramidLevel(int sampleSize, int levelWidth, int levelHeight) {
+      Client c = currentClient();
+      if (c != null) c.onPyramidLevel(sampleSize, levelWidth, levelHeight);
+    }
+
+    @Override public void onStopped(PermutationAnnealer2D.StopReason reason, long iteration, long bestEnergy) {
+      Client c = currentClient();
+      if (c != null) c.onStopped(reason, iteration, bestEnergy);
+    }
+
+    @Override public void onBest(int[] pos2tile, long bestEnergy) {
+      Client c = currentClient();
+      if (c != null) c.onPreview(pos2tile, runRows, runCols, bestEnergy);
+    }
+  };
+
+  /** Scheduler bersama untuk run utama, antrean batch, dan kerja interaktif activity. */
+  JobScheduler scheduler() { return scheduler; }
+
+  /** Telemetri run utama terakhir; pasang di {@code Options.metrics} sesi yang dibuat factory. */
+  SolverMetrics metrics() { return metrics; }
+
+  boolean isRunning() { return running.get(); }
+
+  boolean isPaused() {
+    JobScheduler.Job<Void> j = job;
+    return running.get() && j != null && j.isPaused();
+  }
+
+  /** Antrekan run utama sebagai job batch. Checkpoint dihapus bila run selesai. */
+  void start(SessionFactory factory, int rows, int cols, File checkpoint, long memoryBytes) {
+    running.set(true);
+    metrics.reset();
+    runRows = rows;
+    runCols = cols;
+    job = scheduler.submit("Susun " + rows + "x" + cols, JobScheduler.Priority.BATCH, memoryBytes, j -> {
+      Delivery result;
+      try {
+        PermutationAnnealer2D.ProgressListener cb = j.progressListener(forward);
+        SolverSession s = factory.create(cb);
+        s.setCheckpoint(checkpoint, CHECKPOINT_INTERVAL_MS);
+        j.attach(s);
+        int[] perm0 = s.run(cb);
+        boolean cancelled = !s.isFinished();
+        if (!cancelled && checkpoint.exists() && !checkpoint.delete()) checkpoint.deleteOnExit();
+        result = c -> c.onFinished(perm0, rows, cols, cancelled);
+      } catch (IOException | RuntimeException e) {
+        result = c -> c.onFailed(e.getMessage());
+      }
+      if (running.compareAndSet(true, false)) deliver(result);
+      return null;
+    });
+  }
+
+  void pause() {
+    JobScheduler.Job<Void> j = job;
+    if (j != null) j.pause();
+  }
+
+  void resume() {
+    JobScheduler.Job<Void> j = job;
+    if (j != null) j.resume();
+  }
+
+  void cancel() {
+    JobScheduler.Job<Void> j = job;
+    if (j == null) return;
+    j.cancel();
+    // Dibatalkan selagi masih antre: work tidak pernah jalan, jadi hasil dikirim di sini.
+    if (j.state() == JobScheduler.State.CANCELLED && running.compareAndSet(true, false)) {
+      deliver(c -> c.onFailed("Dibatalkan sebelum mulai"));
+    }
+  }
+
+  /** Tempelkan activity; hasil yang selesai saat tidak ada activity dikirim sekarang. */
+  synchronized void attach(Client c) {
+    client = c;
+    if (pendingDelivery != null) {
+      Runnable r = pendingDelivery;
+      pendingDelivery = null;
+      r.run();
+    }
+  }
+
+  synchronized void detach(Client c) {
+    if (client == c) client = null;
+  }
+
+  private synchronized Client currentClient() { return client; }
+
+  private interface Delivery { void to(Client c); }
+
+  private synchronized void deliver(Delivery d) {
+    if (client != null) d.to(client);
+    else pendingDelivery = () -> d.to(client);
+  }
+
+  @Override protected void onCleared() {
+    // Activity ditutup permanen: hentikan semua job; checkpoint terakhir tetap ada di disk.
+    scheduler.shutdown();
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.permutasi.bitmap;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public final class BitmapIO {
+  private BitmapIO() {}
+
+  /** Ukuran asli gambar {lebar, tinggi} tanpa decode piksel. */
+  public static int[] readBounds(ContentResolver cr, Uri uri) throws IOException {
+    BitmapFactory.Options o = new BitmapFactory.Options();
+    o.inJustDecodeBounds = true;
+    try (InputStream in = cr.openInputStream(uri)) {
+      if (in == null) throw new IOException("Tidak bisa buka stream: " + uri);
+      BitmapFactory.decodeStream(in, null, o);
+    }
+    if (o.outWidth <= 0 || o.outHeight <= 0) throw new IOException("Gambar rusak/tidak didukung: " + uri);
+    return new int[] {o.outWidth, o.outHeight};
+  }
+
+  /** {@code inSampleSize} pangkat dua terkecil agar hasil decode paling banyak {@code maxPixels} piksel. */
+  public static int sampleSizeFor(int width, int height, long maxPixels) {
+    int s = 1;
+    while ((long) (width / s) * (height / s) > maxPixels) s *= 2;
+    return s;
+  }
+
+  public static Bitmap read(ContentResolver cr, Uri uri) throws IOException {
+    return readSampled(cr, uri, 1);
+  }
+
+  /**
+   * Decode langsung ke ARGB_8888 dengan {@code inSampleSize} (1 = penuh). Salinan hanya dibuat bila
+   * decoder tetap memberi config lain, jadi normalnya cuma satu bitmap di memori.
+   */
+  public static Bitmap readSampled(ContentResolver cr, Uri uri, int sampleSize) throws IOException {
+    BitmapFactory.Options o = new BitmapFactory.Options();
+    o.inPreferredConfig = Bitmap.Config.ARGB_8888;
+    o.inSampleSize = Math.max(1, sampleSize);
+    o.inMutable = true;
+    try (InputStream in = cr.openInputStream(uri)) {
+      if (in == null) throw new IOException("Tidak bisa buka stream: " + uri);
+      Bitmap src = BitmapFactory.decodeStream(in, null, o);
+      if (src == null) throw new IOException("Gambar rusak/tidak didukung: " + uri);
+      if (src.getConfig() == Bitmap.Config.ARGB_8888) return src;
+      Bitmap copy = src.copy(Bitmap.Config.ARGB_8888, true);
+      src.recycle();
+      return copy;
+    }
+  }
+}
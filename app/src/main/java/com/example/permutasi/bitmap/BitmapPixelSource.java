@@ -0,0 +1,22 @@
+package com.example.permutasi.bitmap;
+
+import android.graphics.Bitmap;
+
+import com.example.permutasi.core.PixelSource;
+
+/** Adapter tipis: {@link Bitmap} sebagai {@link PixelSource} untuk solver di modul core. */
+public final class BitmapPixelSource implements PixelSource {
+  private final Bitmap bitmap;
+
+  public BitmapPixelSource(Bitmap bitmap) {
+    this.bitmap = bitmap;
+  }
+
+  @Override public int getWidth() { return bitmap.getWidth(); }
+
+  @Override public int getHeight() { return bitmap.getHeight(); }
+
+  @Override public void getPixels(int[] dst, int offset, int stride, int x, int y, int w, int h) {
+    bitmap.getPixels(dst, offset, stride, x, y, w, h);
+  }
+}
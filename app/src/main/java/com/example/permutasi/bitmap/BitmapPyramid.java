@@ -0,0 +1,54 @@
+package com.example.permutasi.bitmap;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.net.Uri;
+
+import com.example.permutasi.core.ImagePyramid;
+import com.example.permutasi.core.PixelSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * {@link ImagePyramid} di atas Uri gambar. Bitmap yang sudah dimuat (mungkin sudah di-sample untuk
+ * preview) dipakai untuk levelnya sendiri; level lain di-decode ulang dengan {@code inSampleSize},
+ * dan resolusi penuh yang belum dimuat dibaca per band lewat {@link RegionPixelSource}. Ukuran hasil
+ * {@code inSampleSize} dibulatkan decoder, jadi batas tile di level dipetakan dari resolusi penuh oleh
+ * {@link com.example.permutasi.core.TileEdges}, bukan dibagi ulang dari ukuran level.
+ */
+public final class BitmapPyramid implements ImagePyramid, Closeable {
+  private final ContentResolver cr;
+  private final Uri uri;
+  private final int width, height;
+  private final Bitmap loaded;
+  private final int loadedSampleSize;
+  private RegionPixelSource region;
+
+  /** {@code loaded} = hasil decode Uri dengan {@code loadedSampleSize}; {@code width/height} = ukuran asli. */
+  public BitmapPyramid(ContentResolver cr, Uri uri, int width, int height, Bitmap loaded, int loadedSampleSize) {
+    this.cr = cr;
+    this.uri = uri;
+    this.width = width;
+    this.height = height;
+    this.loaded = loaded;
+    this.loadedSampleSize = loadedSampleSize;
+  }
+
+  @Override public int getWidth() { return width; }
+
+  @Override public int getHeight() { return height; }
+
+  @Override public PixelSource level(int sampleSize) throws IOException {
+    sampleSize = Math.max(1, sampleSize);
+    if (loaded != null && sampleSize == loadedSampleSize) return new BitmapPixelSource(loaded);
+    if (sampleSize > 1) return new BitmapPixelSource(BitmapIO.readSampled(cr, uri, sampleSize));
+    if (region == null) region = RegionPixelSource.open(cr, uri);
+    return region;
+  }
+
+  @Override public void close() {
+    if (region != null) region.close();
+    region = null;
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.permutasi.bitmap;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import com.example.permutasi.core.TilePermuter;
+
+import java.util.Arrays;
+
+/**
+ * Preview susunan tile yang diperkecil ke ukuran layar. Tile sumber diperkecil sekali ke atlas
+ * (susunan asli); tiap frame hanya posisi yang tile-nya berubah sejak frame sebelumnya yang digambar
+ * ulang dari atlas. Angka overlay ikut tile, jadi digambar sekali ke salinan atlas lalu di-cache;
+ * ukurannya mengikuti tile atlas, dan bila tile terlalu kecil untuk angka terbaca angka tidak digambar.
+ * Dipakai dari satu thread (UI).
+ */
+public final class PreviewRenderer {
+  /** Teks angka lebih kecil dari ini (px) tidak terbaca; atlas angka = atlas polos. */
+  private static final float MIN_LABEL_PX = 8f;
+
+  private final Atlas atlas;
+  private final Bitmap frame;
+  private final Canvas canvas;
+  /** Tile yang sekarang tergambar di tiap posisi frame; -1 = belum. */
+  private final int[] shown;
+  private boolean shownNumbers;
+  private final Rect from = new Rect(), to = new Rect();
+
+  /**
+   * Atlas dari {@code src} (grid rows×cols, sisa kanan/bawah dibuang), diperkecil supaya lebarnya
+   * paling banyak {@code maxWidth} dan luasnya paling banyak {@code maxPixels}.
+   */
+  public PreviewRenderer(Bitmap src, int rows, int cols, int maxWidth, long maxPixels) {
+    this(new Atlas(src, rows, cols, maxWidth, maxPixels));
+  }
+
+  private PreviewRenderer(Atlas atlas) {
+    this.atlas = atlas;
+    this.frame = Bitmap.createBitmap(atlas.cols * atlas.tileW, atlas.rows * atlas.tileH, Bitmap.Config.ARGB_8888);
+    this.canvas = new Canvas(frame);
+    this.shown = new int[atlas.rows * atlas.cols];
+    Arrays.fill(shown, -1);
+  }
+
+  /** Renderer dengan frame sendiri yang berbagi atlas (dan cache angka) dengan yang ini. */
+  public PreviewRenderer sibling() { return new PreviewRenderer(atlas); }
+
+  /** True bila atlas dibangun dari bitmap dan grid ini. */
+  public boolean matches(Bitmap src, int rows, int cols) {
+    return atlas.src == src && atlas.rows == rows && atlas.cols == cols;
+  }
+
+  /** False bila tile atlas terlalu kecil sehingga mode angka tampil tanpa angka. */
+  public boolean canShowNumbers() { return atlas.hasNumbers(); }
+
+  /** Bitmap yang ditampilkan; isinya diperbarui di tempat oleh {@link #render}. */
+  public Bitmap frame() { return frame; }
+
+  /**
+   * Gambar susunan {@code perm0} (0-based pos→tile) ke {@link #frame()}. Return jumlah tile yang
+   * digambar ulang; 0 = frame tidak berubah. Ganti mode angka menggambar ulang semua tile.
+   */
+  public int render(int[] perm0, boolean numbers) {
+    final int n = shown.length;
+    if (perm0 == null || perm0.length != n) throw new IllegalArgumentException("perm length mismatch");
+    if (numbers != shownNumbers) {
+      Arrays.fill(shown, -1);
+      shownNumbers = numbers;
+    }
+    Bitmap src = numbers ? atlas.numbered() : atlas.plain;
+    final int cols = atlas.cols, tw = atlas.tileW, th = atlas.tileH;
+    int drawn = 0;
+    for (int pos = 0; pos < n; pos++) {
+      int t = perm0[pos];
+      if (t == shown[pos]) continue;
+      if (t < 0 || t >= n) throw new IllegalArgumentException("Tile " + t + " di luar grid");
+      from.set((t % cols) * tw, (t / cols) * th, (t % cols + 1) * tw, (t / cols + 1) * th);
+      to.set((pos % cols) * tw, (pos / cols) * th, (pos % cols + 1) * tw, (pos / cols + 1) * th);
+      canvas.drawBitmap(src, from, to, null);
+      shown[pos] = t;
+      drawn++;
+    }
+    return drawn;
+  }
+
+  /** Tile sumber yang sudah diperkecil, dalam susunan asli. */
+  private static final class Atlas {
+    final Bitmap src;
+    final int rows, cols, tileW, tileH;
+    final Bitmap plain;
+    private Bitmap numbered;
+
+    Atlas(Bitmap src, int rows, int cols, int maxWidth, long maxPixels) {
+      int[] size = TilePermuter.previewTileSize(src.getWidth(), src.getHeight(), rows, cols, maxWidth, maxPixels);
+      this.src = src;
+      this.rows = rows;
+      this.cols = cols;
+      this.tileW = size[0];
+      this.tileH = size[1];
+      final int srcTileW = Math.max(1, src.getWidth() / cols), srcTileH = Math.max(1, src.getHeight() / rows);
+      this.plain = Bitmap.createBitmap(cols * tileW, rows * tileH, Bitmap.Config.ARGB_8888);
+      // Per tile supaya filter tidak mencampur piksel dari tile tetangga di tepi.
+      Canvas c = new Canvas(plain);
+      Paint filter = new Paint(Paint.FILTER_BITMAP_FLAG);
+      Rect from = new Rect(), to = new Rect();
+      for (int r = 0; r < rows; r++) {
+        for (int k = 0; k < cols; k++) {
+          from.set(k * srcTileW, r * srcTileH, (k + 1) * srcTileW, (r + 1) * srcTileH);
+          to.set(k * tileW, r * tileH, (k + 1) * tileW, (r + 1) * tileH);
+          c.drawBitmap(src, from, to, filter);
+        }
+      }
+    }
+
+    /** Atlas dengan angka 1-based tiap tile; dibuat saat pertama diminta. */
+    Bitmap numbered() {
+      if (numbered == null) {
+        float textSize = TileRenderer.fittedTextSize(tileW, tileH, rows * cols);
+        if (textSize < MIN_LABEL_PX) {
+          numbered = plain; // angka akan menumpuk ke tile tetangga
+        } else {
+          numbered = plain.copy(Bitmap.Config.ARGB_8888, true);
+          int[] identity = new int[rows * cols];
+          for (int i = 0; i < identity.length; i++) identity[i] = i;
+          TileRenderer.drawNumbers(new Canvas(numbered), tileW, tileH, rows, cols, identity, textSize);
+        }
+      }
+      return numbered;
+    }
+
+    /** True bila atlas angka benar-benar berisi angka. */
+    boolean hasNumbers() { return numbered() != plain; }
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.permutasi.bitmap;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.net.Uri;
+
+import com.example.permutasi.core.PixelSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link PixelSource} yang men-decode region langsung dari file lewat {@link BitmapRegionDecoder}:
+ * gambar penuh tidak pernah ada di memori. Core membaca per band berurutan, jadi satu bitmap region
+ * dipakai ulang selama ukuran band sama.
+ */
+public final class RegionPixelSource implements PixelSource, Closeable {
+  private final BitmapRegionDecoder decoder;
+  private final BitmapFactory.Options opts = new BitmapFactory.Options();
+  private final Rect rect = new Rect();
+  private Bitmap reuse;
+
+  private RegionPixelSource(BitmapRegionDecoder decoder) {
+    this.decoder = decoder;
+    opts.inPreferredConfig = Bitmap.Config.ARGB_8888;
+    opts.inMutable = true;
+  }
+
+  /** Buka decoder region untuk Uri (JPEG, PNG, WebP, HEIF). */
+  @SuppressWarnings("deprecation")
+  public static RegionPixelSource open(ContentResolver cr, Uri uri) throws IOException {
+    try (InputStream in = cr.openInputStream(uri)) {
+      if (in == null) throw new IOException("Tidak bisa buka stream: " + uri);
+      BitmapRegionDecoder d = BitmapRegionDecoder.newInstance(in, false);
+      if (d == null) throw new IOException("Region decoder tidak mendukung gambar: " + uri);
+      return new RegionPixelSource(d);
+    }
+  }
+
+  @Override public int getWidth() { return decoder.getWidth(); }
+
+  @Override public int getHeight() { return decoder.getHeight(); }
+
+  @Override public void getPixels(int[] dst, int offset, int stride, int x, int y, int w, int h) {
+    rect.set(x, y, x + w, y + h);
+    boolean sameSize = reuse != null && reuse.getWidth() == w && reuse.getHeight() == h;
+    opts.inBitmap = sameSize ? reuse : null;
+    Bitmap region = decoder.decodeRegion(rect, opts);
+    if (region == null) throw new IllegalStateException("decodeRegion gagal: " + rect);
+    if (region != reuse) {
+      if (reuse != null) reuse.recycle();
+      reuse = region.isMutable() ? region : null;
+    }
+    region.getPixels(dst, offset, stride, 0, 0, w, h);
+    if (region != reuse) region.recycle();
+  }
+
+  @Override public void close() {
+    if (reuse != null) reuse.recycle();
+    reuse = null;
+    decoder.recycle();
+  }
+}
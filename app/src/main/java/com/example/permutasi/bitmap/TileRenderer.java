@@ -0,0 +1,85 @@
+package com.example.permutasi.bitmap;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import com.example.permutasi.core.TilePermuter;
+
+/** Render hasil permutasi ke {@link Bitmap} untuk preview di app. */
+public final class TileRenderer {
+  private TileRenderer() {}
+
+  /**
+   * Bangun bitmap hasil (mutable) dari permutasi 0-based (panjang rows*cols), pos row-major.
+   * Satu getPixels, permutasi tile di heap, satu setPixels.
+   */
+  public static Bitmap reconstruct(Bitmap src, int rows, int cols, int[] perm0) {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    if (perm0 == null || perm0.length != rows*cols) throw new IllegalArgumentException("perm length mismatch");
+    final int W = src.getWidth(), H = src.getHeight();
+
+    int[] px = new int[W * H];
+    src.getPixels(px, 0, W, 0, 0, W, H);
+    TilePermuter.permuteInPlace(px, W, H, rows, cols, perm0);
+
+    Bitmap out = Bitmap.createBitmap(W, H, Bitmap.Config.ARGB_8888);
+    out.setPixels(px, 0, W, 0, 0, W, H);
+    return out;
+  }
+
+  /** Bangun bitmap hasil + overlay angka 1-based di pusat tiap tile (kontras). */
+  public static Bitmap reconstructWithNumbers(Bitmap src, int rows, int cols, int[] perm0) {
+    // Hasil reconstruct sudah mutable: overlay digambar langsung tanpa salinan kedua.
+    Bitmap mutable = reconstruct(src, rows, cols, perm0);
+    int W = mutable.getWidth(), H = mutable.getHeight();
+    drawNumbers(new Canvas(mutable), Math.max(1, W / cols), Math.max(1, H / rows), rows, cols, perm0);
+    return mutable;
+  }
+
+  /**
+   * Gambar angka 1-based {@code perm0[pos] + 1} di pusat tiap posisi tile {@code tileW×tileH}, dengan
+   * teks minimal 24px (untuk bitmap resolusi penuh).
+   */
+  public static void drawNumbers(Canvas canvas, int tileW, int tileH, int rows, int cols, int[] perm0) {
+    drawNumbers(canvas, tileW, tileH, rows, cols, perm0, Math.max(24f, Math.min(tileW, tileH) / 2.5f));
+  }
+
+  /**
+   * Ukuran teks terbesar (paling besar sisi tile / 2.5, tanpa batas bawah) supaya angka 1-based
+   * terpanjang untuk {@code n} tile muat di 90% lebar tile. Untuk bitmap yang diperkecil.
+   */
+  public static float fittedTextSize(int tileW, int tileH, int n) {
+    Paint p = new Paint(Paint.ANTI_ALIAS_FLAG);
+    p.setTextSize(100f);
+    float width = p.measureText(String.valueOf(n));
+    float size = Math.min(tileW, tileH) / 2.5f;
+    return width > 0 ? Math.min(size, 100f * 0.9f * tileW / width) : size;
+  }
+
+  /** Seperti {@link #drawNumbers(Canvas, int, int, int, int, int[])} dengan ukuran teks {@code textSize}. */
+  public static void drawNumbers(Canvas canvas, int tileW, int tileH, int rows, int cols, int[] perm0,
+                                 float textSize) {
+    Paint circle = new Paint(Paint.ANTI_ALIAS_FLAG);
+    circle.setStyle(Paint.Style.FILL);
+    circle.setColor(0xAA000000); // hitam semi-transparan
+
+    Paint text = new Paint(Paint.ANTI_ALIAS_FLAG);
+    text.setTextAlign(Paint.Align.CENTER);
+    text.setTextSize(textSize);
+    text.setColor(0xFFFFFFFF); // putih
+
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < cols; c++) {
+        int pos = r * cols + c;
+        int id1 = perm0[pos] + 1;      // tampilkan 1-based
+        float cx = c * tileW + tileW / 2f;
+        float cy = r * tileH + tileH / 2f;
+
+        float rad = Math.min(tileW, tileH) * 0.35f;
+        canvas.drawCircle(cx, cy - rad*0.1f, rad, circle);
+        canvas.drawText(String.valueOf(id1), cx, cy + textSize * 0.35f, text);
+      }
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.permutasi.bench;
+
+import com.example.permutasi.core.ArgbRaster;
+import com.example.permutasi.core.CostTables;
+import com.example.permutasi.core.FastRandom;
+import com.example.permutasi.core.PermutationAnnealer2D;
+import com.example.permutasi.core.TemperatureCalibrator;
+import com.example.permutasi.core.TileEdges;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Iterasi annealing per detik (satu rantai) di atas tabel biaya yang sudah jadi. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AnnealBenchmark {
+  private static final int STEPS = 1 << 20;
+
+  @Param({"4", "16", "48"})
+  public int grid;
+
+  /** {@code swap}: hanya swap dua tile; {@code mixed}: campuran default (swap, blok, shift). */
+  @Param({"swap", "mixed"})
+  public String moves;
+
+  private CostTables tables;
+  private PermutationAnnealer2D.Options opts;
+  private double startTemp;
+
+  @Setup
+  public void setup() {
+    int side = grid * 32;
+    ArgbRaster image = SyntheticImages.scrambled(side, side, grid, grid, 7, null);
+    tables = CostTables.build(TileEdges.extract(image, grid, grid), 0);
+
+    opts = new PermutationAnnealer2D.Options();
+    if ("swap".equals(moves)) {
+      opts.swapWeight = 1;
+      opts.blockSwapWeight = 0;
+      opts.shiftWeight = 0;
+    }
+    int[] identity = new int[tables.n];
+    for (int i = 0; i < identity.length; i++) identity[i] = i;
+    startTemp = TemperatureCalibrator.calibrate(tables, identity, opts.targetAcceptance,
+        TemperatureCalibrator.DEFAULT_SAMPLES, new FastRandom(1));
+  }
+
+  /** Skor = iterasi/detik. */
+  @Benchmark
+  @OperationsPerInvocation(STEPS)
+  public int[] anneal() {
+    return PermutationAnnealer2D.solve(tables, STEPS, startTemp, opts, null);
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.permutasi.bench;
+
+import com.example.permutasi.core.ArgbRaster;
+import com.example.permutasi.core.CostTables;
+import com.example.permutasi.core.EdgeCost;
+import com.example.permutasi.core.TileEdges;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Waktu ekstraksi strip tepi dan build tabel biaya H/V (sekuensial vs semua core, padat vs kandidat). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CostTableBenchmark {
+  @Param({"4", "16", "48"})
+  public int grid;
+
+  /** Sisi tile dalam piksel; 48×48 grid × 64 px ≈ 9,4 MP. */
+  @Param({"64"})
+  public int tilePx;
+
+  /** 1 = sekuensial, 0 = semua core. */
+  @Param({"1", "0"})
+  public int parallelism;
+
+  private ArgbRaster image;
+  private TileEdges edges;
+
+  @Setup
+  public void setup() {
+    int side = grid * tilePx;
+    image = SyntheticImages.scrambled(side, side, grid, grid, 7, null);
+    edges = TileEdges.extract(image, grid, grid);
+  }
+
+  @Benchmark
+  public TileEdges extractEdges() {
+    return TileEdges.extract(image, grid, grid);
+  }
+
+  @Benchmark
+  public CostTables buildTables() {
+    return CostTables.build(edges, parallelism);
+  }
+
+  @Benchmark
+  public CostTables buildCandidateTables() {
+    return CostTables.buildSparse(edges, new EdgeCost.L1(), 16, parallelism);
+  }
+}
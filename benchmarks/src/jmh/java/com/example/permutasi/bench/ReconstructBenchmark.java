@@ -0,0 +1,51 @@
+package com.example.permutasi.bench;
+
+import com.example.permutasi.core.ArgbRaster;
+import com.example.permutasi.core.PermutationAnnealer2D;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Waktu susun ulang raster dari permutasi; throughput MP/s = megapixels / skor (detik). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReconstructBenchmark {
+  @Param({"1", "6", "24"})
+  public int megapixels;
+
+  @Param({"16", "48"})
+  public int grid;
+
+  private ArgbRaster image;
+  private int[] perm;
+
+  @Setup
+  public void setup() {
+    // Sisi persegi dibulatkan ke kelipatan grid supaya tile tidak terpotong.
+    int side = (int) Math.sqrt(megapixels * 1_000_000.0) / grid * grid;
+    image = SyntheticImages.smooth(side, side, 3);
+    int n = grid * grid;
+    perm = new int[n];
+    for (int i = 0; i < n; i++) perm[i] = i;
+    Random r = new Random(5);
+    for (int i = n - 1; i > 0; i--) {
+      int j = r.nextInt(i + 1);
+      int t = perm[i]; perm[i] = perm[j]; perm[j] = t;
+    }
+  }
+
+  @Benchmark
+  public ArgbRaster reconstruct() {
+    return PermutationAnnealer2D.reconstruct(image, grid, grid, perm);
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.permutasi.bench;
+
+import com.example.permutasi.core.ArgbRaster;
+import com.example.permutasi.core.CoolingSchedule;
+import com.example.permutasi.core.CostTables;
+import com.example.permutasi.core.PermutationAnnealer2D;
+import com.example.permutasi.core.TileEdges;
+
+import java.util.Locale;
+
+/**
+ * Kurva energi vs waktu untuk tiap {@link CoolingSchedule.Kind} pada gambar sintetis yang sama.
+ * Output CSV di stdout: {@code schedule,ms,iter,temperature,energy}; baris {@code iter=-1} berisi
+ * energi akhir, baris {@code schedule=reference} energi susunan asli.
+ *
+ * <pre>EnergyCurve [grid=48] [iterations=5000000] [tilePx=32]</pre>
+ */
+public final class EnergyCurve {
+  private EnergyCurve() {}
+
+  public static void main(String[] args) {
+    int grid = args.length > 0 ? Integer.parseInt(args[0]) : 48;
+    long iterations = args.length > 1 ? Long.parseLong(args[1]) : 5_000_000L;
+    int tilePx = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+
+    int side = grid * tilePx;
+    int[] solution = new int[grid * grid];
+    ArgbRaster img = SyntheticImages.scrambled(side, side, grid, grid, 42, solution);
+    CostTables tables = CostTables.build(TileEdges.extract(img, grid, grid), 0);
+
+    System.out.println("schedule,ms,iter,temperature,energy");
+    System.out.printf(Locale.US, "reference,0,0,0,%d%n", SyntheticImages.energy(tables, solution));
+
+    for (CoolingSchedule.Kind kind : CoolingSchedule.Kind.values()) {
+      PermutationAnnealer2D.Options opts = new PermutationAnnealer2D.Options();
+      opts.schedule = kind;
+      opts.autoTemperature = true;
+      final String name = kind.name().toLowerCase(Locale.ROOT);
+      final long t0 = System.nanoTime();
+      int[] perm = PermutationAnnealer2D.solve(tables, iterations, 0, opts,
+          (sec, donePct, iter, temperature, energy) ->
+              System.out.printf(Locale.US, "%s,%d,%d,%.4f,%d%n",
+                  name, (System.nanoTime() - t0) / 1_000_000, iter, temperature, energy));
+      System.out.printf(Locale.US, "%s,%d,-1,0,%d%n",
+          name, (System.nanoTime() - t0) / 1_000_000, SyntheticImages.energy(tables, perm));
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.permutasi.bench;
+
+import com.example.permutasi.core.ArgbRaster;
+import com.example.permutasi.core.CostTables;
+
+import java.util.Random;
+
+/** Gambar uji deterministik: gradien sinus halus yang diacak per tile. */
+public final class SyntheticImages {
+  private SyntheticImages() {}
+
+  /** Gambar halus tanpa tepi tajam, jadi biaya tepi yang benar selalu jauh lebih kecil. */
+  public static ArgbRaster smooth(int w, int h, long seed) {
+    Random r = new Random(seed);
+    double f1 = 0.002 + r.nextDouble() * 0.01, f2 = 0.002 + r.nextDouble() * 0.01, f3 = 0.001 + r.nextDouble() * 0.005;
+    ArgbRaster out = new ArgbRaster(w, h);
+    int[] px = out.pixels();
+    for (int y = 0; y < h; y++) {
+      for (int x = 0; x < w; x++) {
+        int red = (int) (127 + 120 * Math.sin(x * f1 + y * f3));
+        int green = (int) (127 + 120 * Math.sin(y * f2 + x * 0.3 * f1));
+        int blue = (int) (127 + 120 * Math.cos((x + y) * f3 * 1.7));
+        px[y * w + x] = 0xFF000000 | (red << 16) | (green << 8) | blue;
+      }
+    }
+    return out;
+  }
+
+  /**
+   * {@link #smooth} yang tile-nya diacak (Fisher–Yates). Jika {@code solutionOut} != null, diisi
+   * permutasi 0-based yang mengembalikan gambar asli (format hasil solver).
+   */
+  public static ArgbRaster scrambled(int w, int h, int rows, int cols, long seed, int[] solutionOut) {
+    ArgbRaster src = smooth(w, h, seed);
+    int n = rows * cols, tw = w / cols, th = h / rows;
+    int[] p = new int[n];
+    for (int i = 0; i < n; i++) p[i] = i;
+    Random r = new Random(seed + 1);
+    for (int i = n - 1; i > 0; i--) {
+      int j = r.nextInt(i + 1);
+      int t = p[i]; p[i] = p[j]; p[j] = t;
+    }
+
+    int[] in = src.pixels();
+    ArgbRaster out = new ArgbRaster(w, h, in.clone());
+    int[] px = out.pixels();
+    for (int pos = 0; pos < n; pos++) {
+      int t = p[pos];
+      int sx = (t % cols) * tw, sy = (t / cols) * th;
+      int dx = (pos % cols) * tw, dy = (pos / cols) * th;
+      for (int y = 0; y < th; y++) System.arraycopy(in, (sy + y) * w + sx, px, (dy + y) * w + dx, tw);
+      if (solutionOut != null) solutionOut[t] = pos;
+    }
+    return out;
+  }
+
+  /** Energi total susunan (jumlah biaya tepi kanan + bawah). */
+  public static long energy(CostTables tables, int[] pos2tile) {
+    long e = 0;
+    for (int r = 0; r < tables.rows; r++) {
+      for (int c = 0; c < tables.cols; c++) {
+        int i = r * tables.cols + c;
+        if (c + 1 < tables.cols) e += tables.h.get(pos2tile[i], pos2tile[i + 1]);
+        if (r + 1 < tables.rows) e += tables.v.get(pos2tile[i], pos2tile[i + tables.cols]);
+      }
+    }
+    return e;
+  }
+}
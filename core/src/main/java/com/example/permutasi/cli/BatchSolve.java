@@ -0,0 +1,241 @@
+package com.example.permutasi.cli;
+
+import com.example.permutasi.core.ArgbRaster;
+import com.example.permutasi.core.BandReconstructor;
+import com.example.permutasi.core.CoolingSchedule;
+import com.example.permutasi.core.CostTableCache;
+import com.example.permutasi.core.EdgeCost;
+import com.example.permutasi.core.ImagePyramid;
+import com.example.permutasi.core.PermutationAnnealer2D;
+import com.example.permutasi.core.PermutationFile;
+import com.example.permutasi.core.PermutationText;
+import com.example.permutasi.core.SolverMetrics;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Solve semua PNG/JPEG di satu folder tanpa Android.
+ *
+ * <pre>
+ * BatchSolve &lt;dir&gt; &lt;rows&gt; &lt;cols&gt; [--iterations N] [--temp T|auto] [--schedule linear|geometric|reheat]
+ *            [--replicas K] [--greedy] [--quick] [--pyramid minTileSide] [--stream]
+ *            [--cost l1|prediction|ratio] [--candidates K] [--cache dir] [--stall N] [--target E]
+ *            [--time-limit detik] [--trace] [--binary] [--out dir]
+ * </pre>
+ *
+ * {@code --stream}: gambar tidak dimuat utuh; tepi tile dibaca per band dan hasil ditulis sebagai PNG
+ * streaming per band (untuk gambar yang tidak muat di heap).
+ *
+ * {@code --pyramid} membangun tabel biaya dari gambar yang diperkecil (tile minimal minTileSide px);
+ * gambar hasil tetap resolusi penuh.
+ *
+ * {@code --candidates K}: simpan hanya K tetangga termurah per tile (grid besar); 0 = otomatis, -1 = tabel padat.
+ *
+ * {@code --cache dir}: simpan tabel biaya di folder ini (maks. {@link #CACHE_BYTES}); run ulang dengan
+ * gambar, grid dan metrik sama memakai tabel dari disk.
+ *
+ * {@code --stall N}, {@code --target E}, {@code --time-limit detik}: berhenti dini bila energi terbaik
+ * tidak membaik selama N iterasi, mencapai E, atau waktu habis; susunan terbaik yang ditulis.
+ *
+ * {@code --trace}: cetak ringkasan telemetri per gambar dan tulis jejak energi ke {@code <nama>.trace.csv}.
+ *
+ * {@code --binary}: tulis juga {@code <nama>.perm} dalam format biner {@link PermutationFile}.
+ *
+ * Per gambar ditulis {@code <nama>.solved.png} dan {@code <nama>.perm.txt} (format 1-based seperti app).
+ */
+public final class BatchSolve {
+  /** Batas ukuran folder {@code --cache}. */
+  private static final long CACHE_BYTES = 2L << 30;
+
+  private BatchSolve() {}
+
+  public static void main(String[] args) {
+    if (args.length < 3) {
+      System.err.println("Pakai: BatchSolve <dir> <rows> <cols> [--iterations N] [--temp T|auto]"
+          + " [--schedule linear|geometric|reheat] [--replicas K] [--greedy] [--quick] [--pyramid minTileSide]"
+          + " [--stream] [--cost l1|prediction|ratio] [--candidates K] [--cache dir]"
+          + " [--stall N] [--target E] [--time-limit detik] [--trace] [--binary] [--out dir]");
+      System.exit(2);
+    }
+    File dir = new File(args[0]);
+    int rows = Integer.parseInt(args[1]);
+    int cols = Integer.parseInt(args[2]);
+    long iterations = 300_000;
+    double temp = 0;
+    boolean quick = false, stream = false, binary = false;
+    File outDir = dir;
+    PermutationAnnealer2D.Options opts = new PermutationAnnealer2D.Options();
+    opts.autoTemperature = true;
+
+    for (int i = 3; i < args.length; i++) {
+      String a = args[i];
+      switch (a) {
+        case "--iterations": iterations = Long.parseLong(value(args, ++i, a)); break;
+        case "--temp": {
+          String v = value(args, ++i, a);
+          opts.autoTemperature = "auto".equalsIgnoreCase(v);
+          if (!opts.autoTemperature) temp = Double.parseDouble(v);
+          break;
+        }
+        case "--schedule":
+          opts.schedule = CoolingSchedule.Kind.valueOf(value(args, ++i, a).toUpperCase(Locale.ROOT));
+          break;
+        case "--replicas": opts.replicas = Integer.parseInt(value(args, ++i, a)); break;
+        case "--greedy": opts.greedyStart = true; break;
+        case "--quick": quick = true; break;
+        case "--stream": stream = true; break;
+        case "--cost":
+          opts.edgeCost = EdgeCost.Kind.valueOf(value(args, ++i, a).toUpperCase(Locale.ROOT));
+          break;
+        case "--candidates": opts.candidateK = Integer.parseInt(value(args, ++i, a)); break;
+        case "--stall": opts.stallIterations = Long.parseLong(value(args, ++i, a)); break;
+        case "--target": opts.targetEnergy = Long.parseLong(value(args, ++i, a)); break;
+        case "--time-limit":
+          opts.timeBudgetMillis = Math.round(Double.parseDouble(value(args, ++i, a)) * 1000);
+          break;
+        case "--cache": opts.tableCache = new CostTableCache(new File(value(args, ++i, a)), CACHE_BYTES); break;
+        case "--trace": opts.metrics = new SolverMetrics(); break;
+        case "--pyramid": opts.pyramidMinTileSide = Integer.parseInt(value(args, ++i, a)); break;
+        case "--binary": binary = true; break;
+        case "--out": outDir = new File(value(args, ++i, a)); break;
+        default:
+          System.err.println("Opsi tidak dikenal: " + a);
+          System.exit(2);
+      }
+    }
+
+    File[] files = dir.listFiles((d, name) -> isImage(name));
+    if (files == null) {
+      System.err.println("Bukan folder: " + dir);
+      System.exit(2);
+    }
+    Arrays.sort(files);
+    if (!outDir.isDirectory() && !outDir.mkdirs()) {
+      System.err.println("Tidak bisa membuat folder output: " + outDir);
+      System.exit(2);
+    }
+
+    int failed = 0;
+    for (File f : files) {
+      try {
+        solveOne(f, outDir, rows, cols, iterations, temp, quick, stream, binary, opts);
+      } catch (IOException | RuntimeException e) {
+        failed++;
+        System.err.println(f.getName() + ": gagal: " + e.getMessage());
+      }
+    }
+    System.out.printf(Locale.US, "Selesai: %d gambar, %d gagal%n", files.length, failed);
+    if (failed > 0) System.exit(1);
+  }
+
+  private static void solveOne(final File f, File outDir, int rows, int cols, long iterations, double temp,
+                               boolean quick, boolean stream, boolean binary, PermutationAnnealer2D.Options opts)
+      throws IOException {
+    long t0 = System.nanoTime();
+    if (opts.metrics != null) opts.metrics.reset();
+    PermutationAnnealer2D.ProgressListener levelLog = new PermutationAnnealer2D.ProgressListener() {
+      @Override public void onStatus(long seconds, double donePct, long iter, double temperature, long energy) {}
+
+      @Override public void onPyramidLevel(int sampleSize, int levelWidth, int levelHeight) {
+        if (sampleSize > 1) {
+          System.out.printf(Locale.US, "%s: biaya dari level 1/%d (%dx%d)%n",
+              f.getName(), sampleSize, levelWidth, levelHeight);
+        }
+      }
+
+      @Override public void onStopped(PermutationAnnealer2D.StopReason reason, long iter, long bestEnergy) {
+        if (reason != PermutationAnnealer2D.StopReason.COMPLETED) {
+          System.out.printf(Locale.US, "%s: berhenti %s di iterasi %d, E=%d%n", f.getName(), reason, iter, bestEnergy);
+        }
+      }
+    };
+    String base = stripExtension(f.getName());
+    File solved = new File(outDir, base + ".solved.png");
+    int[] perm0;
+    double sec;
+    if (stream) {
+      try (ImageIoRegionSource src = new ImageIoRegionSource(f)) {
+        perm0 = solve(src, rows, cols, iterations, temp, quick, opts, levelLog);
+        sec = (System.nanoTime() - t0) / 1e9;
+        boolean alpha = f.getName().toLowerCase(Locale.ROOT).endsWith(".png");
+        BandReconstructor.writePng(src, rows, cols, perm0, alpha, Files.newOutputStream(solved.toPath()));
+      }
+    } else {
+      ArgbRaster src = read(f);
+      perm0 = solve(ImagePyramid.of(src), rows, cols, iterations, temp, quick, opts, levelLog);
+      sec = (System.nanoTime() - t0) / 1e9;
+      write(PermutationAnnealer2D.reconstruct(src, rows, cols, perm0), solved);
+    }
+    try (Writer w = new OutputStreamWriter(
+        Files.newOutputStream(new File(outDir, base + ".perm.txt").toPath()), StandardCharsets.UTF_8)) {
+      PermutationText.write(w, perm0, rows, cols);
+      w.write('\n');
+    }
+    if (binary) {
+      try (OutputStream out = Files.newOutputStream(new File(outDir, base + ".perm").toPath())) {
+        PermutationFile.write(out, perm0, rows, cols);
+      }
+    }
+    System.out.printf(Locale.US, "%s: %dx%d tile, %.2f s%n", f.getName(), rows, cols, sec);
+    if (opts.metrics != null && !quick) {
+      StringBuilder sb = new StringBuilder(f.getName()).append(": ");
+      opts.metrics.appendSummary(sb);
+      System.out.println(sb);
+      try (Writer w = new OutputStreamWriter(
+          Files.newOutputStream(new File(outDir, base + ".trace.csv").toPath()), StandardCharsets.UTF_8)) {
+        opts.metrics.writeCsv(w);
+      }
+    }
+  }
+
+  private static int[] solve(ImagePyramid src, int rows, int cols, long iterations, double temp, boolean quick,
+                             PermutationAnnealer2D.Options opts, PermutationAnnealer2D.ProgressListener cb)
+      throws IOException {
+    return quick
+        ? PermutationAnnealer2D.quickSolve(src, rows, cols, opts, cb)
+        : PermutationAnnealer2D.solve(src, rows, cols, iterations, temp, opts, cb);
+  }
+
+  private static ArgbRaster read(File f) throws IOException {
+    BufferedImage img = ImageIO.read(f);
+    if (img == null) throw new IOException("Format gambar tidak didukung");
+    int w = img.getWidth(), h = img.getHeight();
+    ArgbRaster r = new ArgbRaster(w, h);
+    img.getRGB(0, 0, w, h, r.pixels(), 0, w);
+    return r;
+  }
+
+  private static void write(ArgbRaster r, File out) throws IOException {
+    int w = r.getWidth(), h = r.getHeight();
+    BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    img.setRGB(0, 0, w, h, r.pixels(), 0, w);
+    if (!ImageIO.write(img, "png", out)) throw new IOException("Writer PNG tidak tersedia");
+  }
+
+  private static boolean isImage(String name) {
+    String n = name.toLowerCase(Locale.ROOT);
+    if (n.contains(".solved.")) return false;
+    return n.endsWith(".png") || n.endsWith(".jpg") || n.endsWith(".jpeg");
+  }
+
+  private static String stripExtension(String name) {
+    int dot = name.lastIndexOf('.');
+    return dot > 0 ? name.substring(0, dot) : name;
+  }
+
+  private static String value(String[] args, int i, String flag) {
+    if (i >= args.length) throw new IllegalArgumentException(flag + " butuh nilai");
+    return args[i];
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.permutasi.cli;
+
+import com.example.permutasi.core.ArgbRaster;
+import com.example.permutasi.core.ImagePyramid;
+import com.example.permutasi.core.PixelSource;
+
+import java.awt.Rectangle;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Sumber piksel yang membaca region langsung dari file lewat {@link ImageReader}; gambar penuh tidak
+ * pernah dimuat. Catatan: reader PNG JDK men-decode
+ * ulang dari awal untuk tiap region, jadi mode ini hemat memori tapi lebih lambat.
+ */
+final class ImageIoRegionSource implements PixelSource, ImagePyramid, Closeable {
+  /** Piksel sumber maksimum per baca saat membangun level pyramid. */
+  private static final int BAND_PIXELS = 1 << 22;
+
+  private final ImageInputStream in;
+  private final ImageReader reader;
+  private final int width, height;
+
+  ImageIoRegionSource(File f) throws IOException {
+    in = ImageIO.createImageInputStream(f);
+    if (in == null) throw new IOException("Tidak bisa buka: " + f);
+    Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+    if (!readers.hasNext()) {
+      in.close();
+      throw new IOException("Format gambar tidak didukung");
+    }
+    reader = readers.next();
+    reader.setInput(in, false, true);
+    width = reader.getWidth(0);
+    height = reader.getHeight(0);
+  }
+
+  @Override public int getWidth() { return width; }
+
+  @Override public int getHeight() { return height; }
+
+  @Override public void getPixels(int[] dst, int offset, int stride, int x, int y, int w, int h) {
+    ImageReadParam p = reader.getDefaultReadParam();
+    p.setSourceRegion(new Rectangle(x, y, w, h));
+    try {
+      reader.read(0, p).getRGB(0, 0, w, h, dst, offset, stride);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Level dengan rata-rata kotak seperti {@link ImagePyramid#of}, dibaca per band beberapa baris. */
+  @Override public PixelSource level(int sampleSize) throws IOException {
+    if (sampleSize <= 1) return this;
+    final int w = Math.max(1, width / sampleSize), h = Math.max(1, height / sampleSize);
+    final int fy = Math.min(sampleSize, height);
+    final int linesOut = Math.max(1, BAND_PIXELS / (width * fy));
+    ArgbRaster out = new ArgbRaster(w, h);
+    ArgbRaster band = null;
+    for (int y = 0; y < h; y += linesOut) {
+      int k = Math.min(linesOut, h - y);
+      if (band == null || band.getHeight() != k * fy) band = new ArgbRaster(width, k * fy);
+      try {
+        getPixels(band.pixels(), 0, width, 0, y * fy, width, k * fy);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      ArgbRaster small = band.downsample(sampleSize);
+      out.setPixels(small.pixels(), 0, w, 0, y, w, k);
+    }
+    return out;
+  }
+
+  @Override public void close() throws IOException {
+    reader.dispose();
+    in.close();
+  }
+}
@@ -0,0 +1,491 @@
+package com.example.permutasi.core;
+
+/**
+ * Satu rantai Markov SA: permutasi pos→tile, energinya, dan RNG sendiri. Tabel biaya
+ * hanya dibaca, jadi beberapa rantai boleh jalan paralel di atas {@link CostTables} yang sama.
+ *
+ * <p>Susunan terbaik dilacak per langkah. Snapshot diambil malas: setelah energi membaik, state
+ * saat ini tetap yang terbaik sampai langkah naik pertama diterima, jadi permutasi baru disalin
+ * tepat sebelum langkah naik itu (atau saat diminta lewat {@link #copyBest}).
+ */
+final class AnnealChain {
+  /** Di atas delta/T ini peluang terima < 2^-64: langsung tolak tanpa menghitung pangkat. */
+  private static final double MAX_UPHILL_EXPONENT = 64.0;
+
+  final int rows, cols, n;
+  final CostMatrix diffH, diffV;
+  /** Pembaca biaya untuk delta, dipilih sekali per tabel (padat / kandidat). */
+  private final CostMatrix.Lookup costH, costV;
+  final int[] pos2tile;
+  final FastRandom rnd;
+  long energy;
+  /** Langkah yang sudah dijalankan (termasuk sebelum restore). */
+  long steps;
+  /** Energi terbaik dan langkah ke berapa dicapai. */
+  long bestEnergy, bestStep;
+  /** Telemetri sejak rantai dibuat: langkah diterima dan yang diterima dengan delta < 0. */
+  long accepted, improved;
+  private final int[] best;
+  /** True: state saat ini = terbaik dan belum disalin ke {@link #best}. */
+  private boolean bestDirty;
+
+  /** colOf[p] = p % cols, supaya loop tidak membagi. */
+  private final int[] colOf;
+
+  // Campuran langkah (bobot relatif) dan batas sisi blok; default swap saja.
+  private int swapWeight = 1, candidateWeight = 0, blockSwapWeight = 0, shiftWeight = 0;
+  private int maxBlock = 1;
+  /** tile→pos, hanya dirawat bila langkah kandidat aktif (null selain itu). */
+  private int[] tile2pos;
+  /** Buffer rotasi untuk langkah shift. */
+  private final int[] shiftBuf;
+
+  AnnealChain(CostTables tables, int[] initial, FastRandom rnd) {
+    if (initial.length != tables.n) throw new IllegalArgumentException("perm length mismatch");
+    this.rows = tables.rows;
+    this.cols = tables.cols;
+    this.n = tables.n;
+    this.diffH = tables.h;
+    this.diffV = tables.v;
+    this.costH = diffH.lookup();
+    this.costV = diffV.lookup();
+    this.pos2tile = initial.clone();
+    this.rnd = rnd;
+    this.colOf = new int[n];
+    for (int p = 0; p < n; p++) colOf[p] = p % cols;
+    this.shiftBuf = new int[Math.max(rows, cols)];
+    this.energy = totalEnergy(pos2tile, rows, cols, diffH, diffV);
+    this.best = pos2tile.clone();
+    this.bestEnergy = energy;
+  }
+
+  /** Salin susunan terbaik rantai ini ke {@code dst}. */
+  void copyBest(int[] dst) {
+    System.arraycopy(bestDirty ? pos2tile : best, 0, dst, 0, n);
+  }
+
+  /** Mulai hitungan langkah dari {@code step} (setelah restore); terbaik = state saat ini. */
+  void resetSteps(long step) {
+    steps = bestStep = step;
+    bestEnergy = energy;
+    bestDirty = true;
+  }
+
+  /**
+   * Atur campuran langkah: swap dua tile, tukar dua blok sama ukuran, dan shift siklik segmen
+   * baris/kolom (termasuk baris/kolom penuh, dan translasi blok dengan tile tergeser mengisi
+   * tempat kosong). {@code maxBlockSize} membatasi sisi blok yang ditukar; {@code <= 0} =
+   * setengah sisi grid terkecil. Shift boleh selebar/setinggi grid penuh.
+   *
+   * <p>{@code candidateWeight}: langkah kandidat (tile b dari daftar kandidat tile a ditukar ke
+   * sebelah a); hanya berlaku bila tabel dalam mode kandidat, selain itu diabaikan.
+   */
+  void setMoveMix(int swapWeight, int candidateWeight, int blockSwapWeight, int shiftWeight, int maxBlockSize) {
+    if (!diffH.isSparse() || !diffV.isSparse()) candidateWeight = 0;
+    if (swapWeight < 0 || candidateWeight < 0 || blockSwapWeight < 0 || shiftWeight < 0
+        || swapWeight + candidateWeight + blockSwapWeight + shiftWeight == 0) {
+      throw new IllegalArgumentException("Bobot langkah harus >= 0 dan tidak semua 0");
+    }
+    this.swapWeight = swapWeight;
+    this.candidateWeight = candidateWeight;
+    if (candidateWeight > 0) {
+      tile2pos = new int[n];
+      for (int p = 0; p < n; p++) tile2pos[pos2tile[p]] = p;
+    } else {
+      tile2pos = null;
+    }
+    this.blockSwapWeight = blockSwapWeight;
+    this.shiftWeight = shiftWeight;
+    this.maxBlock = maxBlockSize > 0 ? maxBlockSize : Math.max(1, Math.min(rows, cols) / 2);
+  }
+
+  /** Jalankan {@code count} usulan langkah pada suhu tetap. */
+  void run(long count, double temperature) {
+    if (n >= 2) {
+      if (candidateWeight == 0 && blockSwapWeight == 0 && shiftWeight == 0) runSwaps(count, temperature);
+      else runMixed(count, temperature);
+    }
+    steps += count;
+  }
+
+  private void runMixed(long count, double temperature) {
+    final FastRandom r = rnd;
+    final int candidateEnd = swapWeight + candidateWeight;
+    final int total = candidateEnd + blockSwapWeight + shiftWeight;
+    final double invT = 1.0 / temperature;
+    final double rejectAbove = MAX_UPHILL_EXPONENT * temperature;
+    for (long s = 0; s < count; s++) {
+      int m = r.nextInt(total);
+      if (m < swapWeight) {
+        int i = r.nextInt(n);
+        int j = r.nextInt(n - 1);
+        if (j >= i) j++;
+        long delta = deltaSwap(i, j);
+        if (accept(delta, invT, rejectAbove)) {
+          beforeMove(delta);
+          applySwap(i, j);
+          afterMove(delta, s);
+        }
+      } else if (m < candidateEnd) {
+        // Kandidat b milik a pindah ke posisi t di sebelah a; tile di t ke bekas posisi b
+        int i = r.nextInt(n), a = pos2tile[i], t, b;
+        switch (r.nextInt(4)) {
+          case 0:
+            if (colOf[i] + 1 >= cols) continue;
+            t = i + 1; b = diffH.nextCandidate(a, r.nextInt(diffH.candidateCount()));
+            break;
+          case 1:
+            if (colOf[i] == 0) continue;
+            t = i - 1; b = diffH.prevCandidate(a, r.nextInt(diffH.candidateCount()));
+            break;
+          case 2:
+            if (i + cols >= n) continue;
+            t = i + cols; b = diffV.nextCandidate(a, r.nextInt(diffV.candidateCount()));
+            break;
+          default:
+            if (i < cols) continue;
+            t = i - cols; b = diffV.prevCandidate(a, r.nextInt(diffV.candidateCount()));
+        }
+        int j = tile2pos[b];
+        if (j == t) continue;
+        long delta = deltaSwap(t, j);
+        if (accept(delta, invT, rejectAbove)) {
+          beforeMove(delta);
+          applySwap(t, j);
+          afterMove(delta, s);
+        }
+      } else if (m < candidateEnd + blockSwapWeight) {
+        int bh = 1 + r.nextInt(Math.min(maxBlock, rows));
+        int bw = 1 + r.nextInt(Math.min(maxBlock, cols));
+        int ra = r.nextInt(rows - bh + 1), ca = r.nextInt(cols - bw + 1);
+        int rb = r.nextInt(rows - bh + 1), cb = r.nextInt(cols - bw + 1);
+        // Harus tidak tumpang tindih
+        if (Math.abs(ra - rb) < bh && Math.abs(ca - cb) < bw) continue;
+        long delta = deltaBlockSwap(ra, ca, rb, cb, bh, bw);
+        if (accept(delta, invT, rejectAbove)) {
+          beforeMove(delta);
+          applyBlockSwap(ra, ca, rb, cb, bh, bw);
+          afterMove(delta, s);
+        }
+      } else if (r.nextInt(2) == 0 ? cols >= 2 : rows < 2) {
+        // Shift horizontal: segmen lebar w (>= 2) di bh baris, geser k ke kanan
+        int w = 2 + r.nextInt(cols - 1);
+        int bh = 1 + r.nextInt(rows);
+        int r0 = r.nextInt(rows - bh + 1), c0 = r.nextInt(cols - w + 1);
+        int k = 1 + r.nextInt(w - 1);
+        long delta = deltaShiftRows(r0, c0, bh, w, k);
+        if (accept(delta, invT, rejectAbove)) {
+          beforeMove(delta);
+          applyShiftRows(r0, c0, bh, w, k);
+          afterMove(delta, s);
+        }
+      } else {
+        // Shift vertikal: segmen tinggi h (>= 2) di bw kolom, geser k ke bawah
+        int h = 2 + r.nextInt(rows - 1);
+        int bw = 1 + r.nextInt(cols);
+        int r0 = r.nextInt(rows - h + 1), c0 = r.nextInt(cols - bw + 1);
+        int k = 1 + r.nextInt(h - 1);
+        long delta = deltaShiftCols(r0, c0, h, bw, k);
+        if (accept(delta, invT, rejectAbove)) {
+          beforeMove(delta);
+          applyShiftCols(r0, c0, h, bw, k);
+          afterMove(delta, s);
+        }
+      }
+    }
+  }
+
+  private void applySwap(int i, int j) {
+    final int[] p = pos2tile;
+    int tmp = p[i]; p[i] = p[j]; p[j] = tmp;
+    if (tile2pos != null) {
+      tile2pos[p[i]] = i;
+      tile2pos[p[j]] = j;
+    }
+  }
+
+  /** Langkah naik akan diterima: simpan dulu state terbaik yang belum disalin. */
+  private void beforeMove(long delta) {
+    if (delta > 0 && bestDirty) {
+      System.arraycopy(pos2tile, 0, best, 0, n);
+      bestDirty = false;
+    }
+  }
+
+  private void afterMove(long delta, long s) {
+    accepted++;
+    if (delta < 0) improved++;
+    energy += delta;
+    if (energy < bestEnergy) {
+      bestEnergy = energy;
+      bestStep = steps + s + 1;
+      bestDirty = true;
+    }
+  }
+
+  private boolean accept(long delta, double invT, double rejectAbove) {
+    return delta <= 0 || (delta < rejectAbove && rnd.nextDouble() < fast2Pow(-delta * invT));
+  }
+
+  /** Loop khusus swap saja (jalur tercepat). */
+  private void runSwaps(long count, double temperature) {
+    final int[] p2t = pos2tile;
+    final FastRandom r = rnd;
+    final int n1 = n - 1;
+    final double invT = 1.0 / temperature;
+    final double rejectAbove = MAX_UPHILL_EXPONENT * temperature;
+    long e = energy, be = bestEnergy, acc = accepted, imp = improved;
+    boolean dirty = bestDirty;
+    for (long s = 0; s < count; s++) {
+      int i = r.nextInt(n);
+      int j = r.nextInt(n1);
+      if (j >= i) j++;
+
+      long delta = deltaSwap(i, j);
+      if (delta <= 0 || (delta < rejectAbove && r.nextDouble() < fast2Pow(-delta * invT))) {
+        if (delta > 0 && dirty) {
+          System.arraycopy(p2t, 0, best, 0, n);
+          dirty = false;
+        }
+        int tmp = p2t[i]; p2t[i] = p2t[j]; p2t[j] = tmp;
+        acc++;
+        if (delta < 0) imp++;
+        e += delta;
+        if (e < be) {
+          be = e;
+          bestStep = steps + s + 1;
+          dirty = true;
+        }
+      }
+    }
+    energy = e;
+    bestEnergy = be;
+    accepted = acc;
+    improved = imp;
+    bestDirty = dirty;
+  }
+
+  /**
+   * Delta energi bila posisi i dan j ditukar, tanpa mengubah state. Sisi bersama saat i dan j
+   * bertetangga dihitung tepat sekali (orientasinya ikut terbalik).
+   */
+  long deltaSwap(int i, int j) {
+    final int[] p = pos2tile;
+    final CostMatrix.Lookup h = costH, v = costV;
+    final int a = p[i], b = p[j];
+    final int ci = colOf[i], cj = colOf[j];
+    long d = 0;
+
+    // Tetangga i (selain j): a diganti b
+    if (ci > 0 && i - 1 != j) { int x = p[i - 1]; d += h.get(x, b) - h.get(x, a); }
+    if (ci + 1 < cols && i + 1 != j) { int x = p[i + 1]; d += h.get(b, x) - h.get(a, x); }
+    if (i >= cols && i - cols != j) { int x = p[i - cols]; d += v.get(x, b) - v.get(x, a); }
+    if (i + cols < n && i + cols != j) { int x = p[i + cols]; d += v.get(b, x) - v.get(a, x); }
+
+    // Tetangga j (selain i): b diganti a
+    if (cj > 0 && j - 1 != i) { int x = p[j - 1]; d += h.get(x, a) - h.get(x, b); }
+    if (cj + 1 < cols && j + 1 != i) { int x = p[j + 1]; d += h.get(a, x) - h.get(b, x); }
+    if (j >= cols && j - cols != i) { int x = p[j - cols]; d += v.get(x, a) - v.get(x, b); }
+    if (j + cols < n && j + cols != i) { int x = p[j + cols]; d += v.get(a, x) - v.get(b, x); }
+
+    // Sisi bersama bila bertetangga
+    if (j == i + 1 && ci + 1 < cols) d += h.get(b, a) - h.get(a, b);
+    else if (i == j + 1 && cj + 1 < cols) d += h.get(a, b) - h.get(b, a);
+    else if (j == i + cols) d += v.get(b, a) - v.get(a, b);
+    else if (i == j + cols) d += v.get(a, b) - v.get(b, a);
+    return d;
+  }
+
+  // ===== langkah blok: delta O(keliling), state tidak berubah =====
+
+  /**
+   * Delta bila blok A (ra,ca) dan B (rb,cb) ukuran bh×bw (tidak tumpang tindih) ditukar.
+   * Sisi di dalam blok tidak berubah; hanya sisi keliling A dan B yang dihitung, sisi A–B sekali.
+   */
+  long deltaBlockSwap(int ra, int ca, int rb, int cb, int bh, int bw) {
+    int off = (rb - ra) * cols + (cb - ca);
+    return blockBorderDelta(ra, ca, bh, bw, ra, ca, rb, cb, off, false)
+         + blockBorderDelta(rb, cb, bh, bw, ra, ca, rb, cb, off, true);
+  }
+
+  /** Jumlah delta sisi keliling blok (r0,c0); {@code skipA}: lewati sisi yang ujung lainnya di blok A. */
+  private long blockBorderDelta(int r0, int c0, int bh, int bw, int ra, int ca, int rb, int cb,
+                                int off, boolean skipA) {
+    final int[] p = pos2tile;
+    long d = 0;
+    if (r0 > 0) {
+      for (int c = c0; c < c0 + bw; c++) {
+        int q = (r0 - 1) * cols + c, pos = r0 * cols + c;
+        if (skipA && inBlock(q, ra, ca, bh, bw)) continue;
+        d += costV.get(tileAfterBlockSwap(q, ra, ca, rb, cb, bh, bw, off), tileAfterBlockSwap(pos, ra, ca, rb, cb, bh, bw, off))
+           - costV.get(p[q], p[pos]);
+      }
+    }
+    if (r0 + bh < rows) {
+      for (int c = c0; c < c0 + bw; c++) {
+        int pos = (r0 + bh - 1) * cols + c, q = pos + cols;
+        if (skipA && inBlock(q, ra, ca, bh, bw)) continue;
+        d += costV.get(tileAfterBlockSwap(pos, ra, ca, rb, cb, bh, bw, off), tileAfterBlockSwap(q, ra, ca, rb, cb, bh, bw, off))
+           - costV.get(p[pos], p[q]);
+      }
+    }
+    if (c0 > 0) {
+      for (int r = r0; r < r0 + bh; r++) {
+        int pos = r * cols + c0, q = pos - 1;
+        if (skipA && inBlock(q, ra, ca, bh, bw)) continue;
+        d += costH.get(tileAfterBlockSwap(q, ra, ca, rb, cb, bh, bw, off), tileAfterBlockSwap(pos, ra, ca, rb, cb, bh, bw, off))
+           - costH.get(p[q], p[pos]);
+      }
+    }
+    if (c0 + bw < cols) {
+      for (int r = r0; r < r0 + bh; r++) {
+        int pos = r * cols + c0 + bw - 1, q = pos + 1;
+        if (skipA && inBlock(q, ra, ca, bh, bw)) continue;
+        d += costH.get(tileAfterBlockSwap(pos, ra, ca, rb, cb, bh, bw, off), tileAfterBlockSwap(q, ra, ca, rb, cb, bh, bw, off))
+           - costH.get(p[pos], p[q]);
+      }
+    }
+    return d;
+  }
+
+  private boolean inBlock(int pos, int r0, int c0, int bh, int bw) {
+    int r = pos / cols, c = colOf[pos];
+    return r >= r0 && r < r0 + bh && c >= c0 && c < c0 + bw;
+  }
+
+  private int tileAfterBlockSwap(int pos, int ra, int ca, int rb, int cb, int bh, int bw, int off) {
+    if (inBlock(pos, ra, ca, bh, bw)) return pos2tile[pos + off];
+    if (inBlock(pos, rb, cb, bh, bw)) return pos2tile[pos - off];
+    return pos2tile[pos];
+  }
+
+  private void applyBlockSwap(int ra, int ca, int rb, int cb, int bh, int bw) {
+    final int[] p = pos2tile;
+    for (int r = 0; r < bh; r++) {
+      int pa = (ra + r) * cols + ca, pb = (rb + r) * cols + cb;
+      for (int c = 0; c < bw; c++) {
+        int tmp = p[pa + c]; p[pa + c] = p[pb + c]; p[pb + c] = tmp;
+        if (tile2pos != null) {
+          tile2pos[p[pa + c]] = pa + c;
+          tile2pos[p[pb + c]] = pb + c;
+        }
+      }
+    }
+  }
+
+  /**
+   * Delta shift siklik ke kanan sejauh k pada segmen kolom c0..c0+w-1 di baris r0..r0+bh-1:
+   * tile di kolom relatif j pindah ke (j+k) mod w. Sisi vertikal di dalam region tetap; yang
+   * berubah hanya sisi kiri/kanan, atas/bawah region dan satu sambungan per baris.
+   */
+  long deltaShiftRows(int r0, int c0, int bh, int w, int k) {
+    final int[] p = pos2tile;
+    long d = 0;
+    for (int r = r0; r < r0 + bh; r++) {
+      int base = r * cols + c0;
+      if (c0 > 0) {
+        int x = p[base - 1];
+        d += costH.get(x, p[base + w - k]) - costH.get(x, p[base]);
+      }
+      if (c0 + w < cols) {
+        int y = p[base + w];
+        d += costH.get(p[base + w - 1 - k], y) - costH.get(p[base + w - 1], y);
+      }
+      d += costH.get(p[base + w - 1], p[base]) - costH.get(p[base + w - k - 1], p[base + w - k]);
+    }
+    if (r0 > 0) {
+      int above = (r0 - 1) * cols + c0, top = r0 * cols + c0;
+      for (int j = 0, src = w - k; j < w; j++, src = (src + 1 == w ? 0 : src + 1)) {
+        int x = p[above + j];
+        d += costV.get(x, p[top + src]) - costV.get(x, p[top + j]);
+      }
+    }
+    if (r0 + bh < rows) {
+      int bottom = (r0 + bh - 1) * cols + c0, below = bottom + cols;
+      for (int j = 0, src = w - k; j < w; j++, src = (src + 1 == w ? 0 : src + 1)) {
+        int y = p[below + j];
+        d += costV.get(p[bottom + src], y) - costV.get(p[bottom + j], y);
+      }
+    }
+    return d;
+  }
+
+  private void applyShiftRows(int r0, int c0, int bh, int w, int k) {
+    final int[] p = pos2tile, buf = shiftBuf;
+    for (int r = r0; r < r0 + bh; r++) {
+      int base = r * cols + c0;
+      for (int j = 0; j < w; j++) buf[(j + k) % w] = p[base + j];
+      System.arraycopy(buf, 0, p, base, w);
+      if (tile2pos != null) for (int j = 0; j < w; j++) tile2pos[buf[j]] = base + j;
+    }
+  }
+
+  /** Versi transpos {@link #deltaShiftRows}: segmen baris r0..r0+h-1 di kolom c0..c0+bw-1, geser k ke bawah. */
+  long deltaShiftCols(int r0, int c0, int h, int bw, int k) {
+    final int[] p = pos2tile;
+    final int stride = cols;
+    long d = 0;
+    for (int c = c0; c < c0 + bw; c++) {
+      int base = r0 * stride + c;
+      if (r0 > 0) {
+        int x = p[base - stride];
+        d += costV.get(x, p[base + (h - k) * stride]) - costV.get(x, p[base]);
+      }
+      if (r0 + h < rows) {
+        int y = p[base + h * stride];
+        d += costV.get(p[base + (h - 1 - k) * stride], y) - costV.get(p[base + (h - 1) * stride], y);
+      }
+      d += costV.get(p[base + (h - 1) * stride], p[base])
+         - costV.get(p[base + (h - k - 1) * stride], p[base + (h - k) * stride]);
+    }
+    if (c0 > 0) {
+      for (int i = 0, src = h - k; i < h; i++, src = (src + 1 == h ? 0 : src + 1)) {
+        int x = p[(r0 + i) * stride + c0 - 1];
+        d += costH.get(x, p[(r0 + src) * stride + c0]) - costH.get(x, p[(r0 + i) * stride + c0]);
+      }
+    }
+    if (c0 + bw < cols) {
+      int last = c0 + bw - 1;
+      for (int i = 0, src = h - k; i < h; i++, src = (src + 1 == h ? 0 : src + 1)) {
+        int y = p[(r0 + i) * stride + last + 1];
+        d += costH.get(p[(r0 + src) * stride + last], y) - costH.get(p[(r0 + i) * stride + last], y);
+      }
+    }
+    return d;
+  }
+
+  private void applyShiftCols(int r0, int c0, int h, int bw, int k) {
+    final int[] p = pos2tile, buf = shiftBuf;
+    for (int c = c0; c < c0 + bw; c++) {
+      for (int i = 0; i < h; i++) buf[(i + k) % h] = p[(r0 + i) * cols + c];
+      for (int i = 0; i < h; i++) p[(r0 + i) * cols + c] = buf[i];
+      if (tile2pos != null) for (int i = 0; i < h; i++) tile2pos[buf[i]] = (r0 + i) * cols + c;
+    }
+  }
+
+  // ===== helper SA / cost =====
+
+  static long totalEnergy(int[] pos2tile, int rows, int cols, CostMatrix diffH, CostMatrix diffV) {
+    long e = 0;
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < cols; c++) {
+        int p = r*cols + c;
+        int a = pos2tile[p];
+        if (c + 1 < cols) e += diffH.get(a, pos2tile[p+1]);
+        if (r + 1 < rows) e += diffV.get(a, pos2tile[p+cols]);
+      }
+    }
+    return e;
+  }
+
+  static double fast2Pow(double x) {
+    if (x < -1022) return 0;
+    if (x >= 1024) return Double.POSITIVE_INFINITY;
+    double y = Math.floor(x);
+    double z = x - y;
+    long bits = ((long)((int)y + 1023)) << 52;
+    double u = Double.longBitsToDouble(bits);
+    double v = ((0.07901988694851841 * z + 0.22412622970387342) * z + 0.6968388359765078) * z + 0.9998119079289554;
+    return u * v;
+  }
+}
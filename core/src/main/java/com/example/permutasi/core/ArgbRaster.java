@@ -0,0 +1,92 @@
+package com.example.permutasi.core;
+
+import java.util.Arrays;
+
+/** Raster ARGB di heap: satu {@code int[]} row-major, lebar × tinggi. */
+public final class ArgbRaster implements PixelSource {
+  private final int width, height;
+  private final int[] pixels;
+
+  public ArgbRaster(int width, int height) {
+    this(width, height, new int[checkedSize(width, height)]);
+  }
+
+  /** Bungkus array yang sudah ada (tidak disalin). */
+  public ArgbRaster(int width, int height, int[] pixels) {
+    if (pixels.length < checkedSize(width, height)) throw new IllegalArgumentException("pixels terlalu pendek");
+    this.width = width;
+    this.height = height;
+    this.pixels = pixels;
+  }
+
+  private static int checkedSize(int width, int height) {
+    if (width <= 0 || height <= 0) throw new IllegalArgumentException("Ukuran raster harus > 0");
+    long size = (long) width * height;
+    if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Raster terlalu besar: " + width + "x" + height);
+    return (int) size;
+  }
+
+  @Override public int getWidth() { return width; }
+
+  @Override public int getHeight() { return height; }
+
+  /** Array piksel asli (bukan salinan). */
+  public int[] pixels() { return pixels; }
+
+  @Override public void getPixels(int[] dst, int offset, int stride, int x, int y, int w, int h) {
+    checkRegion(x, y, w, h);
+    for (int row = 0; row < h; row++) {
+      System.arraycopy(pixels, (y + row) * width + x, dst, offset + row * stride, w);
+    }
+  }
+
+  public void setPixels(int[] src, int offset, int stride, int x, int y, int w, int h) {
+    checkRegion(x, y, w, h);
+    for (int row = 0; row < h; row++) {
+      System.arraycopy(src, offset + row * stride, pixels, (y + row) * width + x, w);
+    }
+  }
+
+  /**
+   * Raster baru {@code floor(w/factor) × floor(h/factor)}; tiap piksel = rata-rata kanal (ARGB) dari
+   * blok factor×factor. Sisa di tepi kanan/bawah dibuang.
+   */
+  public ArgbRaster downsample(int factor) {
+    if (factor <= 0) throw new IllegalArgumentException("factor harus > 0");
+    if (factor == 1) return new ArgbRaster(width, height, pixels.clone());
+    final int w = Math.max(1, width / factor), h = Math.max(1, height / factor);
+    final int fx = Math.min(factor, width), fy = Math.min(factor, height);
+    final int area = fx * fy;
+    ArgbRaster out = new ArgbRaster(w, h);
+    int[] dst = out.pixels();
+    long[] acc = new long[w * 4];
+    for (int y = 0; y < h; y++) {
+      Arrays.fill(acc, 0);
+      for (int sy = y * fy, ey = sy + fy; sy < ey; sy++) {
+        int row = sy * width;
+        for (int x = 0; x < w; x++) {
+          int base = row + x * fx, k = x * 4;
+          for (int i = 0; i < fx; i++) {
+            int p = pixels[base + i];
+            acc[k] += p >>> 24;
+            acc[k + 1] += (p >>> 16) & 0xFF;
+            acc[k + 2] += (p >>> 8) & 0xFF;
+            acc[k + 3] += p & 0xFF;
+          }
+        }
+      }
+      for (int x = 0; x < w; x++) {
+        int k = x * 4;
+        dst[y * w + x] = (int) (acc[k] / area) << 24 | (int) (acc[k + 1] / area) << 16
+            | (int) (acc[k + 2] / area) << 8 | (int) (acc[k + 3] / area);
+      }
+    }
+    return out;
+  }
+
+  private void checkRegion(int x, int y, int w, int h) {
+    if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > width || y + h > height) {
+      throw new IllegalArgumentException("Region di luar raster: " + x + "," + y + " " + w + "x" + h);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.permutasi.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Reconstruct streaming: hasil disusun per band (sebagian baris tile) dan langsung diteruskan ke
+ * {@link RowSink}, jadi sumber maupun hasil tidak pernah ada utuh di memori. Buffer dibatasi
+ * {@link TileEdges#BAND_PIXELS} piksel.
+ */
+public final class BandReconstructor {
+  /** Penerima baris hasil berurutan atas→bawah. */
+  public interface RowSink {
+    void writeRows(int[] argb, int offset, int stride, int rowCount) throws IOException;
+  }
+
+  private BandReconstructor() {}
+
+  /** Susun ulang {@code src} sesuai permutasi 0-based pos→tile; area sisa grid diisi 0 seperti {@link TilePermuter}. */
+  public static void reconstruct(PixelSource src, int rows, int cols, int[] perm0, RowSink sink) throws IOException {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    if (perm0 == null || perm0.length != rows*cols) throw new IllegalArgumentException("perm length mismatch");
+    TilePermuter.checkPermutation(perm0);
+    final int W = src.getWidth(), H = src.getHeight();
+    final int tileW = Math.max(1, W / cols);
+    final int tileH = Math.max(1, H / rows);
+    final int lines = TileEdges.linesPerRead(W, tileH);
+    int[] band = new int[W * lines];
+
+    int y = 0;
+    for (int r = 0; r < rows && y < H; r++) {
+      for (int ty = 0; ty < tileH && y < H; ty += lines) {
+        int k = Math.min(Math.min(lines, tileH - ty), H - y);
+        Arrays.fill(band, 0);
+        for (int c = 0; c < cols; c++) {
+          int tileId = perm0[r * cols + c]; // 0-based: id asal
+          int sx = (tileId % cols) * tileW;
+          int sy = (tileId / cols) * tileH + ty;
+          int dx = c * tileW;
+
+          int wCopy = Math.min(tileW, W - Math.max(sx, dx));
+          int hCopy = Math.min(k, H - sy);
+          if (wCopy <= 0 || hCopy <= 0) continue;
+          src.getPixels(band, dx, W, sx, sy, wCopy, hCopy);
+        }
+        sink.writeRows(band, 0, W, k);
+        y += k;
+      }
+    }
+    // Sisa bawah yang tidak habis dibagi rows.
+    if (y < H) {
+      Arrays.fill(band, 0);
+      while (y < H) {
+        int k = Math.min(lines, H - y);
+        sink.writeRows(band, 0, W, k);
+        y += k;
+      }
+    }
+  }
+
+  /** {@link #reconstruct} langsung ke PNG; {@code out} ditutup setelah selesai. */
+  public static void writePng(PixelSource src, int rows, int cols, int[] perm0, boolean alpha, OutputStream out)
+      throws IOException {
+    try (PngWriter png = new PngWriter(out, src.getWidth(), src.getHeight(), alpha)) {
+      reconstruct(src, rows, cols, perm0, png::writeRows);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.permutasi.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Jadwal suhu annealing. Dipanggil sekali per chunk/segmen (bukan per iterasi), jadi
+ * implementasi boleh memakai {@code Math.pow} dsb. Instance bisa stateful; satu instance
+ * hanya untuk satu run.
+ */
+public interface CoolingSchedule {
+
+  /** Jenis jadwal yang bisa dipilih lewat {@link PermutationAnnealer2D.Options}. */
+  enum Kind { LINEAR, GEOMETRIC, REHEAT }
+
+  /** Suhu pada iterasi {@code iter} dari total {@code total}. */
+  double temperature(long iter, long total);
+
+  /** Umpan balik setelah chunk selesai: iterasi saat ini dan energi (terbaik) saat ini. */
+  default void onChunk(long iter, long energy) {}
+
+  /** Tulis state internal (untuk checkpoint {@link SolverSession}); jadwal stateless tidak menulis apa pun. */
+  default void writeState(DataOutput out) throws IOException {}
+
+  /** Pulihkan state yang ditulis {@link #writeState}. */
+  default void readState(DataInput in) throws IOException {}
+
+  /** Bangun jadwal sesuai {@code kind} dari suhu awal dan parameter di {@code opts}. */
+  static CoolingSchedule create(Kind kind, double startTemp, PermutationAnnealer2D.Options opts) {
+    switch (kind) {
+      case GEOMETRIC:
+        return new Geometric(startTemp, startTemp * opts.endTempRatio);
+      case REHEAT:
+        return new ReheatOnStall(new Geometric(startTemp, startTemp * opts.endTempRatio),
+            opts.reheatStallIterations, opts.reheatFactor);
+      case LINEAR:
+      default:
+        return new Linear(startTemp);
+    }
+  }
+
+  /** T = (1 - t) * startTemp — perilaku asli solver. */
+  final class Linear implements CoolingSchedule {
+    private final double startTemp;
+
+    public Linear(double startTemp) { this.startTemp = startTemp; }
+
+    @Override public double temperature(long iter, long total) {
+      return (1.0 - (double) iter / (double) total) * startTemp;
+    }
+  }
+
+  /** T = startTemp * (endTemp/startTemp)^t — turun eksponensial, tidak pernah 0. */
+  final class Geometric implements CoolingSchedule {
+    private final double startTemp, logRatio;
+
+    public Geometric(double startTemp, double endTemp) {
+      if (startTemp <= 0 || endTemp <= 0) throw new IllegalArgumentException("Suhu harus > 0");
+      this.startTemp = startTemp;
+      this.logRatio = Math.log(endTemp / startTemp);
+    }
+
+    @Override public double temperature(long iter, long total) {
+      return startTemp * Math.exp(logRatio * ((double) iter / (double) total));
+    }
+  }
+
+  /**
+   * Bungkus jadwal lain; bila energi tidak membaik selama {@code stallIterations}, suhu
+   * dikali {@code factor} lalu turun linear kembali ke jadwal dasar dalam setengah jendela stall.
+   */
+  final class ReheatOnStall implements CoolingSchedule {
+    private final CoolingSchedule base;
+    private final long stallIterations;
+    private final double factor;
+    private long bestEnergy = Long.MAX_VALUE;
+    private long lastImprovement = 0;
+    private long reheatAt = -1;
+
+    public ReheatOnStall(CoolingSchedule base, long stallIterations, double factor) {
+      if (stallIterations <= 0) throw new IllegalArgumentException("stallIterations harus > 0");
+      if (factor < 1) throw new IllegalArgumentException("factor harus >= 1");
+      this.base = base;
+      this.stallIterations = stallIterations;
+      this.factor = factor;
+    }
+
+    @Override public double temperature(long iter, long total) {
+      double t = base.temperature(iter, total);
+      if (reheatAt < 0) return t;
+      double fade = 1.0 - (double) (iter - reheatAt) / (stallIterations / 2.0);
+      return fade > 0 ? t * (1.0 + (factor - 1.0) * fade) : t;
+    }
+
+    @Override public void onChunk(long iter, long energy) {
+      base.onChunk(iter, energy);
+      if (energy < bestEnergy) {
+        bestEnergy = energy;
+        lastImprovement = iter;
+      } else if (iter - lastImprovement >= stallIterations) {
+        reheatAt = iter;
+        lastImprovement = iter;
+      }
+    }
+
+    @Override public void writeState(DataOutput out) throws IOException {
+      base.writeState(out);
+      out.writeLong(bestEnergy);
+      out.writeLong(lastImprovement);
+      out.writeLong(reheatAt);
+    }
+
+    @Override public void readState(DataInput in) throws IOException {
+      base.readState(in);
+      bestEnergy = in.readLong();
+      lastImprovement = in.readLong();
+      reheatAt = in.readLong();
+    }
+  }
+}
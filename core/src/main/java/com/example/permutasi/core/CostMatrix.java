@@ -0,0 +1,206 @@
+package com.example.permutasi.core;
+
+import java.util.Arrays;
+
+/**
+ * Tabel biaya pasangan tile N×N, row-major dalam satu array primitif datar (index a*N + b).
+ * Bila batas atas nilai muat 16-bit, disimpan sebagai {@code char[]} (unsigned) supaya
+ * memori separuh dari {@code int[]}; selain itu {@code int[]}.
+ *
+ * <p>Mode kandidat ({@link #sparse}): per tile hanya K pasangan termurah tiap arah yang disimpan
+ * (memori O(N·K)); pasangan lain bernilai penalti default. Baris "next" a = tile b termurah
+ * untuk {@code get(a,b)}, baris "prev" b = tile a termurah untuk {@code get(a,b)}.
+ */
+public final class CostMatrix {
+  private final int n;
+  final char[] narrow; // dipakai bila maxValue <= 0xFFFF
+  final int[] wide;    // dipakai bila tidak muat 16-bit
+
+  // Mode kandidat: daftar terurut naik menurut biaya, k per tile.
+  final int k;
+  final int[] nextIds, nextCost, prevIds, prevCost;
+  // Indeks hash (open addressing) pasangan tersimpan: kunci a*n+b (-1 = kosong) → biaya.
+  private final long[] indexKeys;
+  private final int[] indexCost;
+  private final int indexMask, indexShift;
+
+  private CostMatrix(int n, char[] narrow, int[] wide) {
+    this.n = n;
+    this.narrow = narrow;
+    this.wide = wide;
+    this.k = 0;
+    this.nextIds = this.nextCost = this.prevIds = this.prevCost = null;
+    this.indexKeys = null;
+    this.indexCost = null;
+    this.indexMask = 0;
+    this.indexShift = 0;
+  }
+
+  private CostMatrix(int n, int k, int[] nextIds, int[] nextCost, int[] prevIds, int[] prevCost) {
+    this.n = n;
+    this.narrow = null;
+    this.wide = null;
+    this.k = k;
+    this.nextIds = nextIds;
+    this.nextCost = nextCost;
+    this.prevIds = prevIds;
+    this.prevCost = prevCost;
+    int capacity = Integer.highestOneBit(Math.max(1, 4 * n * k - 1)) << 1; // load factor <= 0,5
+    this.indexKeys = new long[capacity];
+    this.indexCost = new int[capacity];
+    this.indexMask = capacity - 1;
+    this.indexShift = Long.numberOfLeadingZeros(capacity) + 1; // 64 - log2(capacity)
+    Arrays.fill(indexKeys, -1L);
+    for (int x = 0; x < n; x++) {
+      for (int s = x * k; s < x * k + k; s++) {
+        index((long) x * n + nextIds[s], nextCost[s]);
+        index((long) prevIds[s] * n + x, prevCost[s]);
+      }
+    }
+  }
+
+  /** Alokasi tabel n×n; storage sempit dipilih bila semua nilai dijamin <= {@code maxValue} muat 16-bit. */
+  public static CostMatrix allocate(int n, long maxValue) {
+    if (n <= 0) throw new IllegalArgumentException("n harus > 0");
+    if (maxValue < 0) throw new IllegalArgumentException("maxValue harus >= 0");
+    if ((long) n * n > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Tabel biaya terlalu besar: " + n + "x" + n);
+    }
+    int cells = n * n;
+    return maxValue <= Character.MAX_VALUE
+        ? new CostMatrix(n, new char[cells], null)
+        : new CostMatrix(n, null, new int[cells]);
+  }
+
+  /** Bungkus data padat yang sudah ada (tepat satu dari {@code narrow}/{@code wide}, panjang n*n). */
+  static CostMatrix wrap(int n, char[] narrow, int[] wide) {
+    if ((narrow == null) == (wide == null)) throw new IllegalArgumentException("Tepat satu storage harus diisi");
+    if ((narrow != null ? narrow.length : wide.length) != n * n) throw new IllegalArgumentException("Panjang data != n*n");
+    return new CostMatrix(n, narrow, wide);
+  }
+
+  /**
+   * Tabel kandidat dari daftar per tile (panjang n*k, slot tile x di [x*k, x*k+k)). Tiap daftar
+   * diurutkan naik di sini. Pasangan di luar kedua daftar bernilai
+   * {@code max(next terburuk a, prev terburuk b)}: batas bawah biaya aslinya.
+   */
+  static CostMatrix sparse(int n, int k, int[] nextIds, int[] nextCost, int[] prevIds, int[] prevCost) {
+    if (n <= 0 || k <= 0) throw new IllegalArgumentException("n dan k harus > 0");
+    if (nextIds.length != n * k || nextCost.length != n * k || prevIds.length != n * k || prevCost.length != n * k) {
+      throw new IllegalArgumentException("Panjang daftar kandidat != n*k");
+    }
+    for (int x = 0; x < n; x++) {
+      sortSlots(nextIds, nextCost, x * k, k);
+      sortSlots(prevIds, prevCost, x * k, k);
+    }
+    return new CostMatrix(n, k, nextIds, nextCost, prevIds, prevCost);
+  }
+
+  /** Jumlah tile (sisi tabel). */
+  public int size() { return n; }
+
+  /** True bila storage 16-bit. */
+  public boolean isNarrow() { return narrow != null; }
+
+  /** True bila mode kandidat (top-K per tile). */
+  public boolean isSparse() { return nextIds != null; }
+
+  /** K pada mode kandidat; 0 untuk tabel padat. */
+  public int candidateCount() { return k; }
+
+  /** Kandidat ke-{@code slot} (termurah dulu) untuk b pada {@code get(a, b)}. */
+  public int nextCandidate(int a, int slot) { return nextIds[a * k + slot]; }
+
+  /** Kandidat ke-{@code slot} (termurah dulu) untuk a pada {@code get(a, b)}. */
+  public int prevCandidate(int b, int slot) { return prevIds[b * k + slot]; }
+
+  /** Perkiraan ukuran data dalam byte (tanpa header objek). */
+  public long byteSize() {
+    if (nextIds != null) return 16L * nextIds.length + 12L * indexKeys.length;
+    return narrow != null ? 2L * narrow.length : 4L * wide.length;
+  }
+
+  public int get(int a, int b) {
+    if (narrow != null) return narrow[a * n + b];
+    if (wide != null) return wide[a * n + b];
+    return sparseGet(a, b);
+  }
+
+  /**
+   * Pembaca biaya untuk loop panas: jenis tabel (padat atau kandidat) dipilih sekali di sini, jadi
+   * jalur padat tidak lagi memeriksa mode kandidat di tiap lookup.
+   */
+  Lookup lookup() {
+    return nextIds != null ? new SparseLookup(this) : new DenseLookup(n, narrow, wide);
+  }
+
+  /** Lihat {@link #lookup()}. */
+  abstract static class Lookup {
+    abstract int get(int a, int b);
+  }
+
+  private static final class DenseLookup extends Lookup {
+    private final int n;
+    private final char[] narrow;
+    private final int[] wide;
+
+    DenseLookup(int n, char[] narrow, int[] wide) {
+      this.n = n;
+      this.narrow = narrow;
+      this.wide = wide;
+    }
+
+    @Override int get(int a, int b) {
+      return narrow != null ? narrow[a * n + b] : wide[a * n + b];
+    }
+  }
+
+  private static final class SparseLookup extends Lookup {
+    private final CostMatrix m;
+
+    SparseLookup(CostMatrix m) { this.m = m; }
+
+    @Override int get(int a, int b) { return m.sparseGet(a, b); }
+  }
+
+  public void set(int a, int b, int value) {
+    if (nextIds != null) throw new IllegalStateException("Tabel kandidat read-only");
+    int i = a * n + b;
+    if (narrow != null) narrow[i] = (char) value;
+    else wide[i] = value;
+  }
+
+  private int sparseGet(int a, int b) {
+    final long key = (long) a * n + b;
+    for (int i = slot(key); ; i = (i + 1) & indexMask) {
+      long kk = indexKeys[i];
+      if (kk == key) return indexCost[i];
+      if (kk < 0) return Math.max(nextCost[a * k + k - 1], prevCost[b * k + k - 1]);
+    }
+  }
+
+  private void index(long key, int cost) {
+    int i = slot(key);
+    while (indexKeys[i] >= 0 && indexKeys[i] != key) i = (i + 1) & indexMask;
+    indexKeys[i] = key;
+    indexCost[i] = cost;
+  }
+
+  /** Hash Fibonacci: bit teratas hasil kali, sebanyak log2(kapasitas). */
+  private int slot(long key) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> indexShift);
+  }
+
+  private static void sortSlots(int[] ids, int[] cost, int off, int k) {
+    for (int i = off + 1; i < off + k; i++) {
+      int id = ids[i], c = cost[i], j = i - 1;
+      while (j >= off && cost[j] > c) {
+        ids[j + 1] = ids[j];
+        cost[j + 1] = cost[j];
+        j--;
+      }
+      ids[j + 1] = id;
+      cost[j + 1] = c;
+    }
+  }
+}
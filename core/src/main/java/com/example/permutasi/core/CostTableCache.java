@@ -0,0 +1,302 @@
+package com.example.permutasi.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache tabel biaya di disk. Kunci = SHA-256 dari strip tepi (jadi isi gambar dan level pyramid),
+ * ukuran grid/tile, {@link EdgeCost#id()} dan K kandidat; satu file biner per kunci. File dibaca
+ * lewat memory-map lalu disalin blok ke array primitif (loop SA tetap akses array biasa).
+ * Total ukuran dibatasi; file yang paling lama tidak dipakai dihapus lebih dulu. Urutan pakai dicatat
+ * di file indeks kecil ({@link #INDEX}), bukan mtime: {@code setLastModified} sering gagal di
+ * penyimpanan app Android. File tanpa entri indeks memakai mtime-nya.
+ */
+public final class CostTableCache {
+  private static final int MAGIC = 0x50435431; // "PCT1"
+  private static final int VERSION = 1;
+  private static final int TYPE_NARROW = 0, TYPE_WIDE = 1, TYPE_SPARSE = 2;
+  private static final String SUFFIX = ".ctab";
+  /** Indeks LRU: magic, jumlah, lalu (kunci, waktu pakai terakhir ms). */
+  private static final String INDEX = "lru.idx";
+  private static final int INDEX_MAGIC = 0x50434931; // "PCI1"
+  /** Buffer tulis; data besar ditulis bertahap. */
+  private static final int WRITE_CHUNK = 1 << 20;
+
+  private final File dir;
+  private final long maxBytes;
+  /** Waktu pakai terakhir per kunci; dimuat dari {@link #INDEX} saat pertama dipakai. */
+  private Map<String, Long> lastUse;
+
+  public CostTableCache(File dir, long maxBytes) {
+    if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes harus > 0");
+    this.dir = dir;
+    this.maxBytes = maxBytes;
+  }
+
+  /** Kunci hex untuk tabel dari {@code edges} dengan metrik {@code cost} dan K kandidat (0 = padat). */
+  public static String key(TileEdges edges, EdgeCost cost, int candidateK) {
+    MessageDigest md;
+    try {
+      md = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+    buf.putInt(edges.rows).putInt(edges.cols).putInt(edges.tileW).putInt(edges.tileH).putInt(candidateK);
+    for (int[] strip : new int[][] {edges.right, edges.left, edges.bottom, edges.top,
+        edges.rightInner, edges.leftInner, edges.bottomInner, edges.topInner}) {
+      for (int v : strip) {
+        if (!buf.hasRemaining()) {
+          md.update(buf.array(), 0, buf.position());
+          buf.clear();
+        }
+        buf.putInt(v);
+      }
+    }
+    md.update(buf.array(), 0, buf.position());
+    md.update(cost.id().getBytes(StandardCharsets.UTF_8));
+    StringBuilder sb = new StringBuilder(64);
+    for (byte b : md.digest()) sb.append(Character.forDigit((b >>> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    return sb.toString();
+  }
+
+  /** Tabel untuk {@code key}, atau null bila tidak ada / tidak terbaca (file rusak dihapus). */
+  public synchronized CostTables get(String key) {
+    File f = file(key);
+    if (!f.isFile()) return null;
+    try (RandomAccessFile raf = new RandomAccessFile(f, "r"); FileChannel ch = raf.getChannel()) {
+      MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      map.order(ByteOrder.LITTLE_ENDIAN);
+      if (map.getInt() != MAGIC || map.getInt() != VERSION) throw new IOException("Header cache salah");
+      int rows = map.getInt(), cols = map.getInt();
+      CostMatrix h = readMatrix(map, rows * cols);
+      CostMatrix v = readMatrix(map, rows * cols);
+      CostTables t = new CostTables(rows, cols, h, v);
+      touch(key);
+      return t;
+    } catch (IOException | RuntimeException e) {
+      if (!f.delete()) f.deleteOnExit();
+      if (uses().remove(key) != null) saveIndex();
+      return null;
+    }
+  }
+
+  /** Simpan tabel (atomik: file sementara + rename), lalu pangkas cache ke batas ukuran. */
+  public synchronized void put(String key, CostTables tables) throws IOException {
+    long size = 16 + matrixBytes(tables.h) + matrixBytes(tables.v);
+    if (size > maxBytes || size > Integer.MAX_VALUE) return; // satu map dibatasi 2 GB
+    if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Tidak bisa membuat folder cache: " + dir);
+    File f = file(key);
+    File tmp = new File(dir, key + ".tmp");
+    try (FileOutputStream fos = new FileOutputStream(tmp); FileChannel ch = fos.getChannel()) {
+      ByteBuffer buf = ByteBuffer.allocate(WRITE_CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+      buf.putInt(MAGIC).putInt(VERSION).putInt(tables.rows).putInt(tables.cols);
+      writeMatrix(ch, buf, tables.h);
+      writeMatrix(ch, buf, tables.v);
+      flush(ch, buf);
+    }
+    if (!tmp.renameTo(f) && !(f.delete() && tmp.renameTo(f))) {
+      if (!tmp.delete()) tmp.deleteOnExit();
+      throw new IOException("Gagal menyimpan cache: " + f);
+    }
+    uses().put(key, System.currentTimeMillis());
+    trim();
+  }
+
+  /** Ambil dari cache atau bangun lalu simpan; gagal tulis cache tidak menggagalkan build. */
+  public CostTables getOrBuild(TileEdges edges, EdgeCost cost, int candidateK, int parallelism) {
+    String key = key(edges, cost, candidateK);
+    CostTables t = get(key);
+    if (t != null) return t;
+    t = candidateK > 0
+        ? CostTables.buildSparse(edges, cost, candidateK, parallelism)
+        : CostTables.build(edges, cost, parallelism);
+    try {
+      put(key, t);
+    } catch (IOException e) {
+      // Cache hanya percepatan; run tetap jalan.
+    }
+    return t;
+  }
+
+  /**
+   * Hapus file paling lama dipakai sampai total <= maxBytes, buang entri indeks yang file-nya sudah
+   * tidak ada, lalu simpan indeks.
+   */
+  private void trim() {
+    File[] files = dir.listFiles((d, name) -> name.endsWith(SUFFIX));
+    if (files == null) return;
+    Map<String, Long> uses = uses();
+    Set<String> present = new HashSet<>();
+    long total = 0;
+    for (File f : files) {
+      total += f.length();
+      present.add(keyOf(f));
+    }
+    uses.keySet().retainAll(present);
+    if (total > maxBytes) {
+      final long[] stamp = new long[files.length];
+      Integer[] order = new Integer[files.length];
+      for (int i = 0; i < files.length; i++) {
+        Long used = uses.get(keyOf(files[i]));
+        stamp[i] = used != null ? used : files[i].lastModified();
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Long.compare(stamp[a], stamp[b]));
+      for (int i = 0; i < order.length && total > maxBytes; i++) {
+        File f = files[order[i]];
+        long len = f.length();
+        if (f.delete()) {
+          total -= len;
+          uses.remove(keyOf(f));
+        }
+      }
+    }
+    saveIndex();
+  }
+
+  /** Catat {@code key} baru dipakai. */
+  private void touch(String key) {
+    uses().put(key, System.currentTimeMillis());
+    saveIndex();
+  }
+
+  private Map<String, Long> uses() {
+    if (lastUse == null) lastUse = loadIndex(new File(dir, INDEX));
+    return lastUse;
+  }
+
+  /** Indeks dari disk; kosong bila tidak ada atau rusak (urutan jatuh ke mtime). */
+  private static Map<String, Long> loadIndex(File f) {
+    Map<String, Long> map = new HashMap<>();
+    if (!f.isFile()) return map;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+      if (in.readInt() != INDEX_MAGIC) return map;
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        String key = in.readUTF();
+        map.put(key, in.readLong());
+      }
+    } catch (IOException e) {
+      map.clear();
+    }
+    return map;
+  }
+
+  /** Tulis indeks secara atomik; gagal tulis hanya membuat urutan LRU kurang tepat. */
+  private void saveIndex() {
+    if (!dir.isDirectory()) return;
+    File f = new File(dir, INDEX);
+    File tmp = new File(dir, INDEX + ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+        out.writeInt(INDEX_MAGIC);
+        out.writeInt(lastUse.size());
+        for (Map.Entry<String, Long> e : lastUse.entrySet()) {
+          out.writeUTF(e.getKey());
+          out.writeLong(e.getValue());
+        }
+      }
+      if (!tmp.renameTo(f) && !(f.delete() && tmp.renameTo(f))) throw new IOException("rename gagal");
+    } catch (IOException e) {
+      if (!tmp.delete()) tmp.deleteOnExit();
+    }
+  }
+
+  private static String keyOf(File f) {
+    String name = f.getName();
+    return name.substring(0, name.length() - SUFFIX.length());
+  }
+
+  private File file(String key) {
+    return new File(dir, key + SUFFIX);
+  }
+
+  private static long matrixBytes(CostMatrix m) {
+    if (m.isSparse()) return 8 + 16L * m.nextIds.length;
+    return 4 + (m.isNarrow() ? 2L : 4L) * m.size() * m.size();
+  }
+
+  private static CostMatrix readMatrix(ByteBuffer map, int n) throws IOException {
+    int type = map.getInt();
+    if (type == TYPE_NARROW) {
+      char[] data = new char[n * n];
+      map.asCharBuffer().get(data);
+      map.position(map.position() + 2 * data.length);
+      return CostMatrix.wrap(n, data, null);
+    }
+    if (type == TYPE_WIDE) {
+      int[] data = new int[n * n];
+      map.asIntBuffer().get(data);
+      map.position(map.position() + 4 * data.length);
+      return CostMatrix.wrap(n, null, data);
+    }
+    if (type == TYPE_SPARSE) {
+      int k = map.getInt();
+      if (k <= 0 || k >= n) throw new IOException("K cache tidak valid: " + k);
+      int[][] lists = new int[4][n * k];
+      for (int[] list : lists) {
+        map.asIntBuffer().get(list);
+        map.position(map.position() + 4 * list.length);
+      }
+      return CostMatrix.sparse(n, k, lists[0], lists[1], lists[2], lists[3]);
+    }
+    throw new IOException("Jenis tabel tidak dikenal: " + type);
+  }
+
+  private static void writeMatrix(FileChannel ch, ByteBuffer buf, CostMatrix m) throws IOException {
+    if (buf.remaining() < 8) flush(ch, buf);
+    if (m.isSparse()) {
+      buf.putInt(TYPE_SPARSE).putInt(m.k);
+      for (int[] list : new int[][] {m.nextIds, m.nextCost, m.prevIds, m.prevCost}) writeInts(ch, buf, list);
+    } else if (m.isNarrow()) {
+      buf.putInt(TYPE_NARROW);
+      char[] data = m.narrow;
+      for (int off = 0; off < data.length; ) {
+        if (buf.remaining() < 2) flush(ch, buf);
+        int len = Math.min(data.length - off, buf.remaining() / 2);
+        buf.asCharBuffer().put(data, off, len);
+        buf.position(buf.position() + 2 * len);
+        off += len;
+      }
+    } else {
+      buf.putInt(TYPE_WIDE);
+      writeInts(ch, buf, m.wide);
+    }
+  }
+
+  private static void writeInts(FileChannel ch, ByteBuffer buf, int[] data) throws IOException {
+    for (int off = 0; off < data.length; ) {
+      if (buf.remaining() < 4) flush(ch, buf);
+      int len = Math.min(data.length - off, buf.remaining() / 4);
+      buf.asIntBuffer().put(data, off, len);
+      buf.position(buf.position() + 4 * len);
+      off += len;
+    }
+  }
+
+  private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+    buf.flip();
+    while (buf.hasRemaining()) ch.write(buf);
+    buf.clear();
+  }
+}
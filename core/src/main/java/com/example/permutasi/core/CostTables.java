@@ -0,0 +1,212 @@
+package com.example.permutasi.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pasangan tabel biaya read-only untuk satu grid: {@code h.get(a,b)} = a di kiri b,
+ * {@code v.get(a,b)} = a di atas b.
+ */
+public final class CostTables {
+  /** Sisi blok (dalam tile) per unit kerja; strip dua blok 64 tile muat di cache L2. */
+  private static final int BLOCK = 64;
+
+  public final int rows, cols, n;
+  public final CostMatrix h, v;
+
+  public CostTables(int rows, int cols, CostMatrix h, CostMatrix v) {
+    if (h.size() != rows * cols || v.size() != rows * cols) {
+      throw new IllegalArgumentException("Ukuran tabel != rows*cols");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.n = rows * cols;
+    this.h = h;
+    this.v = v;
+  }
+
+  /**
+   * Hitung semua biaya pasangan dari strip tepi. Ruang (a,b) dipecah jadi blok BLOCK×BLOCK yang
+   * diambil bergiliran oleh {@code parallelism} thread (<=0: semua core). Tiap sel dihitung
+   * independen sehingga hasilnya identik dengan versi sekuensial.
+   */
+  public static CostTables build(TileEdges edges, int parallelism) {
+    return build(edges, new EdgeCost.L1(), parallelism);
+  }
+
+  /** Seperti {@link #build(TileEdges, int)} dengan metrik tepi pilihan. */
+  public static CostTables build(TileEdges edges, EdgeCost cost, int parallelism) {
+    final int n = edges.n;
+    final EdgeCost.Evaluator eval = cost.prepare(edges);
+    final CostMatrix h = CostMatrix.allocate(n, eval.maxHorizontal());
+    final CostMatrix v = CostMatrix.allocate(n, eval.maxVertical());
+    final int blocksPerSide = (n + BLOCK - 1) / BLOCK;
+    final int blockCount = blocksPerSide * blocksPerSide;
+
+    int threads = resolveParallelism(parallelism);
+    threads = Math.min(threads, blockCount);
+    if (threads <= 1) {
+      for (int blk = 0; blk < blockCount; blk++) fillBlock(eval, n, h, v, blk, blocksPerSide);
+      return cost.finish(new CostTables(edges.rows, edges.cols, h, v));
+    }
+
+    final AtomicInteger nextBlock = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "cost-precompute");
+      t.setDaemon(true);
+      return t;
+    });
+    try {
+      List<Future<?>> parts = new ArrayList<>(threads);
+      for (int t = 0; t < threads; t++) {
+        parts.add(pool.submit(() -> {
+          int blk;
+          while ((blk = nextBlock.getAndIncrement()) < blockCount) {
+            fillBlock(eval, n, h, v, blk, blocksPerSide);
+          }
+        }));
+      }
+      for (Future<?> f : parts) f.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Precompute dibatalkan", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Precompute gagal", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    return cost.finish(new CostTables(edges.rows, edges.cols, h, v));
+  }
+
+  /**
+   * Tabel kandidat: per tile dan arah hanya {@code k} pasangan termurah yang disimpan (memori O(N·K)),
+   * pasangan lain bernilai penalti (lihat {@link CostMatrix#sparse}). Semua pasangan tetap dievaluasi
+   * sekali, tapi tabel N×N tidak pernah dialokasikan. Baris a dibagi per blok ke thread; kandidat
+   * "prev" dikumpulkan per thread lalu digabung.
+   */
+  public static CostTables buildSparse(TileEdges edges, EdgeCost cost, int k, int parallelism) {
+    final int n = edges.n;
+    final int kk = Math.min(k, n - 1);
+    if (kk <= 0) return build(edges, cost, parallelism);
+    final EdgeCost.Evaluator eval = cost.prepare(edges);
+    final TopK hNext = new TopK(n, kk), vNext = new TopK(n, kk);
+    final int chunkCount = (n + BLOCK - 1) / BLOCK;
+
+    int threads = Math.min(resolveParallelism(parallelism), chunkCount);
+    final TopK[] hPrev = new TopK[threads], vPrev = new TopK[threads];
+    for (int t = 0; t < threads; t++) {
+      hPrev[t] = new TopK(n, kk);
+      vPrev[t] = new TopK(n, kk);
+    }
+    if (threads <= 1) {
+      for (int c = 0; c < chunkCount; c++) fillCandidates(eval, n, c, hNext, vNext, hPrev[0], vPrev[0]);
+    } else {
+      final AtomicInteger nextChunk = new AtomicInteger();
+      ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+        Thread t = new Thread(r, "cost-precompute");
+        t.setDaemon(true);
+        return t;
+      });
+      try {
+        List<Future<?>> parts = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+          final TopK hp = hPrev[t], vp = vPrev[t];
+          parts.add(pool.submit(() -> {
+            int c;
+            while ((c = nextChunk.getAndIncrement()) < chunkCount) fillCandidates(eval, n, c, hNext, vNext, hp, vp);
+          }));
+        }
+        for (Future<?> f : parts) f.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Precompute dibatalkan", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Precompute gagal", e.getCause());
+      } finally {
+        pool.shutdownNow();
+      }
+      for (int t = 1; t < threads; t++) {
+        hPrev[0].mergeFrom(hPrev[t]);
+        vPrev[0].mergeFrom(vPrev[t]);
+      }
+    }
+    CostMatrix h = CostMatrix.sparse(n, kk, hNext.ids, hNext.cost, hPrev[0].ids, hPrev[0].cost);
+    CostMatrix v = CostMatrix.sparse(n, kk, vNext.ids, vNext.cost, vPrev[0].ids, vPrev[0].cost);
+    return cost.finish(new CostTables(edges.rows, edges.cols, h, v));
+  }
+
+  /** Jumlah thread efektif: {@code <= 0} berarti semua core. */
+  public static int resolveParallelism(int parallelism) {
+    return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+  }
+
+  private static void fillBlock(EdgeCost.Evaluator eval, int n, CostMatrix h, CostMatrix v, int blk,
+                                int blocksPerSide) {
+    int a0 = (blk / blocksPerSide) * BLOCK, a1 = Math.min(n, a0 + BLOCK);
+    int b0 = (blk % blocksPerSide) * BLOCK, b1 = Math.min(n, b0 + BLOCK);
+    for (int a = a0; a < a1; a++) {
+      for (int b = b0; b < b1; b++) {
+        h.set(a, b, eval.horizontal(a, b));
+        v.set(a, b, eval.vertical(a, b));
+      }
+    }
+  }
+
+  private static void fillCandidates(EdgeCost.Evaluator eval, int n, int chunk, TopK hNext, TopK vNext,
+                                     TopK hPrev, TopK vPrev) {
+    int a0 = chunk * BLOCK, a1 = Math.min(n, a0 + BLOCK);
+    for (int a = a0; a < a1; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        int ch = eval.horizontal(a, b), cv = eval.vertical(a, b);
+        hNext.offer(a, b, ch);
+        hPrev.offer(b, a, ch);
+        vNext.offer(a, b, cv);
+        vPrev.offer(b, a, cv);
+      }
+    }
+  }
+
+  /** k biaya terkecil per tile, terurut naik; slot kosong bernilai {@link Integer#MAX_VALUE}. */
+  private static final class TopK {
+    final int k;
+    final int[] ids, cost;
+
+    TopK(int n, int k) {
+      this.k = k;
+      this.ids = new int[n * k];
+      this.cost = new int[n * k];
+      Arrays.fill(ids, -1);
+      Arrays.fill(cost, Integer.MAX_VALUE);
+    }
+
+    /** Biaya sama diurutkan menurut id, jadi hasilnya tidak bergantung pada pembagian thread. */
+    void offer(int x, int id, int c) {
+      final int off = x * k;
+      int i = off + k - 1;
+      if (!before(c, id, cost[i], ids[i])) return;
+      for (; i > off && before(c, id, cost[i - 1], ids[i - 1]); i--) {
+        ids[i] = ids[i - 1];
+        cost[i] = cost[i - 1];
+      }
+      ids[i] = id;
+      cost[i] = c;
+    }
+
+    private static boolean before(int c, int id, int oc, int oid) {
+      return c < oc || (c == oc && oid >= 0 && id < oid);
+    }
+
+    void mergeFrom(TopK other) {
+      for (int i = 0; i < other.ids.length; i++) {
+        if (other.ids[i] >= 0) offer(i / k, other.ids[i], other.cost[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package com.example.permutasi.core;
+
+import java.util.Arrays;
+
+/**
+ * Metrik kecocokan dua tepi tile. Statistik per tile dihitung sekali di {@link #prepare}; tabel
+ * biaya lalu diisi dari {@link Evaluator}, jadi loop SA tetap hanya lookup tabel.
+ */
+public interface EdgeCost {
+  /** Urutan sama dengan pilihan metrik di UI. */
+  enum Kind { L1, PREDICTION, RATIO }
+
+  /** Id stabil metrik (termasuk parameternya); dipakai sebagai bagian kunci cache tabel. */
+  String id();
+
+  /** Hitung statistik per tile dari strip tepi; hasilnya dipakai bersama oleh semua thread precompute. */
+  Evaluator prepare(TileEdges edges);
+
+  /** Pasca-proses tabel penuh (mis. normalisasi rasio); default tanpa perubahan. */
+  default CostTables finish(CostTables raw) { return raw; }
+
+  /** Biaya pasangan read-only; aman dipanggil paralel. */
+  interface Evaluator {
+    /** Biaya a di kiri b. */
+    int horizontal(int a, int b);
+
+    /** Biaya a di atas b. */
+    int vertical(int a, int b);
+
+    /** Batas atas {@link #horizontal} untuk semua pasangan (memilih lebar tabel). */
+    long maxHorizontal();
+
+    /** Batas atas {@link #vertical} untuk semua pasangan. */
+    long maxVertical();
+  }
+
+  static EdgeCost create(Kind kind) {
+    switch (kind) {
+      case PREDICTION: return new Prediction();
+      case RATIO: return new Ratio(new Prediction());
+      case L1:
+      default: return new L1();
+    }
+  }
+
+  /** Jumlah selisih absolut per kanal RGB dua garis piksel yang bersentuhan (metrik awal). */
+  final class L1 implements EdgeCost {
+    @Override public String id() { return "l1"; }
+
+    @Override public Evaluator prepare(final TileEdges e) {
+      return new Evaluator() {
+        @Override public int horizontal(int a, int b) { return e.horizontalDiff(a, b); }
+
+        @Override public int vertical(int a, int b) { return e.verticalDiff(a, b); }
+
+        @Override public long maxHorizontal() { return e.maxHorizontalDiff(); }
+
+        @Override public long maxVertical() { return e.maxVerticalDiff(); }
+      };
+    }
+  }
+
+  /**
+   * Prediksi gradien: garis di seberang tepi diekstrapolasi dari dua garis terakhir tile
+   * ({@code 2·tepi − dalam}, di-clamp 0..255) lalu dibandingkan L1 dengan garis tepi tetangga, dua arah.
+   * Gradien halus yang melintasi potongan tidak lagi dihitung sebagai selisih.
+   */
+  final class Prediction implements EdgeCost {
+    @Override public String id() { return "pred"; }
+
+    @Override public Evaluator prepare(final TileEdges e) {
+      // Prediksi per tile dihitung sekali: kolom di kanan a, kolom di kiri b, dst.
+      final int[] predRight = predict(e.right, e.rightInner);
+      final int[] predLeft = predict(e.left, e.leftInner);
+      final int[] predBottom = predict(e.bottom, e.bottomInner);
+      final int[] predTop = predict(e.top, e.topInner);
+      final int th = e.tileH, tw = e.tileW;
+      return new Evaluator() {
+        @Override public int horizontal(int a, int b) {
+          return TileEdges.stripDiff(predRight, a * th, e.left, b * th, th)
+              + TileEdges.stripDiff(e.right, a * th, predLeft, b * th, th);
+        }
+
+        @Override public int vertical(int a, int b) {
+          return TileEdges.stripDiff(predBottom, a * tw, e.top, b * tw, tw)
+              + TileEdges.stripDiff(e.bottom, a * tw, predTop, b * tw, tw);
+        }
+
+        @Override public long maxHorizontal() {
+          return TileEdges.maxStripDiff(predRight, e.left, th, e.n) + TileEdges.maxStripDiff(e.right, predLeft, th, e.n);
+        }
+
+        @Override public long maxVertical() {
+          return TileEdges.maxStripDiff(predBottom, e.top, tw, e.n) + TileEdges.maxStripDiff(e.bottom, predTop, tw, e.n);
+        }
+      };
+    }
+
+    private static int[] predict(int[] edge, int[] inner) {
+      int[] out = new int[edge.length];
+      for (int i = 0; i < edge.length; i++) {
+        int p = edge[i], q = inner[i];
+        int rgb = 0;
+        for (int shift = 0; shift < 24; shift += 8) {
+          int v = 2 * ((p >>> shift) & 0xFF) - ((q >>> shift) & 0xFF);
+          rgb |= Math.max(0, Math.min(255, v)) << shift;
+        }
+        out[i] = rgb;
+      }
+      return out;
+    }
+  }
+
+  /**
+   * Rasio ketidakmiripan: biaya dasar dibagi biaya terbaik kedua dari kedua sisi tepi
+   * ({@code D(a,b) / min(D2(a→), D2(→b))}), diskalakan {@link #SCALE} dan di-cap ke 16 bit.
+   * Pasangan yang jelas lebih cocok daripada alternatifnya jadi murah, tepi datar yang cocok ke
+   * mana saja jadi netral.
+   */
+  final class Ratio implements EdgeCost {
+    /** Satuan: rasio 1,0 = 1024. */
+    public static final int SCALE = 1024;
+
+    private final EdgeCost base;
+
+    public Ratio(EdgeCost base) {
+      this.base = base;
+    }
+
+    @Override public String id() { return "ratio-" + base.id(); }
+
+    @Override public Evaluator prepare(TileEdges edges) { return base.prepare(edges); }
+
+    @Override public CostTables finish(CostTables raw) {
+      CostTables t = base.finish(raw);
+      return new CostTables(t.rows, t.cols, normalize(t.h), normalize(t.v));
+    }
+
+    private static CostMatrix normalize(CostMatrix m) {
+      if (m.isSparse()) return normalizeSparse(m);
+      final int n = m.size();
+      // Terbaik kedua per baris (a → semua b) dan per kolom (semua a → b), tanpa pasangan diri sendiri.
+      long[] rowBest = new long[n], rowSecond = new long[n], colBest = new long[n], colSecond = new long[n];
+      Arrays.fill(rowBest, Long.MAX_VALUE);
+      Arrays.fill(rowSecond, Long.MAX_VALUE);
+      Arrays.fill(colBest, Long.MAX_VALUE);
+      Arrays.fill(colSecond, Long.MAX_VALUE);
+      for (int a = 0; a < n; a++) {
+        for (int b = 0; b < n; b++) {
+          if (a == b) continue;
+          long d = m.get(a, b);
+          if (d < rowBest[a]) { rowSecond[a] = rowBest[a]; rowBest[a] = d; }
+          else if (d < rowSecond[a]) rowSecond[a] = d;
+          if (d < colBest[b]) { colSecond[b] = colBest[b]; colBest[b] = d; }
+          else if (d < colSecond[b]) colSecond[b] = d;
+        }
+      }
+      CostMatrix out = CostMatrix.allocate(n, 0xFFFF);
+      for (int a = 0; a < n; a++) {
+        for (int b = 0; b < n; b++) {
+          long second = Math.min(rowSecond[a], colSecond[b]);
+          if (second == Long.MAX_VALUE) second = 0;  // n <= 2: tidak ada pembanding
+          out.set(a, b, ratio(m.get(a, b), second));
+        }
+      }
+      return out;
+    }
+
+    /** Tabel kandidat: terbaik kedua diambil dari slot kedua daftar; penalti ikut dinormalisasi. */
+    private static CostMatrix normalizeSparse(CostMatrix m) {
+      final int n = m.size(), k = m.k;
+      long[] rowSecond = new long[n], colSecond = new long[n];
+      for (int x = 0; x < n; x++) {
+        rowSecond[x] = k > 1 ? m.nextCost[x * k + 1] : 0;
+        colSecond[x] = k > 1 ? m.prevCost[x * k + 1] : 0;
+      }
+      int[] nextCost = new int[n * k], prevCost = new int[n * k];
+      for (int x = 0; x < n; x++) {
+        for (int s = x * k; s < x * k + k; s++) {
+          int b = m.nextIds[s], a = m.prevIds[s];
+          nextCost[s] = ratio(m.nextCost[s], Math.min(rowSecond[x], colSecond[b]));
+          prevCost[s] = ratio(m.prevCost[s], Math.min(rowSecond[a], colSecond[x]));
+        }
+      }
+      return CostMatrix.sparse(n, k, m.nextIds.clone(), nextCost, m.prevIds.clone(), prevCost);
+    }
+
+    private static int ratio(long d, long second) {
+      return (int) Math.min(0xFFFF, d * SCALE / (second + 1));
+    }
+  }
+}
@@ -0,0 +1,267 @@
+package com.example.permutasi.core;
+
+import java.util.Arrays;
+
+/**
+ * Solver eksak branch-and-bound untuk grid kecil, di atas tabel biaya yang sama dengan annealer.
+ * Tile dipasang per posisi row-major; tiap cabang dipangkas bila biaya sejauh ini ditambah batas
+ * bawah posisi sisa tidak lebih kecil dari solusi terbaik. Batas bawah posisi sisa: per posisi,
+ * biaya termurah tile yang belum terpasang ke tetangga kiri/atasnya (tetangga yang sudah terpasang
+ * dipakai langsung, selain itu tetangga termurah tile itu).
+ *
+ * <p>{@link #lowerBound} memberi batas bawah energi global yang murah untuk grid besar.
+ */
+public final class ExactSolver {
+  /** Jumlah tile maksimum yang otomatis diselesaikan eksak (mis. 5×4). */
+  public static final int DEFAULT_MAX_TILES = 20;
+  /**
+   * Batas node pencarian default (orde satu detik); lewat batas ini hasil terbaik sejauh ini
+   * dikembalikan tanpa bukti optimal.
+   */
+  public static final long DEFAULT_NODE_LIMIT = 100_000;
+
+  private final int rows, cols, n;
+  /** Biaya padat: h[a*n+b] = a kiri b, v[a*n+b] = a atas b. */
+  private final int[] h, v;
+  /**
+   * Per kedalaman: biaya termurah tile sebagai tetangga kanan / bawah, hanya dari tile yang belum
+   * terpasang.
+   */
+  private final int[][] freeLeft, freeUp;
+  private final long nodeLimit;
+  private final int[] pos2tile, best;
+  private final boolean[] used;
+  /** Urutan tile kandidat dan biaya tambahnya per kedalaman. */
+  private final int[][] order;
+  private final long[][] orderCost;
+  private long bestEnergy = Long.MAX_VALUE;
+  private long nodes;
+
+  /** Hasil {@link #solve}. */
+  public static final class Result {
+    /** Permutasi 0-based pos→tile terbaik yang ditemukan. */
+    public final int[] pos2tile;
+    public final long energy;
+    /** True bila pencarian selesai (terbukti optimal); false bila berhenti di batas node. */
+    public final boolean optimal;
+    public final long nodes;
+
+    Result(int[] pos2tile, long energy, boolean optimal, long nodes) {
+      this.pos2tile = pos2tile;
+      this.energy = energy;
+      this.optimal = optimal;
+      this.nodes = nodes;
+    }
+  }
+
+  private ExactSolver(CostTables t, long nodeLimit) {
+    this.rows = t.rows;
+    this.cols = t.cols;
+    this.n = t.n;
+    this.h = new int[n * n];
+    this.v = new int[n * n];
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        h[a * n + b] = t.h.get(a, b);
+        v[a * n + b] = t.v.get(a, b);
+      }
+    }
+    this.nodeLimit = nodeLimit;
+    this.pos2tile = new int[n];
+    this.best = new int[n];
+    this.used = new boolean[n];
+    this.order = new int[n][n];
+    this.orderCost = new long[n][n];
+    this.freeLeft = new int[n][n];
+    this.freeUp = new int[n][n];
+  }
+
+  /**
+   * Cari susunan optimal. Batas atas awal = yang termurah dari {@code initial} (boleh null) dan hasil
+   * {@link GreedyPlacer}, masing-masing diperbaiki dengan swap turun. Berhenti setelah
+   * {@code nodeLimit} node ({@code <= 0} = tanpa batas).
+   */
+  public static Result solve(CostTables tables, int[] initial, long nodeLimit) {
+    if (initial != null && initial.length != tables.n) throw new IllegalArgumentException("perm length mismatch");
+    ExactSolver s = new ExactSolver(tables, nodeLimit);
+    s.offer(GreedyPlacer.solve(tables));
+    if (initial != null) s.offer(initial.clone());
+    // Batas atas sudah menyentuh batas bawah global: terbukti optimal tanpa pencarian.
+    boolean complete = s.bestEnergy <= lowerBound(tables) || s.search(0, 0);
+    return new Result(s.best.clone(), s.bestEnergy, complete, s.nodes);
+  }
+
+  /** Perbaiki {@code perm} dengan swap turun sampai tidak ada swap yang membaik, lalu jadikan batas atas. */
+  private void offer(int[] perm) {
+    long e = energy(perm);
+    for (boolean improved = true; improved; ) {
+      improved = false;
+      for (int i = 0; i < n; i++) {
+        for (int j = i + 1; j < n; j++) {
+          int tmp = perm[i]; perm[i] = perm[j]; perm[j] = tmp;
+          long f = energy(perm);
+          if (f < e) {
+            e = f;
+            improved = true;
+          } else {
+            perm[j] = perm[i]; perm[i] = tmp;
+          }
+        }
+      }
+    }
+    if (e < bestEnergy) {
+      bestEnergy = e;
+      System.arraycopy(perm, 0, best, 0, n);
+    }
+  }
+
+  private long energy(int[] perm) {
+    long e = 0;
+    for (int p = 0; p < n; p++) {
+      if (p % cols > 0) e += h[perm[p - 1] * n + perm[p]];
+      if (p >= cols) e += v[perm[p - cols] * n + perm[p]];
+    }
+    return e;
+  }
+
+  /** Return false bila batas node tercapai. */
+  private boolean search(int p, long cost) {
+    if (p == n) {
+      if (cost < bestEnergy) {
+        bestEnergy = cost;
+        System.arraycopy(pos2tile, 0, best, 0, n);
+      }
+      return true;
+    }
+    if (++nodes > nodeLimit && nodeLimit > 0) return false;
+    // Tetangga kiri/atas posisi sisa yang belum terpasang pasti tile bebas di node ini.
+    final int[] fl = freeLeft[p], fu = freeUp[p];
+    for (int t = 0; t < n; t++) {
+      if (used[t]) continue;
+      int ml = Integer.MAX_VALUE, mu = Integer.MAX_VALUE;
+      for (int a = 0; a < n; a++) {
+        if (used[a] || a == t) continue;
+        if (h[a * n + t] < ml) ml = h[a * n + t];
+        if (v[a * n + t] < mu) mu = v[a * n + t];
+      }
+      fl[t] = ml == Integer.MAX_VALUE ? 0 : ml;
+      fu[t] = mu == Integer.MAX_VALUE ? 0 : mu;
+    }
+    final int c = p % cols;
+    final int left = c > 0 ? pos2tile[p - 1] : -1, up = p >= cols ? pos2tile[p - cols] : -1;
+    final int[] ord = order[p];
+    final long[] oc = orderCost[p];
+    int m = 0;
+    for (int t = 0; t < n; t++) {
+      if (used[t]) continue;
+      long add = (left >= 0 ? h[left * n + t] : 0) + (up >= 0 ? v[up * n + t] : 0);
+      // Sisip terurut naik (m kecil).
+      int i = m++;
+      while (i > 0 && oc[i - 1] > add) {
+        ord[i] = ord[i - 1];
+        oc[i] = oc[i - 1];
+        i--;
+      }
+      ord[i] = t;
+      oc[i] = add;
+    }
+    for (int i = 0; i < m; i++) {
+      long next = cost + oc[i];
+      if (next >= bestEnergy) break; // urut naik: sisanya tidak lebih murah
+      int t = ord[i];
+      pos2tile[p] = t;
+      used[t] = true;
+      boolean ok = next + remainingBound(p + 1, fl, fu) >= bestEnergy || search(p + 1, next);
+      used[t] = false;
+      if (!ok) return false;
+    }
+    return true;
+  }
+
+  /** Batas bawah biaya tepi masuk ke posisi {@code from..n-1} (kiri dan atas tiap posisi). */
+  private long remainingBound(int from, int[] freeL, int[] freeU) {
+    // Posisi yang tetangganya belum terpasang hanya bergantung pada jenisnya (baris 0, kolom 0,
+    // dalam): minimumnya dihitung sekali. Hanya posisi dengan tetangga terpasang (paling banyak
+    // cols + 1) yang dihitung per tile.
+    long minRow0 = Long.MAX_VALUE, minCol0 = Long.MAX_VALUE, minInner = Long.MAX_VALUE;
+    for (int t = 0; t < n; t++) {
+      if (used[t]) continue;
+      minRow0 = Math.min(minRow0, freeL[t]);
+      minCol0 = Math.min(minCol0, freeU[t]);
+      minInner = Math.min(minInner, (long) freeL[t] + freeU[t]);
+    }
+    long sum = 0;
+    for (int q = from; q < n; q++) {
+      final int c = q % cols;
+      final boolean hasLeft = c > 0, hasUp = q >= cols;
+      final int left = hasLeft && q - 1 < from ? pos2tile[q - 1] : -1;
+      final int up = hasUp && q - cols < from ? pos2tile[q - cols] : -1;
+      if (left < 0 && up < 0) {
+        if (hasLeft && hasUp) sum += minInner;
+        else if (hasLeft) sum += minRow0;
+        else if (hasUp) sum += minCol0;
+        continue;
+      }
+      long min = Long.MAX_VALUE;
+      for (int t = 0; t < n; t++) {
+        if (used[t]) continue;
+        long x = 0;
+        if (hasLeft) x += left >= 0 ? h[left * n + t] : freeL[t];
+        if (hasUp) x += up >= 0 ? v[up * n + t] : freeU[t];
+        if (x < min) min = x;
+      }
+      sum += min;
+    }
+    return sum;
+  }
+
+  /**
+   * Batas bawah energi semua susunan. Tiap tile di luar kolom terakhir punya tepat satu tetangga
+   * kanan, jadi tepi horizontal >= jumlah biaya kanan termurah semua tile dikurangi {@code rows}
+   * terbesar (dan simetris dari sisi kiri); sama untuk vertikal. O(N²) untuk tabel padat, O(N·K)
+   * untuk tabel kandidat.
+   */
+  public static long lowerBound(CostTables t) {
+    final int n = t.n;
+    if (n <= 1) return 0;
+    long[] right = new long[n], left = new long[n], down = new long[n], up = new long[n];
+    Arrays.fill(left, Long.MAX_VALUE);
+    Arrays.fill(up, Long.MAX_VALUE);
+    if (t.h.isSparse() && t.v.isSparse()) {
+      // Daftar kandidat terurut naik; pasangan di luar daftar bernilai penalti >= kandidat terakhir.
+      final int k = t.h.candidateCount();
+      for (int a = 0; a < n; a++) {
+        right[a] = t.h.nextCost[a * k];
+        left[a] = t.h.prevCost[a * k];
+        down[a] = t.v.nextCost[a * k];
+        up[a] = t.v.prevCost[a * k];
+      }
+    } else {
+      for (int a = 0; a < n; a++) {
+        long r = Long.MAX_VALUE, d = Long.MAX_VALUE;
+        for (int b = 0; b < n; b++) {
+          if (a == b) continue;
+          int ch = t.h.get(a, b), cv = t.v.get(a, b);
+          if (ch < r) r = ch;
+          if (cv < d) d = cv;
+          if (ch < left[b]) left[b] = ch;
+          if (cv < up[b]) up[b] = cv;
+        }
+        right[a] = r;
+        down[a] = d;
+      }
+    }
+    long horizontal = t.cols > 1 ? Math.max(sumExceptLargest(right, t.rows), sumExceptLargest(left, t.rows)) : 0;
+    long vertical = t.rows > 1 ? Math.max(sumExceptLargest(down, t.cols), sumExceptLargest(up, t.cols)) : 0;
+    return horizontal + vertical;
+  }
+
+  private static long sumExceptLargest(long[] values, int drop) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    long sum = 0;
+    for (int i = 0; i < sorted.length - drop; i++) sum += sorted[i];
+    return sum;
+  }
+}
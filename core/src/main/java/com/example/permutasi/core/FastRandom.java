@@ -0,0 +1,44 @@
+package com.example.permutasi.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PRNG SplitMix64 tanpa sinkronisasi untuk loop SA. Satu instance per thread/rantai.
+ * State cukup satu long sehingga mudah disimpan dan dipulihkan.
+ */
+public final class FastRandom {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong(0x2545F4914F6CDD1DL);
+
+  private long state;
+
+  /** Seed unik per instance (waktu + counter global). */
+  public FastRandom() {
+    this(System.nanoTime() ^ SEED_UNIQUIFIER.getAndAdd(GOLDEN_GAMMA));
+  }
+
+  public FastRandom(long seed) {
+    this.state = seed;
+  }
+
+  public long getState() { return state; }
+
+  public void setState(long state) { this.state = state; }
+
+  public long nextLong() {
+    long z = (state += GOLDEN_GAMMA);
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /** Bilangan seragam di [0, bound); multiply-shift (bias < bound/2^32, tak berarti untuk SA). */
+  public int nextInt(int bound) {
+    return (int) (((nextLong() >>> 32) * bound) >>> 32);
+  }
+
+  /** Double seragam di [0, 1). */
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+}
@@ -0,0 +1,223 @@
+package com.example.permutasi.core;
+
+import java.util.Arrays;
+
+/**
+ * Solusi awal konstruktif: mulai dari tile seed dengan best-buddy terbanyak, lalu tumbuhkan
+ * susunan satu tile per langkah ke slot kosong yang paling meyakinkan. Slot diprioritaskan
+ * bila tile terbaiknya adalah best-buddy mutual dengan semua tetangga yang sudah terpasang,
+ * lalu yang punya tetangga terbanyak, lalu biaya rata-rata terkecil.
+ *
+ * <p>Penempatan memakai kanvas (2R-1)×(2C-1) dengan seed di tengah; slot hanya sah bila
+ * bounding box susunan tetap muat R×C. Cache kandidat terbaik per slot membuat total kerja
+ * sekitar O(N²) untuk N tile. Pada tabel kandidat ({@link CostMatrix#isSparse()}) slot hanya
+ * menilai kandidat milik tetangganya, jadi kerjanya sekitar O(N·K).
+ */
+public final class GreedyPlacer {
+  private static final int RIGHT = 0, LEFT = 1, DOWN = 2, UP = 3;
+
+  private final CostTables t;
+  private final int rows, cols, n;
+  private final int cw, ch;           // ukuran kanvas
+  private final int[] canvas;         // tile per sel kanvas, -1 = kosong
+  private final int[] best;           // best[dir*n + a] = tile terbaik di arah dir dari a
+  private final int[] unplaced;       // daftar tile belum terpasang
+  private final int[] unplacedIndex;  // posisi tile di unplaced
+  private int unplacedCount;
+  private final boolean[] placed;
+  private int minR, maxR, minC, maxC;
+
+  // Cache kandidat per sel kanvas
+  private final int[] slotTile;       // -1 = perlu dihitung ulang
+  private final long[] slotCost;      // jumlah biaya ke tetangga terpasang
+  private final int[] slotNeighbors;
+  private final boolean[] slotBuddy;
+  private final boolean[] inFrontier;
+  private final int[] frontier;
+  private int frontierCount;
+
+  private GreedyPlacer(CostTables t) {
+    this.t = t;
+    this.rows = t.rows;
+    this.cols = t.cols;
+    this.n = t.n;
+    this.cw = 2 * cols - 1;
+    this.ch = 2 * rows - 1;
+    this.canvas = new int[cw * ch];
+    this.best = new int[4 * n];
+    this.unplaced = new int[n];
+    this.unplacedIndex = new int[n];
+    this.placed = new boolean[n];
+    this.slotTile = new int[cw * ch];
+    this.slotCost = new long[cw * ch];
+    this.slotNeighbors = new int[cw * ch];
+    this.slotBuddy = new boolean[cw * ch];
+    this.inFrontier = new boolean[cw * ch];
+    this.frontier = new int[cw * ch];
+  }
+
+  /** Susun grid secara greedy. Return permutasi 0-based pos→tile (row-major). */
+  public static int[] solve(CostTables tables) {
+    return new GreedyPlacer(tables).run();
+  }
+
+  private int[] run() {
+    if (n == 1) return new int[] {0};
+    computeBestNeighbours();
+    Arrays.fill(canvas, -1);
+    Arrays.fill(slotTile, -1);
+    for (int i = 0; i < n; i++) unplaced[i] = unplacedIndex[i] = i;
+    unplacedCount = n;
+
+    int seed = 0, seedScore = -1;
+    for (int a = 0; a < n; a++) {
+      int s = buddyCount(a);
+      if (s > seedScore) { seedScore = s; seed = a; }
+    }
+    minR = maxR = rows - 1;
+    minC = maxC = cols - 1;
+    place(seed, (rows - 1) * cw + (cols - 1));
+
+    while (unplacedCount > 0) {
+      int bestSlot = -1;
+      for (int f = 0; f < frontierCount; f++) {
+        int s = frontier[f];
+        if (!fits(s)) continue;
+        if (slotTile[s] < 0 || placed[slotTile[s]]) evaluate(s);
+        if (bestSlot < 0 || better(s, bestSlot)) bestSlot = s;
+      }
+      place(slotTile[bestSlot], bestSlot);
+    }
+
+    int[] pos2tile = new int[n];
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < cols; c++) {
+        pos2tile[r * cols + c] = canvas[(minR + r) * cw + (minC + c)];
+      }
+    }
+    return pos2tile;
+  }
+
+  private void computeBestNeighbours() {
+    if (t.h.isSparse() && t.v.isSparse()) {
+      for (int a = 0; a < n; a++) {
+        best[RIGHT * n + a] = t.h.nextCandidate(a, 0);
+        best[LEFT * n + a] = t.h.prevCandidate(a, 0);
+        best[DOWN * n + a] = t.v.nextCandidate(a, 0);
+        best[UP * n + a] = t.v.prevCandidate(a, 0);
+      }
+      return;
+    }
+    long[] bestCost = new long[4 * n];
+    Arrays.fill(bestCost, Long.MAX_VALUE);
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        int h = t.h.get(a, b), v = t.v.get(a, b);
+        if (h < bestCost[RIGHT * n + a]) { bestCost[RIGHT * n + a] = h; best[RIGHT * n + a] = b; }
+        if (h < bestCost[LEFT * n + b]) { bestCost[LEFT * n + b] = h; best[LEFT * n + b] = a; }
+        if (v < bestCost[DOWN * n + a]) { bestCost[DOWN * n + a] = v; best[DOWN * n + a] = b; }
+        if (v < bestCost[UP * n + b]) { bestCost[UP * n + b] = v; best[UP * n + b] = a; }
+      }
+    }
+  }
+
+  /** True bila b tepat di arah dir dari a dan keduanya saling memilih. */
+  private boolean buddies(int a, int dir, int b) {
+    int opposite = dir ^ 1; // RIGHT<->LEFT, DOWN<->UP
+    return best[dir * n + a] == b && best[opposite * n + b] == a;
+  }
+
+  private int buddyCount(int a) {
+    int s = 0;
+    for (int dir = 0; dir < 4; dir++) {
+      if (buddies(a, dir, best[dir * n + a])) s++;
+    }
+    return s;
+  }
+
+  private boolean fits(int s) {
+    int r = s / cw, c = s % cw;
+    return Math.max(maxR, r) - Math.min(minR, r) < rows
+        && Math.max(maxC, c) - Math.min(minC, c) < cols;
+  }
+
+  private void place(int tile, int s) {
+    canvas[s] = tile;
+    placed[tile] = true;
+    int last = unplaced[--unplacedCount], at = unplacedIndex[tile];
+    unplaced[at] = last;
+    unplacedIndex[last] = at;
+    int r = s / cw, c = s % cw;
+    minR = Math.min(minR, r); maxR = Math.max(maxR, r);
+    minC = Math.min(minC, c); maxC = Math.max(maxC, c);
+
+    // Buang s dari frontier; tetangga kosong masuk frontier dan cache-nya basi.
+    for (int f = 0; f < frontierCount; f++) {
+      if (frontier[f] == s) { frontier[f] = frontier[--frontierCount]; break; }
+    }
+    inFrontier[s] = false;
+    if (c > 0) touch(s - 1);
+    if (c + 1 < cw) touch(s + 1);
+    if (r > 0) touch(s - cw);
+    if (r + 1 < ch) touch(s + cw);
+  }
+
+  private void touch(int s) {
+    if (canvas[s] >= 0) return;
+    slotTile[s] = -1;
+    if (!inFrontier[s]) {
+      inFrontier[s] = true;
+      frontier[frontierCount++] = s;
+    }
+  }
+
+  /** Cari tile belum terpasang terbaik untuk slot s terhadap tetangganya yang sudah terpasang. */
+  private void evaluate(int s) {
+    int r = s / cw, c = s % cw;
+    int left = c > 0 ? canvas[s - 1] : -1;
+    int right = c + 1 < cw ? canvas[s + 1] : -1;
+    int up = r > 0 ? canvas[s - cw] : -1;
+    int down = r + 1 < ch ? canvas[s + cw] : -1;
+    int neighbors = (left >= 0 ? 1 : 0) + (right >= 0 ? 1 : 0) + (up >= 0 ? 1 : 0) + (down >= 0 ? 1 : 0);
+
+    slotTile[s] = -1;
+    slotNeighbors[s] = neighbors;
+    if (t.h.isSparse() && t.v.isSparse()) {
+      // Hanya kandidat tetangga; tile lain bernilai penalti. Bila semuanya sudah terpasang, scan penuh.
+      int k = t.h.candidateCount();
+      for (int i = 0; i < k; i++) {
+        if (left >= 0) consider(s, t.h.nextCandidate(left, i), left, right, up, down);
+        if (right >= 0) consider(s, t.h.prevCandidate(right, i), left, right, up, down);
+        if (up >= 0) consider(s, t.v.nextCandidate(up, i), left, right, up, down);
+        if (down >= 0) consider(s, t.v.prevCandidate(down, i), left, right, up, down);
+      }
+      if (slotTile[s] >= 0) return;
+    }
+    for (int i = 0; i < unplacedCount; i++) consider(s, unplaced[i], left, right, up, down);
+  }
+
+  /** Bandingkan tile b dengan kandidat slot s saat ini (tile terpasang dilewati). */
+  private void consider(int s, int b, int left, int right, int up, int down) {
+    if (placed[b]) return;
+    long cost = 0;
+    boolean buddy = true;
+    if (left >= 0) { cost += t.h.get(left, b); buddy &= buddies(left, RIGHT, b); }
+    if (right >= 0) { cost += t.h.get(b, right); buddy &= buddies(right, LEFT, b); }
+    if (up >= 0) { cost += t.v.get(up, b); buddy &= buddies(up, DOWN, b); }
+    if (down >= 0) { cost += t.v.get(b, down); buddy &= buddies(down, UP, b); }
+    if (slotTile[s] < 0 || (buddy && !slotBuddy[s]) || (buddy == slotBuddy[s] && cost < slotCost[s])) {
+      slotTile[s] = b;
+      slotCost[s] = cost;
+      slotBuddy[s] = buddy;
+    }
+  }
+
+  /** Urutan prioritas slot: buddy mutual, tetangga terbanyak, biaya rata-rata terkecil. */
+  private boolean better(int s, int o) {
+    if (slotBuddy[s] != slotBuddy[o]) return slotBuddy[s];
+    if (slotNeighbors[s] != slotNeighbors[o]) return slotNeighbors[s] > slotNeighbors[o];
+    // Bandingkan rata-rata tanpa pembagian: cost_s/nb_s < cost_o/nb_o
+    return slotCost[s] * slotNeighbors[o] < slotCost[o] * slotNeighbors[s];
+  }
+}
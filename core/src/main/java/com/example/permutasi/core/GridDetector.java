@@ -0,0 +1,179 @@
+package com.example.permutasi.core;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Tebak rows/cols dari gambar teracak. Batas tile meninggalkan lonjakan gradien di sepanjang
+ * satu kolom/baris penuh yang berulang tiap lebar/tinggi tile. Profil gradien per kolom dan per
+ * baris dihitung sekali (satu lintasan band), lalu tiap jumlah tile kandidat diberi skor korelasi
+ * sisir: profil di posisi batas dibanding di luar batas.
+ */
+public final class GridDetector {
+  /** Jumlah tile maksimum per sumbu yang dicoba bila tidak ditentukan. */
+  public static final int DEFAULT_MAX_COUNT = 128;
+  /** Tebakan per sumbu yang dikembalikan (terbaik dulu). */
+  public static final int MAX_GUESSES = 3;
+  /** Sisi terpanjang level pyramid yang dipindai; gambar lebih besar dibaca di-sample. */
+  static final int MAX_SIDE = 2048;
+  /** Lebar/tinggi tile minimal (px level) supaya batas tetangga tidak saling menutupi. */
+  static final int MIN_TILE_SIDE = 4;
+  /** Kelipatan dari tebakan terbaik dipilih bila skornya setidaknya sebesar ini (relatif). */
+  static final double MULTIPLE_RATIO = 0.8;
+
+  private GridDetector() {}
+
+  /** Satu tebakan jumlah tile di satu sumbu; {@code confidence} di [0, 1]. */
+  public static final class Guess {
+    public final int count;
+    public final double confidence;
+
+    Guess(int count, double confidence) {
+      this.count = count;
+      this.confidence = confidence;
+    }
+  }
+
+  /** Hasil deteksi; tebakan per sumbu terurut, elemen 0 = usulan. */
+  public static final class Result {
+    public final Guess[] rows, cols;
+
+    Result(Guess[] rows, Guess[] cols) {
+      this.rows = rows;
+      this.cols = cols;
+    }
+
+    public int rows() { return rows[0].count; }
+
+    public int cols() { return cols[0].count; }
+
+    /** Keyakinan gabungan (yang terlemah dari dua sumbu). */
+    public double confidence() { return Math.min(rows[0].confidence, cols[0].confidence); }
+  }
+
+  /** Deteksi dari pyramid; level dipilih supaya sisi terpanjang <= {@link #MAX_SIDE}. */
+  public static Result detect(ImagePyramid src, int maxCount) throws IOException {
+    int s = 1;
+    while (Math.max(src.getWidth(), src.getHeight()) / s > MAX_SIDE) s *= 2;
+    return detect(src.level(s), src.getWidth(), src.getHeight(), maxCount);
+  }
+
+  /**
+   * Deteksi dari {@code level}, yaitu gambar {@code fullW×fullH} yang mungkin diperkecil. Batas tile
+   * dihitung di resolusi penuh (tile = full/count, sisa dibuang seperti {@link TileEdges}).
+   */
+  public static Result detect(PixelSource level, int fullW, int fullH, int maxCount) {
+    if (maxCount < 2) throw new IllegalArgumentException("maxCount harus >= 2");
+    final int w = level.getWidth(), h = level.getHeight();
+    long[] colProfile = new long[w], rowProfile = new long[h];
+    profiles(level, colProfile, rowProfile);
+    return new Result(
+        guesses(rowProfile, (double) h / fullH, fullH, maxCount),
+        guesses(colProfile, (double) w / fullW, fullW, maxCount));
+  }
+
+  /**
+   * profile[x] = jumlah selisih RGB (L1) antara kolom x-1 dan x di semua baris; sama untuk baris.
+   * Dibaca per band {@link TileEdges#BAND_PIXELS}.
+   */
+  private static void profiles(PixelSource src, long[] colProfile, long[] rowProfile) {
+    final int w = src.getWidth(), h = src.getHeight();
+    final int lines = Math.max(1, Math.min(h, TileEdges.BAND_PIXELS / Math.max(1, w)));
+    int[] buf = new int[w * lines], prev = new int[w];
+    for (int y0 = 0; y0 < h; y0 += lines) {
+      int k = Math.min(lines, h - y0);
+      src.getPixels(buf, 0, w, 0, y0, w, k);
+      for (int l = 0; l < k; l++) {
+        int row = l * w, y = y0 + l;
+        int p = buf[row];
+        for (int x = 1; x < w; x++) {
+          int q = buf[row + x];
+          colProfile[x] += diff(p, q);
+          p = q;
+        }
+        if (y > 0) {
+          long sum = 0;
+          for (int x = 0; x < w; x++) sum += diff(prev[x], buf[row + x]);
+          rowProfile[y] = sum;
+        }
+        System.arraycopy(buf, row, prev, 0, w);
+      }
+    }
+  }
+
+  private static int diff(int p, int q) {
+    return Math.abs(((p >> 16) & 0xFF) - ((q >> 16) & 0xFF))
+        + Math.abs(((p >> 8) & 0xFF) - ((q >> 8) & 0xFF))
+        + Math.abs((p & 0xFF) - (q & 0xFF));
+  }
+
+  /** Skor semua jumlah tile 2..maxCount di satu sumbu; {@code scale} = px level per px penuh. */
+  private static Guess[] guesses(long[] profile, double scale, int fullLen, int maxCount) {
+    final int len = profile.length;
+    // Level di-sample: batas bisa jatuh di antara dua piksel level, jadi ambil puncak ±1.
+    final int tol = scale < 1 ? 1 : 0;
+    long total = 0;
+    for (long v : profile) total += v;
+    int[] stamp = new int[len];
+    double[] score = new double[maxCount + 1];
+    int best = 0;
+    for (int c = 2; c <= maxCount; c++) {
+      int tile = fullLen / c;
+      if (tile * scale < MIN_TILE_SIDE) break;
+      double on = 0;
+      long marked = 0;
+      int markedCount = 0;
+      long[] peaks = new long[c - 1];
+      for (int j = 1; j < c; j++) {
+        int p = (int) Math.round(j * tile * scale);
+        long peak = 0;
+        for (int x = Math.max(1, p - tol); x <= Math.min(len - 1, p + tol); x++) {
+          peak = Math.max(peak, profile[x]);
+          if (stamp[x] != c) {
+            stamp[x] = c;
+            marked += profile[x];
+            markedCount++;
+          }
+        }
+        peaks[j - 1] = peak;
+        on += peak;
+      }
+      on /= c - 1;
+      // Posisi 0 tidak punya tetangga kiri/atas, jadi tidak ikut latar.
+      int offCount = len - 1 - markedCount;
+      if (offCount <= 0) break;
+      double off = (double) (total - marked) / offCount;
+      if (on + off <= 0) continue;
+      int hits = 0;
+      for (long peak : peaks) if (peak > 2 * off) hits++;
+      double contrast = Math.max(0, (on - off) / (on + off));
+      score[c] = contrast * hits / (c - 1);
+      if (best == 0 || score[c] > score[best]) best = c;
+    }
+    if (best == 0 || score[best] <= 0) return new Guess[] {new Guess(1, 0)};
+
+    // Pembagi dari jumlah asli juga jatuh tepat di batas; ambil kelipatan terbesar yang masih kuat.
+    int chosen = best;
+    for (int c = 2 * best; c <= maxCount; c += best) {
+      if (score[c] >= MULTIPLE_RATIO * score[best]) chosen = c;
+    }
+    // Jumlah dengan lebar tile sama memberi batas yang sama; ambil yang sisanya paling kecil.
+    chosen = Math.max(chosen, Math.min(maxCount, fullLen / (fullLen / chosen)));
+
+    // Usulan di depan; sisanya urut skor turun.
+    Integer[] order = new Integer[maxCount - 2];
+    for (int c = 2, i = 0; c <= maxCount; c++) if (c != chosen) order[i++] = c;
+    Arrays.sort(order, (a, b) -> Double.compare(score[b], score[a]));
+    Guess[] out = new Guess[MAX_GUESSES];
+    out[0] = new Guess(chosen, score[chosen]);
+    int m = 1;
+    for (int i = 0; i < order.length && m < MAX_GUESSES; i++) {
+      int c = order[i];
+      if (score[c] <= 0) break;
+      boolean sameTile = false;
+      for (int j = 0; j < m; j++) sameTile |= fullLen / out[j].count == fullLen / c;
+      if (!sameTile) out[m++] = new Guess(c, score[c]);
+    }
+    return Arrays.copyOf(out, m);
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.permutasi.core;
+
+import java.io.IOException;
+
+/**
+ * Gambar sumber yang bisa dibaca pada resolusi lebih kecil (faktor pangkat dua, seperti
+ * {@code inSampleSize}). Tabel biaya cukup dibangun dari level kecil; resolusi penuh hanya
+ * dibutuhkan untuk reconstruct akhir.
+ */
+public interface ImagePyramid {
+  /** Lebar resolusi penuh. */
+  int getWidth();
+
+  /** Tinggi resolusi penuh. */
+  int getHeight();
+
+  /**
+   * Level dengan sisi kira-kira 1/{@code sampleSize} (piksel level x ≈ piksel penuh x·sampleSize; ukuran
+   * boleh dibulatkan decoder); {@code sampleSize} = 1 berarti resolusi penuh.
+   */
+  PixelSource level(int sampleSize) throws IOException;
+
+  /**
+   * Sample size terbesar (pangkat dua) yang masih menyisakan sisi tile minimal {@code minTileSide}
+   * piksel utuh di level tersebut (lihat {@link TileEdges#extract(PixelSource, int, int, int, int, int)});
+   * {@code minTileSide <= 0} = selalu 1.
+   */
+  static int chooseSampleSize(int width, int height, int rows, int cols, int minTileSide) {
+    if (minTileSide <= 0) return 1;
+    int tileW = width / cols, tileH = height / rows;
+    int s = 1;
+    while (Math.min(levelTileSide(tileW, s * 2), levelTileSide(tileH, s * 2)) >= minTileSide) s *= 2;
+    return s;
+  }
+
+  /**
+   * Batas bawah sisi tile (piksel level yang seluruhnya di dalam tile) untuk tile {@code tile} piksel
+   * penuh di level 1/{@code s}: batas tile yang bukan kelipatan s jatuh di tengah piksel level.
+   */
+  static int levelTileSide(int tile, int s) {
+    return tile % s == 0 ? tile / s : tile / s - 1;
+  }
+
+  /** Pyramid dari raster di memori; level dibuat dengan rata-rata kotak {@link ArgbRaster#downsample}. */
+  static ImagePyramid of(final ArgbRaster full) {
+    return new ImagePyramid() {
+      @Override public int getWidth() { return full.getWidth(); }
+
+      @Override public int getHeight() { return full.getHeight(); }
+
+      @Override public PixelSource level(int sampleSize) {
+        return sampleSize <= 1 ? full : full.downsample(sampleSize);
+      }
+    };
+  }
+}
@@ -0,0 +1,334 @@
+package com.example.permutasi.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Antrean job dengan slot terbatas (jumlah core) dan anggaran memori. Dua prioritas:
+ * <ul>
+ *   <li>{@link Priority#INTERACTIVE} (decode, preview, simpan): jalan satu per satu berurutan seperti
+ *   executor tunggal, dan selalu langsung dapat slot. Bila slot penuh, satu job batch yang sedang
+ *   menjalankan {@link SolverSession} dijeda (preempt) sampai ada slot lagi; bila tidak ada yang bisa
+ *   dijeda, dipakai satu slot cadangan.</li>
+ *   <li>{@link Priority#BATCH} (solve): FIFO, mulai bila ada slot dan perkiraan memorinya masih muat
+ *   (satu job selalu boleh jalan).</li>
+ * </ul>
+ * Job yang dijeda pengguna ({@link Job#pause}) melepas slotnya; memori baru dilepas saat job selesai.
+ */
+public final class JobScheduler {
+  public enum Priority { INTERACTIVE, BATCH }
+
+  public enum State { QUEUED, RUNNING, PREEMPTED, PAUSED, DONE, FAILED, CANCELLED }
+
+  /** Isi job; jalan di thread worker. Panggil {@link Job#attach} untuk sesi solver supaya bisa dijeda. */
+  public interface Work<T> {
+    T run(Job<T> job) throws Exception;
+  }
+
+  /** Perubahan state atau progres job; dipanggil dari thread worker, jangan memblok. */
+  public interface Listener {
+    void onJobChanged(Job<?> job);
+  }
+
+  private final int maxConcurrent;
+  private final long memoryBudget;
+  private final ExecutorService threads = Executors.newCachedThreadPool(r -> {
+    Thread t = new Thread(r, "job-worker");
+    t.setDaemon(true);
+    return t;
+  });
+  private final ArrayDeque<Job<?>> interactiveQueue = new ArrayDeque<>(), batchQueue = new ArrayDeque<>();
+  /** Job batch yang di-preempt, dilanjutkan lebih dulu dari job baru. */
+  private final ArrayDeque<Job<?>> preempted = new ArrayDeque<>();
+  /** Semua job yang pernah disubmit (untuk daftar di UI), urut id. */
+  private final List<Job<?>> jobs = new ArrayList<>();
+  /** Job yang memegang slot, urut mulai. */
+  private final List<Job<?>> running = new ArrayList<>();
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private final List<Job<?>> changed = new ArrayList<>();
+  private int interactiveRunning;
+  private long memoryInUse;
+  private long nextId = 1;
+  private boolean shutdown;
+
+  public JobScheduler(int maxConcurrent, long memoryBudget) {
+    if (maxConcurrent <= 0) throw new IllegalArgumentException("maxConcurrent harus > 0");
+    if (memoryBudget <= 0) throw new IllegalArgumentException("memoryBudget harus > 0");
+    this.maxConcurrent = maxConcurrent;
+    this.memoryBudget = memoryBudget;
+  }
+
+  /** Slot default: jumlah core. */
+  public static int defaultConcurrency() { return Math.max(1, Runtime.getRuntime().availableProcessors()); }
+
+  /** Anggaran memori default: setengah heap maksimum. */
+  public static long defaultMemoryBudget() { return Runtime.getRuntime().maxMemory() / 2; }
+
+  public int maxConcurrent() { return maxConcurrent; }
+
+  /** Antrekan job; {@code memoryBytes} = perkiraan memori puncak (0 bila kecil). */
+  public <T> Job<T> submit(String name, Priority priority, long memoryBytes, Work<T> work) {
+    Job<T> job;
+    synchronized (this) {
+      if (shutdown) throw new IllegalStateException("Scheduler sudah dimatikan");
+      job = new Job<>(nextId++, name, priority, Math.max(0, memoryBytes), work);
+      jobs.add(job);
+      (priority == Priority.INTERACTIVE ? interactiveQueue : batchQueue).add(job);
+      changed.add(job);
+      schedule();
+    }
+    fireChanged();
+    return job;
+  }
+
+  /** Salinan daftar job (termasuk yang sudah selesai). */
+  public synchronized List<Job<?>> jobs() { return new ArrayList<>(jobs); }
+
+  /** Buang job yang sudah selesai/gagal/batal dari {@link #jobs()}. */
+  public synchronized void clearFinished() {
+    for (int i = jobs.size() - 1; i >= 0; i--) if (jobs.get(i).isDone()) jobs.remove(i);
+  }
+
+  public void addListener(Listener l) { listeners.add(l); }
+
+  public void removeListener(Listener l) { listeners.remove(l); }
+
+  /** Batalkan semua job lalu hentikan thread worker (setelah job berjalan berhenti). */
+  public void shutdown() {
+    List<Job<?>> all;
+    synchronized (this) {
+      shutdown = true;
+      all = new ArrayList<>(jobs);
+    }
+    for (Job<?> j : all) j.cancel();
+    threads.shutdown();
+  }
+
+  // ===== penjadwalan (dipanggil dengan lock) =====
+
+  private void schedule() {
+    if (shutdown) return;
+    if (interactiveRunning == 0 && !interactiveQueue.isEmpty()) {
+      if (running.size() >= maxConcurrent) preemptOne();
+      start(interactiveQueue.poll());
+    }
+    while (running.size() < maxConcurrent) {
+      Job<?> p = preempted.poll();
+      if (p != null) {
+        p.state = State.RUNNING;
+        running.add(p);
+        p.session.resume();
+        changed.add(p);
+        continue;
+      }
+      Job<?> next = batchQueue.peek();
+      if (next == null || (memoryInUse > 0 && memoryInUse + next.memoryBytes > memoryBudget)) break;
+      start(batchQueue.poll());
+    }
+  }
+
+  /** Jeda job batch yang paling baru mulai dan sedang menjalankan sesi. */
+  private boolean preemptOne() {
+    for (int i = running.size() - 1; i >= 0; i--) {
+      Job<?> j = running.get(i);
+      if (j.priority == Priority.BATCH && j.session != null && !j.cancelRequested) {
+        j.session.pause();
+        j.state = State.PREEMPTED;
+        running.remove(i);
+        preempted.add(j);
+        changed.add(j);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private <T> void start(final Job<T> job) {
+    job.state = State.RUNNING;
+    running.add(job);
+    if (job.priority == Priority.INTERACTIVE) interactiveRunning++;
+    memoryInUse += job.memoryBytes;
+    changed.add(job);
+    threads.execute(() -> execute(job));
+  }
+
+  private <T> void execute(Job<T> job) {
+    T result = null;
+    Throwable error = null;
+    try {
+      result = job.work.run(job);
+    } catch (Throwable t) {
+      error = t;
+    }
+    synchronized (this) {
+      releaseSlot(job);
+      preempted.remove(job);
+      memoryInUse -= job.memoryBytes;
+      job.result = result;
+      job.error = error;
+      job.state = error != null ? State.FAILED : job.cancelRequested ? State.CANCELLED : State.DONE;
+      if (job.state == State.DONE) job.progress = 100;
+      job.session = null;
+      changed.add(job);
+      schedule();
+    }
+    fireChanged();
+  }
+
+  private void releaseSlot(Job<?> job) {
+    if (running.remove(job) && job.priority == Priority.INTERACTIVE) interactiveRunning--;
+  }
+
+  private void fireChanged() {
+    List<Job<?>> batch;
+    synchronized (this) {
+      if (changed.isEmpty()) return;
+      batch = new ArrayList<>(changed);
+      changed.clear();
+    }
+    for (Job<?> j : batch) fire(j);
+  }
+
+  private void fire(Job<?> job) {
+    for (Listener l : listeners) l.onJobChanged(job);
+  }
+
+  /** Satu job di antrean. Progres diisi lewat {@link #report} atau {@link #progressListener}. */
+  public final class Job<T> {
+    public final long id;
+    public final String name;
+    public final Priority priority;
+    public final long memoryBytes;
+    private final Work<T> work;
+    private volatile State state = State.QUEUED;
+    private volatile double progress;
+    private volatile long energy = -1;
+    private volatile T result;
+    private volatile Throwable error;
+    private volatile SolverSession session;
+    private volatile boolean cancelRequested, held;
+
+    private Job(long id, String name, Priority priority, long memoryBytes, Work<T> work) {
+      this.id = id;
+      this.name = name;
+      this.priority = priority;
+      this.memoryBytes = memoryBytes;
+      this.work = work;
+    }
+
+    public State state() { return state; }
+
+    /** Persen selesai 0..100. */
+    public double progress() { return progress; }
+
+    /** Energi terakhir yang dilaporkan; -1 bila belum ada. */
+    public long energy() { return energy; }
+
+    /** Hasil {@link Work#run}; null sampai job selesai (job batal tetap punya hasil bila work mengembalikannya). */
+    public T result() { return result; }
+
+    public Throwable error() { return error; }
+
+    public boolean isCancelled() { return cancelRequested; }
+
+    public boolean isDone() {
+      State s = state;
+      return s == State.DONE || s == State.FAILED || s == State.CANCELLED;
+    }
+
+    /** Daftarkan sesi solver job ini supaya bisa di-preempt, dijeda, dan dibatalkan. */
+    public void attach(SolverSession s) {
+      synchronized (JobScheduler.this) {
+        session = s;
+        if (cancelRequested) s.cancel();
+        else if (held) holdLocked();
+      }
+      fireChanged();
+    }
+
+    /** Perbarui progres (persen) dan energi, lalu beri tahu listener. */
+    public void report(double donePct, long energy) {
+      this.progress = donePct;
+      this.energy = energy;
+      fire(this);
+    }
+
+    /** Listener untuk {@link SolverSession#run}: progres masuk ke job lalu diteruskan ke {@code forward} (boleh null). */
+    public PermutationAnnealer2D.ProgressListener progressListener(final PermutationAnnealer2D.ProgressListener forward) {
+      return new PermutationAnnealer2D.ProgressListener() {
+        @Override public void onStatus(long seconds, double donePct, long iter, double temperature, long e) {
+          report(donePct, e);
+          if (forward != null) forward.onStatus(seconds, donePct, iter, temperature, e);
+        }
+
+        @Override public void onPyramidLevel(int sampleSize, int levelWidth, int levelHeight) {
+          if (forward != null) forward.onPyramidLevel(sampleSize, levelWidth, levelHeight);
+        }
+
+        @Override public void onStopped(PermutationAnnealer2D.StopReason reason, long iteration, long bestEnergy) {
+          if (forward != null) forward.onStopped(reason, iteration, bestEnergy);
+        }
+
+        @Override public void onBest(int[] pos2tile, long bestEnergy) {
+          if (forward != null) forward.onBest(pos2tile, bestEnergy);
+        }
+      };
+    }
+
+    /** Jeda oleh pengguna: sesi dijeda dan slotnya dilepas untuk job lain. Berlaku setelah {@link #attach}. */
+    public void pause() {
+      synchronized (JobScheduler.this) {
+        held = true;
+        if (session != null) holdLocked();
+        schedule();
+      }
+      fireChanged();
+    }
+
+    /** Batalkan jeda pengguna; job menunggu slot lalu lanjut. */
+    public void resume() {
+      synchronized (JobScheduler.this) {
+        held = false;
+        if (state == State.PAUSED) {
+          state = State.PREEMPTED;
+          preempted.addFirst(this);
+          changed.add(this);
+        }
+        schedule();
+      }
+      fireChanged();
+    }
+
+    public boolean isPaused() { return held; }
+
+    /** Batalkan: job di antrean langsung dibuang, sesi yang berjalan dihentikan di batas chunk. */
+    public void cancel() {
+      synchronized (JobScheduler.this) {
+        cancelRequested = true;
+        if (state == State.QUEUED && (interactiveQueue.remove(this) || batchQueue.remove(this))) {
+          state = State.CANCELLED;
+          changed.add(this);
+        } else if (session != null) {
+          session.cancel();
+        }
+      }
+      fireChanged();
+    }
+
+    private void holdLocked() {
+      session.pause();
+      if (state == State.RUNNING) {
+        releaseSlot(this);
+        changed.add(this);
+      } else if (state == State.PREEMPTED) {
+        preempted.remove(this);
+        changed.add(this);
+      }
+      if (state == State.RUNNING || state == State.PREEMPTED) state = State.PAUSED;
+    }
+  }
+}
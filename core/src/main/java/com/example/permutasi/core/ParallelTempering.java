@@ -0,0 +1,68 @@
+package com.example.permutasi.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replica exchange: K rantai {@link AnnealChain} di tangga suhu (replika 0 = suhu jadwal,
+ * replika K-1 = {@link #LADDER_SPAN}× lebih panas), jalan paralel di atas tabel biaya yang
+ * sama. Tiap {@code exchangeInterval} iterasi, pasangan replika bertetangga ditukar dengan
+ * kriteria Metropolis. Loop dan state (rantai, RNG tukar, terbaik) dipegang {@link SolverSession};
+ * kelas ini hanya langkah per segmen.
+ */
+final class ParallelTempering {
+  /** Rasio suhu replika terpanas terhadap replika terdingin. */
+  static final double LADDER_SPAN = 4.0;
+
+  private ParallelTempering() {}
+
+  /** Pengali suhu per anak tangga. */
+  static double[] ladder(int k) {
+    double[] ladder = new double[k];
+    for (int i = 0; i < k; i++) ladder[i] = k > 1 ? Math.pow(LADDER_SPAN, (double) i / (k - 1)) : 1.0;
+    return ladder;
+  }
+
+  static ExecutorService newPool(int replicas, int parallelism) {
+    int threads = Math.min(replicas, CostTables.resolveParallelism(parallelism));
+    return Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "anneal-replica");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /** Jalankan satu segmen semua replika (chains[i] di anak tangga i), lalu coba tukar tetangga. */
+  static void segment(ExecutorService pool, AnnealChain[] chains, double[] ladder, long steps, double baseTemp,
+                      long segmentIndex, FastRandom exchangeRnd) {
+    final int k = chains.length;
+    List<Callable<Void>> tasks = new ArrayList<>(k);
+    for (int i = 0; i < k; i++) {
+      final AnnealChain chain = chains[i];
+      final double temperature = baseTemp * ladder[i];
+      tasks.add(() -> { chain.run(steps, temperature); return null; });
+    }
+    try {
+      for (Future<Void> f : pool.invokeAll(tasks)) f.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Annealing dibatalkan", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Annealing gagal", e.getCause());
+    }
+
+    // Tukar tetangga (genap/ganjil bergantian supaya tidak bias ke bawah tangga).
+    for (int i = (int) (segmentIndex & 1); i + 1 < k; i += 2) {
+      double x = (chains[i].energy - chains[i + 1].energy)
+          * (1.0 / (baseTemp * ladder[i]) - 1.0 / (baseTemp * ladder[i + 1]));
+      if (x >= 0 || exchangeRnd.nextDouble() < AnnealChain.fast2Pow(x)) {
+        AnnealChain tmp = chains[i]; chains[i] = chains[i + 1]; chains[i + 1] = tmp;
+      }
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package com.example.permutasi.core;
+
+import java.io.IOException;
+
+public final class PermutationAnnealer2D {
+
+  public interface ProgressListener {
+    void onStatus(long seconds, double donePct, long iter, double temperature, long energy);
+
+    /** Level pyramid yang dipakai untuk tabel biaya (1 = resolusi penuh); energi dilaporkan di level ini. */
+    default void onPyramidLevel(int sampleSize, int levelWidth, int levelHeight) {}
+
+    /** Run berhenti: alasan, iterasi terakhir, dan energi susunan terbaik yang dikembalikan. */
+    default void onStopped(StopReason reason, long iteration, long bestEnergy) {}
+
+    /**
+     * Susunan terbaik membaik sejak laporan terakhir (dipanggil bersama {@link #onStatus}). Array
+     * 0-based pos→tile hanya sah selama panggilan; salin bila perlu disimpan.
+     */
+    default void onBest(int[] pos2tile, long bestEnergy) {}
+  }
+
+  /** Alasan {@link SolverSession#run} berhenti. */
+  public enum StopReason {
+    /** Semua iterasi dijalankan. */
+    COMPLETED,
+    /** Energi terbaik tidak membaik selama {@link Options#stallIterations}. */
+    STALLED,
+    /** Energi terbaik <= {@link Options#targetEnergy}. */
+    TARGET_REACHED,
+    /** Waktu jalan (tanpa jeda) melewati {@link Options#timeBudgetMillis}. */
+    TIME_BUDGET,
+    /** Energi terbaik terbukti optimal ({@link ExactSolver} selesai atau batas bawah energi tercapai). */
+    OPTIMAL,
+    /** {@link SolverSession#cancel}; sesi masih bisa dilanjutkan dari checkpoint. */
+    CANCELLED
+  }
+
+  /**
+   * Parameter tambahan solver. Default-nya menyalakan langkah blok dan shift, tabel kandidat otomatis
+   * untuk grid besar, dan {@link ExactSolver} untuk grid kecil; tiap field menjelaskan nilai untuk mematikannya.
+   */
+  public static final class Options {
+    /** Thread untuk precompute tabel biaya; {@code <= 0} = semua core. Turunkan di device yang cepat panas. */
+    public int parallelism = 0;
+    /** Jumlah replika; {@code > 1} = parallel tempering (tiap replika menjalankan {@code iterations}). */
+    public int replicas = 1;
+    /** Iterasi per replika di antara dua percobaan tukar replika. */
+    public long exchangeInterval = 8192;
+    /** Jadwal pendinginan. */
+    public CoolingSchedule.Kind schedule = CoolingSchedule.Kind.LINEAR;
+    /** Suhu akhir / suhu awal untuk jadwal geometrik dan reheat. */
+    public double endTempRatio = 1e-3;
+    /** Reheat bila energi tidak membaik selama sekian iterasi. */
+    public long reheatStallIterations = 200_000;
+    /** Pengali suhu saat reheat. */
+    public double reheatFactor = 3.0;
+    /** True: abaikan startTemp, kalibrasi dari sampel delta swap di tabel biaya. */
+    public boolean autoTemperature = false;
+    /** Target rasio terima langkah naik di awal run untuk kalibrasi otomatis. */
+    public double targetAcceptance = 0.3;
+    /** True: mulai dari susunan {@link GreedyPlacer}, bukan identitas. */
+    public boolean greedyStart = false;
+    /** Bobot relatif langkah: swap dua tile, tukar dua blok, shift siklik segmen baris/kolom; 0 = jenis itu mati. */
+    public int swapWeight = 8, blockSwapWeight = 1, shiftWeight = 1;
+    /** Sisi maksimum blok yang ditukar; {@code <= 0} = setengah sisi grid terkecil. */
+    public int maxBlockSize = 0;
+    /**
+     * Untuk {@link ImagePyramid}: sisi tile minimal (piksel) di level yang dipilih untuk tabel biaya;
+     * {@code <= 0} = selalu resolusi penuh.
+     */
+    public int pyramidMinTileSide = 0;
+    /** Metrik kecocokan tepi untuk tabel biaya. */
+    public EdgeCost.Kind edgeCost = EdgeCost.Kind.L1;
+    /**
+     * Tabel kandidat: {@code > 0} = simpan hanya K tetangga termurah per tile dan arah (memori O(N·K));
+     * {@code 0} = otomatis ({@link #AUTO_CANDIDATES} bila tabel padat melebihi {@link #DENSE_TABLE_BYTES});
+     * {@code < 0} = selalu tabel padat.
+     */
+    public int candidateK = 0;
+    /** Bobot langkah kandidat (kandidat ditaruh di sebelah tile); hanya berlaku pada tabel kandidat. */
+    public int candidateWeight = 4;
+    /** Cache tabel biaya di disk; null = selalu hitung ulang. */
+    public CostTableCache tableCache = null;
+    /** Berhenti bila energi terbaik tidak membaik selama sekian iterasi; {@code <= 0} = mati. */
+    public long stallIterations = 0;
+    /** Berhenti bila energi terbaik <= nilai ini; {@code < 0} = mati. */
+    public long targetEnergy = -1;
+    /** Batas waktu jalan (ms, tanpa waktu jeda); {@code <= 0} = mati. */
+    public long timeBudgetMillis = 0;
+    /** Grid dengan tile sebanyak ini atau kurang diselesaikan dulu dengan {@link ExactSolver}; {@code 0} = mati. */
+    public int exactMaxTiles = ExactSolver.DEFAULT_MAX_TILES;
+    /** Batas node {@link ExactSolver}; lewat batas ini annealing meneruskan dari solusi terbaiknya. */
+    public long exactNodeLimit = ExactSolver.DEFAULT_NODE_LIMIT;
+    /** Telemetri run (waktu fase, statistik langkah, jejak energi); null = tidak dicatat. */
+    public SolverMetrics metrics = null;
+  }
+
+  /** Batas dua tabel padat (asumsi int) sebelum mode kandidat otomatis dipakai. */
+  public static final long DENSE_TABLE_BYTES = 256L << 20;
+  /** K untuk mode kandidat otomatis. */
+  public static final int AUTO_CANDIDATES = 16;
+
+  private PermutationAnnealer2D() {}
+
+  /** Jalankan annealing untuk menyusun grid tiles (rows×cols). Return permutasi 0-based panjang N=rows*cols. */
+  public static int[] solve(PixelSource src, int rows, int cols, long iterations, double startTemp,
+                            ProgressListener cb) {
+    return solve(src, rows, cols, iterations, startTemp, new Options(), cb);
+  }
+
+  /** Seperti {@link #solve(PixelSource, int, int, long, double, ProgressListener)} dengan {@link Options}. */
+  public static int[] solve(PixelSource src, int rows, int cols, long iterations, double startTemp,
+                            Options opts, ProgressListener cb) {
+    checkArgs(rows, cols, iterations, startTemp, opts);
+    // Strip tepi diekstrak sekali; biaya pasangan hanya membaca strip kontigu ini.
+    TileEdges edges = extractEdges(src, rows, cols, src.getWidth(), src.getHeight(), 1, opts);
+    return solve(buildTables(edges, opts), iterations, startTemp, opts, cb);
+  }
+
+  /**
+   * Seperti {@link #solve(PixelSource, int, int, long, double, Options, ProgressListener)}, tapi tabel
+   * biaya dibangun dari level pyramid terkecil yang masih memenuhi {@link Options#pyramidMinTileSide}.
+   */
+  public static int[] solve(ImagePyramid src, int rows, int cols, long iterations, double startTemp,
+                            Options opts, ProgressListener cb) throws IOException {
+    checkArgs(rows, cols, iterations, startTemp, opts);
+    return solve(buildTables(src, rows, cols, opts, cb), iterations, startTemp, opts, cb);
+  }
+
+  /** Annealing di atas tabel biaya yang sudah jadi (mis. untuk benchmark atau tabel yang dipakai ulang). */
+  public static int[] solve(CostTables tables, long iterations, double startTemp, Options opts,
+                            ProgressListener cb) {
+    return new SolverSession(tables, iterations, startTemp, opts).run(cb);
+  }
+
+  /** Susun grid hanya dengan {@link GreedyPlacer} (tanpa annealing); biasanya di bawah satu detik. */
+  public static int[] quickSolve(PixelSource src, int rows, int cols, Options opts) {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    TileEdges edges = extractEdges(src, rows, cols, src.getWidth(), src.getHeight(), 1, opts);
+    return GreedyPlacer.solve(buildTables(edges, opts));
+  }
+
+  /** {@link #quickSolve(PixelSource, int, int, Options)} dari level pyramid. */
+  public static int[] quickSolve(ImagePyramid src, int rows, int cols, Options opts, ProgressListener cb)
+      throws IOException {
+    return GreedyPlacer.solve(buildTables(src, rows, cols, opts, cb));
+  }
+
+  /** Tabel biaya dari level pyramid sesuai {@link Options#pyramidMinTileSide} (mis. untuk {@link SolverSession}). */
+  public static CostTables buildTables(ImagePyramid src, int rows, int cols, Options opts, ProgressListener cb)
+      throws IOException {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    final int w = src.getWidth(), h = src.getHeight();
+    int sampleSize = ImagePyramid.chooseSampleSize(w, h, rows, cols, opts.pyramidMinTileSide);
+    PixelSource level = src.level(sampleSize);
+    if (cb != null) cb.onPyramidLevel(sampleSize, level.getWidth(), level.getHeight());
+    return buildTables(extractEdges(level, rows, cols, w, h, sampleSize, opts), opts);
+  }
+
+  private static void checkArgs(int rows, int cols, long iterations, double startTemp, Options opts) {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    if (iterations <= 0) throw new IllegalArgumentException("iterations harus > 0");
+    if (!opts.autoTemperature && startTemp <= 0) throw new IllegalArgumentException("startTemp harus > 0");
+  }
+
+  /** Strip tepi dari {@code level} = gambar fullW×fullH diperkecil {@code sampleSize} kali. */
+  private static TileEdges extractEdges(PixelSource level, int rows, int cols, int fullW, int fullH, int sampleSize,
+                                        Options opts) {
+    long t0 = System.nanoTime();
+    TileEdges edges = TileEdges.extract(level, rows, cols, fullW, fullH, sampleSize);
+    if (opts.metrics != null) opts.metrics.addEdgeNanos(System.nanoTime() - t0);
+    return edges;
+  }
+
+  /** Tabel biaya padat atau kandidat sesuai {@link Options#candidateK}, lewat {@link Options#tableCache} bila ada. */
+  public static CostTables buildTables(TileEdges edges, Options opts) {
+    EdgeCost cost = EdgeCost.create(opts.edgeCost);
+    int k = candidateCount(edges.n, opts.candidateK);
+    long t0 = System.nanoTime();
+    CostTables tables;
+    if (opts.tableCache != null) tables = opts.tableCache.getOrBuild(edges, cost, k, opts.parallelism);
+    else if (k > 0) tables = CostTables.buildSparse(edges, cost, k, opts.parallelism);
+    else tables = CostTables.build(edges, cost, opts.parallelism);
+    if (opts.metrics != null) opts.metrics.addTableNanos(System.nanoTime() - t0);
+    return tables;
+  }
+
+  /** K efektif untuk n tile; 0 = tabel padat. */
+  public static int candidateCount(int n, int candidateK) {
+    if (candidateK != 0) return Math.max(0, candidateK);
+    return 8L * n * n > DENSE_TABLE_BYTES ? AUTO_CANDIDATES : 0;
+  }
+
+  /** Perkiraan atas memori dua tabel biaya untuk n tile (untuk anggaran memori {@link JobScheduler}). */
+  public static long estimateTableBytes(int n, int candidateK) {
+    int k = candidateCount(n, candidateK);
+    // Kandidat: 4 daftar n*k int + indeks hash <= 8nk slot (long + int); padat: int n*n.
+    return k > 0 ? 2 * 112L * n * k : 2 * 4L * n * n;
+  }
+
+  /** Bangun raster hasil dari permutasi 0-based (panjang rows*cols), pos row-major. */
+  public static ArgbRaster reconstruct(ArgbRaster src, int rows, int cols, int[] perm0) {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    if (perm0 == null || perm0.length != rows*cols) throw new IllegalArgumentException("perm length mismatch");
+    TilePermuter.checkPermutation(perm0);
+    ArgbRaster out = new ArgbRaster(src.getWidth(), src.getHeight());
+    TilePermuter.copyTiles(src.pixels(), out.pixels(), src.getWidth(), src.getHeight(), rows, cols, perm0);
+    return out;
+  }
+}
@@ -0,0 +1,158 @@
+package com.example.permutasi.core;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Format biner ringkas untuk menyimpan dan membagikan hasil: magic {@code "PPM1"}, versi, rows, cols,
+ * lalu id tile 0-based per posisi row-major, semua sebagai varint tak bertanda (7 bit per byte), dan
+ * CRC32 big-endian dari semua byte sebelumnya. Grid 100×100 muat di ±20 KB (teks ±50 KB).
+ * Permutasi divalidasi saat baca dan tulis.
+ */
+public final class PermutationFile {
+  private static final int MAGIC = 0x50504d31; // "PPM1"
+  private static final int VERSION = 1;
+  /** Batas jumlah tile saat baca; mencegah alokasi raksasa dari file rusak. */
+  private static final int MAX_TILES = 1 << 24;
+  private static final int BUFFER = 1 << 16;
+
+  /** Permutasi yang dibaca beserta ukuran grid-nya. */
+  public static final class Permutation {
+    public final int rows, cols;
+    /** 0-based pos→tile. */
+    public final int[] pos2tile;
+
+    Permutation(int rows, int cols, int[] pos2tile) {
+      this.rows = rows;
+      this.cols = cols;
+      this.pos2tile = pos2tile;
+    }
+  }
+
+  private PermutationFile() {}
+
+  /** Tulis {@code perm0} (0-based, panjang rows*cols) ke {@code out}; stream tidak ditutup. */
+  public static void write(OutputStream out, int[] perm0, int rows, int cols) throws IOException {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    if (perm0 == null || perm0.length != rows * cols) throw new IllegalArgumentException("perm length mismatch");
+    TilePermuter.checkPermutation(perm0);
+    CRC32 crc = new CRC32();
+    byte[] buf = new byte[BUFFER];
+    int pos = 0;
+    buf[pos++] = (byte) (MAGIC >>> 24);
+    buf[pos++] = (byte) (MAGIC >>> 16);
+    buf[pos++] = (byte) (MAGIC >>> 8);
+    buf[pos++] = (byte) MAGIC;
+    pos = putVarint(buf, pos, VERSION);
+    pos = putVarint(buf, pos, rows);
+    pos = putVarint(buf, pos, cols);
+    for (int t : perm0) {
+      if (pos > BUFFER - 5) {
+        crc.update(buf, 0, pos);
+        out.write(buf, 0, pos);
+        pos = 0;
+      }
+      pos = putVarint(buf, pos, t);
+    }
+    crc.update(buf, 0, pos);
+    int sum = (int) crc.getValue();
+    if (pos > BUFFER - 4) {
+      out.write(buf, 0, pos);
+      pos = 0;
+    }
+    buf[pos++] = (byte) (sum >>> 24);
+    buf[pos++] = (byte) (sum >>> 16);
+    buf[pos++] = (byte) (sum >>> 8);
+    buf[pos++] = (byte) sum;
+    out.write(buf, 0, pos);
+    out.flush();
+  }
+
+  /** Baca satu permutasi dari {@code in}; IOException bila bukan file ini, rusak, atau bukan permutasi. */
+  public static Permutation read(InputStream in) throws IOException {
+    Source s = new Source(in);
+    if (s.readInt() != MAGIC) throw new IOException("Bukan file permutasi");
+    int version = s.readVarint();
+    if (version != VERSION) throw new IOException("Versi file permutasi tidak didukung: " + version);
+    int rows = s.readVarint(), cols = s.readVarint();
+    if (rows <= 0 || cols <= 0 || (long) rows * cols > MAX_TILES) {
+      throw new IOException("Ukuran grid tidak valid: " + rows + "x" + cols);
+    }
+    int[] perm0 = new int[rows * cols];
+    for (int i = 0; i < perm0.length; i++) perm0[i] = s.readVarint();
+    int expected = (int) s.checksum();
+    if (s.readInt() != expected) throw new IOException("Checksum file permutasi salah");
+    try {
+      TilePermuter.checkPermutation(perm0);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Permutasi tidak valid: " + e.getMessage());
+    }
+    return new Permutation(rows, cols, perm0);
+  }
+
+  /** True bila {@code head} (paling sedikit 4 byte awal) cocok dengan magic format ini. */
+  public static boolean looksLike(byte[] head) {
+    return head.length >= 4 && ((head[0] & 0xff) << 24 | (head[1] & 0xff) << 16 | (head[2] & 0xff) << 8
+        | (head[3] & 0xff)) == MAGIC;
+  }
+
+  private static int putVarint(byte[] buf, int pos, int v) {
+    while ((v & ~0x7f) != 0) {
+      buf[pos++] = (byte) ((v & 0x7f) | 0x80);
+      v >>>= 7;
+    }
+    buf[pos++] = (byte) v;
+    return pos;
+  }
+
+  /** Buffer baca dengan CRC atas byte yang sudah dipakai. */
+  private static final class Source {
+    private final InputStream in;
+    private final byte[] buf = new byte[BUFFER];
+    private final CRC32 crc = new CRC32();
+    private int pos, limit;
+
+    Source(InputStream in) { this.in = in; }
+
+    int readByte() throws IOException {
+      if (pos == limit) {
+        crc.update(buf, 0, limit);
+        pos = limit = 0;
+        int k = in.read(buf, 0, buf.length);
+        if (k <= 0) throw new EOFException("File permutasi terpotong");
+        limit = k;
+      }
+      return buf[pos++] & 0xff;
+    }
+
+    int readVarint() throws IOException {
+      int v = 0;
+      for (int shift = 0; shift < 35; shift += 7) {
+        int b = readByte();
+        v |= (b & 0x7f) << shift;
+        if ((b & 0x80) == 0) {
+          if (v < 0) break;
+          return v;
+        }
+      }
+      throw new IOException("Varint tidak valid");
+    }
+
+    int readInt() throws IOException {
+      return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+    }
+
+    /** CRC32 byte yang sudah dibaca sejauh ini. */
+    long checksum() {
+      crc.update(buf, 0, pos);
+      // Byte yang sudah dihitung tidak boleh dihitung lagi saat buffer diisi ulang.
+      System.arraycopy(buf, pos, buf, 0, limit - pos);
+      limit -= pos;
+      pos = 0;
+      return crc.getValue();
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package com.example.permutasi.core;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Format teks permutasi 1-based {@code [a,b,c;d,e,f;...]} (baris dipisah ';'). Penulis dan parser
+ * bekerja per karakter di buffer tetap: tanpa split, substring, atau boxing, jadi grid 100×100+
+ * tetap cepat. Hasil parse selalu divalidasi sebagai permutasi (id ganda / di luar rentang ditolak).
+ */
+public final class PermutationText {
+  /** Ukuran buffer karakter untuk baca/tulis stream. */
+  private static final int BUFFER = 8192;
+
+  private PermutationText() {}
+
+  public static String formatPermutationMatrix1Based(int[] perm0, int rows, int cols) {
+    checkShape(perm0, rows, cols);
+    // Panjang pasti: angka + n-1 pemisah + dua kurung.
+    int len = perm0.length + 1;
+    for (int t : perm0) len += digits(t + 1);
+    char[] out = new char[len];
+    int pos = 0;
+    out[pos++] = '[';
+    for (int i = 0; i < perm0.length; i++) {
+      if (i > 0) out[pos++] = i % cols == 0 ? ';' : ',';
+      pos = putInt(out, pos, perm0[i] + 1);
+    }
+    out[pos] = ']';
+    return new String(out);
+  }
+
+  /** Tulis format {@link #formatPermutationMatrix1Based} ke {@code out} bertahap (tanpa String utuh). */
+  public static void write(Writer out, int[] perm0, int rows, int cols) throws IOException {
+    checkShape(perm0, rows, cols);
+    char[] buf = new char[BUFFER];
+    int pos = 0;
+    buf[pos++] = '[';
+    for (int i = 0; i < perm0.length; i++) {
+      if (pos > BUFFER - 12) {
+        out.write(buf, 0, pos);
+        pos = 0;
+      }
+      if (i > 0) buf[pos++] = i % cols == 0 ? ';' : ',';
+      pos = putInt(buf, pos, perm0[i] + 1);
+    }
+    buf[pos++] = ']';
+    out.write(buf, 0, pos);
+  }
+
+  /** Parse teks 1-based ke array panjang rows*cols (tetap 1-based). Format: [a,b,c;d,e,f;...] */
+  public static int[] parsePermutation1Based(CharSequence text, int rows, int cols) {
+    int[] perm = parse(text, rows, cols);
+    for (int i = 0; i < perm.length; i++) perm[i]++;
+    return perm;
+  }
+
+  /** Parse teks 1-based; return permutasi 0-based pos→tile yang sudah divalidasi. */
+  public static int[] parse(CharSequence text, int rows, int cols) {
+    try {
+      return new Parser(null, text).parse(rows, cols);
+    } catch (IOException e) {
+      throw new IllegalStateException(e); // CharSequence tidak melempar IOException
+    }
+  }
+
+  /** Seperti {@link #parse(CharSequence, int, int)} tapi membaca {@code in} bertahap. */
+  public static int[] read(Reader in, int rows, int cols) throws IOException {
+    return new Parser(in, null).parse(rows, cols);
+  }
+
+  private static void checkShape(int[] perm0, int rows, int cols) {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    if (perm0 == null || perm0.length != rows * cols) throw new IllegalArgumentException("perm length mismatch");
+  }
+
+  private static int digits(int v) {
+    int d = 1;
+    while (v >= 10) {
+      v /= 10;
+      d++;
+    }
+    return d;
+  }
+
+  /** Tulis {@code v >= 0} desimal di {@code buf[pos..]}; return posisi sesudahnya. */
+  private static int putInt(char[] buf, int pos, int v) {
+    int end = pos + digits(v);
+    for (int i = end - 1; i >= pos; i--) {
+      buf[i] = (char) ('0' + v % 10);
+      v /= 10;
+    }
+    return end;
+  }
+
+  /** Parser satu lintasan dari Reader atau CharSequence lewat buffer karakter tetap. */
+  private static final class Parser {
+    private static final int EOF = -1;
+    private final Reader in;
+    private final CharSequence seq;
+    private final char[] buf = new char[BUFFER];
+    private int pos, limit, seqPos;
+
+    Parser(Reader in, CharSequence seq) {
+      this.in = in;
+      this.seq = seq;
+    }
+
+    int[] parse(int rows, int cols) throws IOException {
+      if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+      final int n = rows * cols;
+      int[] perm0 = new int[n];
+      long[] seen = new long[(n + 63) >>> 6];
+      skipSpace();
+      if (peek() == '[') pos++;
+      for (int r = 0; r < rows; r++) {
+        for (int c = 0; c < cols; c++) {
+          skipSpace();
+          int t = readNumber(n, r, c) - 1;
+          long bit = 1L << t;
+          if ((seen[t >>> 6] & bit) != 0) {
+            throw new IllegalArgumentException("Tile " + (t + 1) + " muncul dua kali (baris " + (r + 1)
+                + ", kolom " + (c + 1) + ")");
+          }
+          seen[t >>> 6] |= bit;
+          perm0[r * cols + c] = t;
+          skipSpace();
+          int ch = peek();
+          if (c + 1 < cols) {
+            if (ch != ',') throw new IllegalArgumentException("Jumlah kolom != cols (baris " + (r + 1) + ")");
+            pos++;
+          } else if (ch == ',') {
+            throw new IllegalArgumentException("Jumlah kolom != cols (baris " + (r + 1) + ")");
+          } else if (r + 1 < rows) {
+            if (ch != ';') throw new IllegalArgumentException("Jumlah baris != rows");
+            pos++;
+          }
+        }
+      }
+      // Akhir: ';' sisa boleh, lalu ']' opsional, lalu hanya spasi.
+      if (peek() == ';') {
+        pos++;
+        skipSpace();
+      }
+      if (peek() == ']') pos++;
+      skipSpace();
+      int ch = peek();
+      if (ch != EOF) {
+        if (ch >= '0' && ch <= '9' || ch == ';') throw new IllegalArgumentException("Jumlah baris != rows");
+        throw new IllegalArgumentException("Karakter tak terduga '" + (char) ch + "' setelah permutasi");
+      }
+      return perm0;
+    }
+
+    /** Angka 1..n di posisi sekarang. */
+    private int readNumber(int n, int r, int c) throws IOException {
+      int ch = peek();
+      if (ch < '0' || ch > '9') {
+        if (ch == EOF || ch == ']' || ch == ';') throw new IllegalArgumentException("Jumlah baris != rows");
+        throw new IllegalArgumentException("Angka diharapkan di baris " + (r + 1) + ", kolom " + (c + 1));
+      }
+      long v = 0;
+      while (ch >= '0' && ch <= '9') {
+        if (v <= n) v = v * 10 + (ch - '0'); // lebih dari n sudah pasti salah; hentikan tumbuh
+        pos++;
+        ch = peek();
+      }
+      if (v < 1 || v > n) {
+        throw new IllegalArgumentException("Tile " + v + " di baris " + (r + 1) + ", kolom " + (c + 1)
+            + " di luar 1.." + n);
+      }
+      return (int) v;
+    }
+
+    private void skipSpace() throws IOException {
+      for (int ch = peek(); ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t'; ch = peek()) pos++;
+    }
+
+    /** Karakter berikutnya tanpa memakainya, atau {@link #EOF}. */
+    private int peek() throws IOException {
+      if (pos == limit && !fill()) return EOF;
+      return buf[pos];
+    }
+
+    private boolean fill() throws IOException {
+      pos = 0;
+      if (in != null) {
+        int k;
+        do {
+          k = in.read(buf, 0, buf.length);
+        } while (k == 0);
+        limit = Math.max(0, k);
+      } else {
+        limit = Math.min(buf.length, seq.length() - seqPos);
+        for (int i = 0; i < limit; i++) buf[i] = seq.charAt(seqPos + i);
+        seqPos += limit;
+      }
+      return limit > 0;
+    }
+  }
+}
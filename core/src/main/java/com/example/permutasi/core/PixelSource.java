@@ -0,0 +1,14 @@
+package com.example.permutasi.core;
+
+/**
+ * Sumber piksel ARGB (0xAARRGGBB) yang bisa dibaca per region. Semantik {@link #getPixels}
+ * sama dengan {@code android.graphics.Bitmap#getPixels}, jadi adapter Bitmap cukup meneruskan.
+ */
+public interface PixelSource {
+  int getWidth();
+
+  int getHeight();
+
+  /** Salin region (x,y,w,h) ke {@code dst} mulai {@code offset}, tiap baris maju {@code stride}. */
+  void getPixels(int[] dst, int offset, int stride, int x, int y, int w, int h);
+}
@@ -0,0 +1,124 @@
+package com.example.permutasi.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encoder PNG streaming (8 bit, RGB atau RGBA, filter Sub). Baris ditulis berurutan lewat
+ * {@link #writeRows}; memori hanya satu scanline + buffer chunk IDAT, berapa pun tinggi gambarnya.
+ */
+public final class PngWriter implements Closeable {
+  private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+  /** Ukuran data maksimum per chunk IDAT. */
+  private static final int IDAT_SIZE = 1 << 16;
+
+  private final OutputStream out;
+  private final int width, height, bpp;
+  private final Deflater deflater;
+  private final CRC32 crc = new CRC32();
+  private final byte[] line;
+  private final byte[] idat = new byte[IDAT_SIZE];
+  private final byte[] header = new byte[8];
+  private int idatLen;
+  private int rowsWritten;
+  private boolean closed;
+
+  /** {@code alpha} = false: kanal alpha dibuang (RGB, file lebih kecil untuk foto). */
+  public PngWriter(OutputStream out, int width, int height, boolean alpha) throws IOException {
+    if (width <= 0 || height <= 0) throw new IllegalArgumentException("Ukuran PNG harus > 0");
+    this.out = out;
+    this.width = width;
+    this.height = height;
+    this.bpp = alpha ? 4 : 3;
+    if ((long) width * bpp + 1 > Integer.MAX_VALUE) throw new IllegalArgumentException("Baris PNG terlalu lebar");
+    this.line = new byte[1 + width * bpp];
+    this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+
+    out.write(SIGNATURE);
+    byte[] ihdr = new byte[13];
+    putInt(ihdr, 0, width);
+    putInt(ihdr, 4, height);
+    ihdr[8] = 8;                       // bit depth
+    ihdr[9] = (byte) (alpha ? 6 : 2);  // color type RGBA / RGB
+    // compression, filter, interlace = 0
+    writeChunk("IHDR", ihdr, ihdr.length);
+  }
+
+  /** Tulis {@code rowCount} baris ARGB dari {@code argb} mulai {@code offset}, tiap baris maju {@code stride}. */
+  public void writeRows(int[] argb, int offset, int stride, int rowCount) throws IOException {
+    if (closed) throw new IOException("PngWriter sudah ditutup");
+    if (rowsWritten + rowCount > height) throw new IOException("Baris melebihi tinggi PNG");
+    for (int r = 0; r < rowCount; r++) {
+      encodeLine(argb, offset + r * stride);
+      deflater.setInput(line, 0, line.length);
+      while (!deflater.needsInput()) drainDeflater();
+    }
+    rowsWritten += rowCount;
+  }
+
+  /** Selesaikan stream zlib dan tulis IEND; gagal bila jumlah baris kurang dari tinggi. */
+  @Override public void close() throws IOException {
+    if (closed) return;
+    closed = true;
+    try {
+      if (rowsWritten != height) throw new IOException("Baris PNG kurang: " + rowsWritten + "/" + height);
+      deflater.finish();
+      while (!deflater.finished()) drainDeflater();
+      if (idatLen > 0) flushIdat();
+      writeChunk("IEND", idat, 0);
+    } finally {
+      deflater.end();
+      out.close();
+    }
+  }
+
+  /** Filter Sub: tiap byte dikurangi byte kanal yang sama di piksel kiri. */
+  private void encodeLine(int[] argb, int off) {
+    byte[] b = line;
+    b[0] = 1;
+    int pa = 0, pr = 0, pg = 0, pb = 0;
+    int k = 1;
+    for (int x = 0; x < width; x++) {
+      int p = argb[off + x];
+      int a = p >>> 24, r = (p >>> 16) & 0xFF, g = (p >>> 8) & 0xFF, bl = p & 0xFF;
+      b[k++] = (byte) (r - pr);
+      b[k++] = (byte) (g - pg);
+      b[k++] = (byte) (bl - pb);
+      if (bpp == 4) b[k++] = (byte) (a - pa);
+      pa = a; pr = r; pg = g; pb = bl;
+    }
+  }
+
+  private void drainDeflater() throws IOException {
+    int n = deflater.deflate(idat, idatLen, idat.length - idatLen);
+    idatLen += n;
+    if (idatLen == idat.length) flushIdat();
+  }
+
+  private void flushIdat() throws IOException {
+    writeChunk("IDAT", idat, idatLen);
+    idatLen = 0;
+  }
+
+  private void writeChunk(String type, byte[] data, int len) throws IOException {
+    putInt(header, 0, len);
+    for (int i = 0; i < 4; i++) header[4 + i] = (byte) type.charAt(i);
+    crc.reset();
+    crc.update(header, 4, 4);
+    crc.update(data, 0, len);
+    out.write(header, 0, 8);
+    out.write(data, 0, len);
+    putInt(header, 0, (int) crc.getValue());
+    out.write(header, 0, 4);
+  }
+
+  private static void putInt(byte[] b, int off, int v) {
+    b[off] = (byte) (v >>> 24);
+    b[off + 1] = (byte) (v >>> 16);
+    b[off + 2] = (byte) (v >>> 8);
+    b[off + 3] = (byte) v;
+  }
+}
@@ -0,0 +1,190 @@
+package com.example.permutasi.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Telemetri satu run: waktu per fase, jumlah langkah diterima/ditolak/membaik, iterasi per detik,
+ * dan jejak energi terhadap iterasi di ring buffer primitif berukuran tetap. Diisi lewat
+ * {@link PermutationAnnealer2D.Options#metrics}; nilai skalar boleh dibaca dari thread lain kapan saja.
+ */
+public final class SolverMetrics {
+  /** Jumlah sampel jejak default. */
+  public static final int DEFAULT_TRACE_CAPACITY = 4096;
+
+  private final int capacity;
+  private final long[] traceIteration, traceEnergy, traceBest;
+  private final double[] traceTemperature;
+  /** Slot sampel berikutnya dan jumlah sampel valid. */
+  private int head, size;
+
+  private volatile long edgeNanos, tableNanos, initNanos, annealMillis;
+  private volatile long iteration, proposed, accepted, improved;
+  private volatile long energy = -1, bestEnergy = -1, lowerBound = -1;
+  private volatile double temperature;
+
+  public SolverMetrics() { this(DEFAULT_TRACE_CAPACITY); }
+
+  public SolverMetrics(int traceCapacity) {
+    if (traceCapacity <= 0) throw new IllegalArgumentException("traceCapacity harus > 0");
+    this.capacity = traceCapacity;
+    this.traceIteration = new long[traceCapacity];
+    this.traceEnergy = new long[traceCapacity];
+    this.traceBest = new long[traceCapacity];
+    this.traceTemperature = new double[traceCapacity];
+  }
+
+  /** Kosongkan semua nilai untuk run baru (buffer dipakai ulang). */
+  public synchronized void reset() {
+    head = size = 0;
+    edgeNanos = tableNanos = initNanos = annealMillis = 0;
+    iteration = proposed = accepted = improved = 0;
+    energy = bestEnergy = lowerBound = -1;
+    temperature = 0;
+  }
+
+  // ===== diisi solver =====
+
+  void addEdgeNanos(long nanos) { edgeNanos += nanos; }
+
+  void addTableNanos(long nanos) { tableNanos += nanos; }
+
+  void addInitNanos(long nanos) { initNanos += nanos; }
+
+  /** Perbarui nilai skalar; langkah dihitung sejak sesi dibuat (termasuk semua replika). */
+  void update(long iteration, long annealMillis, long proposed, long accepted, long improved,
+              double temperature, long energy, long bestEnergy) {
+    this.iteration = iteration;
+    this.annealMillis = annealMillis;
+    this.proposed = proposed;
+    this.accepted = accepted;
+    this.improved = improved;
+    this.temperature = temperature;
+    this.energy = energy;
+    this.bestEnergy = bestEnergy;
+  }
+
+  void setLowerBound(long lowerBound) { this.lowerBound = lowerBound; }
+
+  /** Tambah satu sampel jejak; yang tertua ditimpa bila penuh. */
+  synchronized void sample(long iteration, double temperature, long energy, long bestEnergy) {
+    traceIteration[head] = iteration;
+    traceTemperature[head] = temperature;
+    traceEnergy[head] = energy;
+    traceBest[head] = bestEnergy;
+    head = head + 1 == capacity ? 0 : head + 1;
+    if (size < capacity) size++;
+  }
+
+  // ===== dibaca =====
+
+  /** Ekstraksi strip tepi (ms). */
+  public long edgeMillis() { return edgeNanos / 1_000_000; }
+
+  /** Bangun tabel biaya, termasuk baca/tulis cache (ms). */
+  public long tableMillis() { return tableNanos / 1_000_000; }
+
+  /** Susunan awal dan kalibrasi suhu (ms). */
+  public long initMillis() { return initNanos / 1_000_000; }
+
+  /** Waktu annealing tanpa jeda (ms). */
+  public long annealMillis() { return annealMillis; }
+
+  public long iteration() { return iteration; }
+
+  public long proposed() { return proposed; }
+
+  public long accepted() { return accepted; }
+
+  public long rejected() { return proposed - accepted; }
+
+  /** Langkah diterima dengan delta < 0. */
+  public long improved() { return improved; }
+
+  /** Rasio langkah diterima; 0 bila belum ada langkah. */
+  public double acceptanceRate() {
+    long p = proposed;
+    return p > 0 ? (double) accepted / p : 0;
+  }
+
+  /** Iterasi (per replika) per detik waktu anneal. */
+  public double iterationsPerSecond() {
+    long ms = annealMillis;
+    return ms > 0 ? iteration * 1000.0 / ms : 0;
+  }
+
+  public double temperature() { return temperature; }
+
+  /** Energi rantai terakhir (replika 0 di anak tangga terdingin); -1 bila belum ada. */
+  public long energy() { return energy; }
+
+  public long bestEnergy() { return bestEnergy; }
+
+  /** Batas bawah energi ({@link ExactSolver#lowerBound}); -1 bila belum ada. */
+  public long lowerBound() { return lowerBound; }
+
+  /** Selisih relatif energi terbaik di atas batas bawah (0 = terbukti optimal); -1 bila belum ada. */
+  public double optimalityGap() {
+    long lb = lowerBound, b = bestEnergy;
+    if (lb < 0 || b < 0) return -1;
+    return lb > 0 ? (double) (b - lb) / lb : (b > 0 ? Double.POSITIVE_INFINITY : 0);
+  }
+
+  /** Sampel jejak maksimum; sesi menjarangkan sampel supaya satu run pas. */
+  public int traceCapacity() { return capacity; }
+
+  public synchronized int traceSize() { return size; }
+
+  /** Salin jejak urut dari sampel tertua; tiap array boleh null. Return jumlah sampel. */
+  public synchronized int copyTrace(long[] iterations, double[] temperatures, long[] energies, long[] bests) {
+    int start = head - size;
+    if (start < 0) start += capacity;
+    for (int i = 0; i < size; i++) {
+      int k = start + i < capacity ? start + i : start + i - capacity;
+      if (iterations != null) iterations[i] = traceIteration[k];
+      if (temperatures != null) temperatures[i] = traceTemperature[k];
+      if (energies != null) energies[i] = traceEnergy[k];
+      if (bests != null) bests[i] = traceBest[k];
+    }
+    return size;
+  }
+
+  /** Ringkasan satu baris untuk log, ditambahkan ke {@code sb} (tanpa String.format). */
+  public void appendSummary(StringBuilder sb) {
+    sb.append("iter/s=").append(Math.round(iterationsPerSecond()))
+        .append(" terima=").append(Math.round(acceptanceRate() * 1000) / 10.0).append('%')
+        .append(" membaik=").append(improved())
+        .append(" E=").append(energy()).append(" terbaik=").append(bestEnergy())
+        .append(" LB=").append(lowerBound()).append(" (gap ").append(Math.round(optimalityGap() * 1000) / 10.0).append("%)")
+        .append(" | tepi ").append(edgeMillis()).append(" ms, tabel ").append(tableMillis())
+        .append(" ms, awal ").append(initMillis()).append(" ms, anneal ").append(annealMillis()).append(" ms");
+  }
+
+  /**
+   * Tulis CSV: baris komentar ringkasan ({@code #}) lalu jejak
+   * {@code iteration,temperature,energy,best_energy} urut dari sampel tertua.
+   */
+  public void writeCsv(Writer w) throws IOException {
+    long[] it, e, b;
+    double[] t;
+    synchronized (this) {
+      it = new long[size];
+      t = new double[size];
+      e = new long[size];
+      b = new long[size];
+      copyTrace(it, t, e, b);
+    }
+    w.write(String.format(Locale.US,
+        "# edge_ms=%d,table_ms=%d,init_ms=%d,anneal_ms=%d,iterations=%d,proposed=%d,accepted=%d,improved=%d,iter_per_s=%.0f,best_energy=%d,lower_bound=%d\n",
+        edgeMillis(), tableMillis(), initMillis(), annealMillis(), iteration(), proposed(), accepted(), improved(),
+        iterationsPerSecond(), bestEnergy(), lowerBound()));
+    w.write("iteration,temperature,energy,best_energy\n");
+    StringBuilder sb = new StringBuilder(64);
+    for (int i = 0; i < it.length; i++) {
+      sb.setLength(0);
+      sb.append(it[i]).append(',').append(t[i]).append(',').append(e[i]).append(',').append(b[i]).append('\n');
+      w.append(sb);
+    }
+  }
+}
@@ -0,0 +1,435 @@
+package com.example.permutasi.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Satu run annealing yang bisa dijeda, dilanjutkan, dibatalkan, dan disimpan ke checkpoint biner.
+ * {@link #run} memblok thread pemanggil; {@link #pause}, {@link #resume} dan {@link #cancel} aman
+ * dipanggil dari thread lain dan berlaku di batas chunk berikutnya.
+ *
+ * <p>Susunan terbaik dilacak per langkah oleh tiap rantai; aturan berhenti dini (stagnan, target
+ * energi, batas waktu, batas bawah energi tercapai; lihat {@link PermutationAnnealer2D.Options}) dicek
+ * di batas chunk. Grid kecil ({@link PermutationAnnealer2D.Options#exactMaxTiles}) dicoba dulu dengan
+ * {@link ExactSolver}; annealing hanya jalan bila solusinya tidak terbukti optimal, dan semua rantai
+ * mulai dari solusi itu.
+ *
+ * <p>Checkpoint berisi permutasi dan state RNG tiap rantai, iterasi, state jadwal, dan susunan
+ * terbaik; tabel biaya tidak ikut disimpan, jadi {@link #restore} butuh tabel yang sama.
+ */
+public final class SolverSession {
+  /** Iterasi per blok suhu tetap di loop satu rantai. */
+  static final int CHUNK = 1024;
+
+  private static final int MAGIC = 0x50534331; // "PSC1"
+  private static final int VERSION = 1;
+
+  private final CostTables tables;
+  private final PermutationAnnealer2D.Options opts;
+  private final CoolingSchedule.Kind scheduleKind;
+  private final CoolingSchedule schedule;
+  private final double startTemp;
+  private final long iterations;
+  /** Untuk replika > 1: chains[i] sedang di anak tangga i. */
+  private final AnnealChain[] chains;
+  private final double[] ladder;
+  private final FastRandom exchangeRnd;
+
+  private long iteration;
+  private long elapsedMillis;
+  private final int[] best;
+  private long bestEnergy, bestIteration;
+  /** {@link ExactSolver#lowerBound}; energi terbaik yang mencapainya pasti optimal. */
+  private final long lowerBound;
+  private boolean exactTried;
+  /** Iterasi saat penghitung langkah rantai mulai dari 0 (sesi dibuat/di-restore). */
+  private long counterBase;
+  private PermutationAnnealer2D.StopReason stopReason;
+
+  private volatile boolean pauseRequested, cancelRequested;
+  private final Object pauseLock = new Object();
+  private File checkpointFile;
+  private long checkpointIntervalMillis;
+  private volatile IOException checkpointError;
+
+  /** Sesi baru: susunan awal (identitas / greedy), kalibrasi suhu, dan jadwal sesuai {@code opts}. */
+  public SolverSession(CostTables tables, long iterations, double startTemp, PermutationAnnealer2D.Options opts) {
+    if (iterations <= 0) throw new IllegalArgumentException("iterations harus > 0");
+    if (!opts.autoTemperature && startTemp <= 0) throw new IllegalArgumentException("startTemp harus > 0");
+    final long t0 = System.nanoTime();
+    final int n = tables.n;
+    int[] pos2tile;
+    if (opts.greedyStart) {
+      pos2tile = GreedyPlacer.solve(tables);
+    } else {
+      pos2tile = new int[n];
+      for (int i = 0; i < n; i++) pos2tile[i] = i;
+    }
+
+    FastRandom rnd = new FastRandom();
+    if (opts.autoTemperature) {
+      startTemp = TemperatureCalibrator.calibrate(tables, pos2tile, opts.targetAcceptance,
+          TemperatureCalibrator.DEFAULT_SAMPLES, rnd);
+    }
+
+    int k = Math.max(1, opts.replicas);
+    this.tables = tables;
+    this.opts = opts;
+    this.iterations = iterations;
+    this.startTemp = startTemp;
+    this.scheduleKind = opts.schedule;
+    this.schedule = CoolingSchedule.create(opts.schedule, startTemp, opts);
+    this.chains = new AnnealChain[k];
+    for (int i = 0; i < k; i++) chains[i] = newChain(pos2tile, i == 0 ? rnd : new FastRandom());
+    this.ladder = ParallelTempering.ladder(k);
+    this.exchangeRnd = new FastRandom();
+    this.best = pos2tile.clone();
+    this.bestEnergy = chains[0].energy;
+    this.lowerBound = ExactSolver.lowerBound(tables);
+    if (opts.metrics != null) opts.metrics.addInitNanos(System.nanoTime() - t0);
+  }
+
+  private SolverSession(CostTables tables, PermutationAnnealer2D.Options opts, CoolingSchedule.Kind scheduleKind,
+                        double startTemp, long iterations, AnnealChain[] chains, FastRandom exchangeRnd,
+                        int[] best, long bestEnergy) {
+    this.tables = tables;
+    this.opts = opts;
+    this.scheduleKind = scheduleKind;
+    this.schedule = CoolingSchedule.create(scheduleKind, startTemp, opts);
+    this.startTemp = startTemp;
+    this.iterations = iterations;
+    this.chains = chains;
+    this.ladder = ParallelTempering.ladder(chains.length);
+    this.exchangeRnd = exchangeRnd;
+    this.best = best;
+    this.bestEnergy = bestEnergy;
+    this.lowerBound = ExactSolver.lowerBound(tables);
+    this.exactTried = true; // sudah dicoba sebelum checkpoint ditulis
+  }
+
+  private AnnealChain newChain(int[] pos2tile, FastRandom rnd) {
+    AnnealChain c = new AnnealChain(tables, pos2tile, rnd);
+    c.setMoveMix(opts.swapWeight, opts.candidateWeight, opts.blockSwapWeight, opts.shiftWeight, opts.maxBlockSize);
+    return c;
+  }
+
+  /**
+   * Simpan checkpoint ke {@code file} tiap {@code intervalMillis} (dan saat dijeda); {@code null} = mati.
+   * Ditulis ke file sementara lalu di-rename, jadi file lama tetap utuh bila proses mati di tengah tulis.
+   */
+  public void setCheckpoint(File file, long intervalMillis) {
+    this.checkpointFile = file;
+    this.checkpointIntervalMillis = intervalMillis;
+  }
+
+  /**
+   * Jalankan sampai semua iterasi selesai, aturan berhenti terpenuhi, atau dibatalkan. Return
+   * permutasi terbaik (0-based pos→tile) sejauh ini; alasan berhenti dikirim lewat
+   * {@link PermutationAnnealer2D.ProgressListener#onStopped}. Gagal tulis checkpoint tidak
+   * menghentikan run (lihat {@link #checkpointError()}).
+   */
+  public int[] run(PermutationAnnealer2D.ProgressListener cb) {
+    final int k = chains.length;
+    final long segment = k > 1 ? Math.max(1, opts.exchangeInterval) : CHUNK;
+    ExecutorService pool = k > 1 ? ParallelTempering.newPool(k, opts.parallelism) : null;
+    long runStart = System.currentTimeMillis() - elapsedMillis;
+    long nextTick = System.currentTimeMillis();
+    long nextCheckpoint = nextTick + checkpointIntervalMillis;
+    PermutationAnnealer2D.StopReason reason = stopReason;
+    boolean bestChanged = true;
+    final SolverMetrics metrics = opts.metrics;
+    // Jejak dijarangkan supaya satu run penuh (plus sampel awal dan akhir) pas di ring buffer.
+    final long traceEvery = metrics == null ? 0 : iterations / Math.max(1, metrics.traceCapacity() - 1) + 1;
+    long nextSample = iteration + traceEvery;
+    double temperature = schedule.temperature(iteration, iterations);
+    if (metrics != null) {
+      metrics.setLowerBound(lowerBound);
+      metrics.sample(iteration, temperature, chains[0].energy, bestEnergy);
+    }
+    if (reason == null && !exactTried && tables.n <= opts.exactMaxTiles) {
+      exactTried = true;
+      ExactSolver.Result exact = ExactSolver.solve(tables, best, opts.exactNodeLimit);
+      if (exact.energy < bestEnergy) {
+        System.arraycopy(exact.pos2tile, 0, best, 0, best.length);
+        bestEnergy = exact.energy;
+      }
+      if (exact.optimal) {
+        reason = PermutationAnnealer2D.StopReason.OPTIMAL;
+      } else {
+        // Batas node tercapai: semua rantai lanjut dari solusi terbaik solver eksak (>= awal semula).
+        for (int i = 0; i < k; i++) {
+          chains[i] = newChain(exact.pos2tile, chains[i].rnd);
+          chains[i].resetSteps(iteration);
+        }
+        bestIteration = iteration;
+      }
+      elapsedMillis = System.currentTimeMillis() - runStart;
+    }
+    try {
+      // Suhu diperbarui per chunk/segmen; kernel di dalamnya jalan tanpa cek progres.
+      while (reason == null && (reason = checkStop()) == null) {
+        if (pauseRequested) {
+          elapsedMillis = System.currentTimeMillis() - runStart;
+          if (checkpointFile != null) saveCheckpoint();
+          if (!awaitResume()) continue;
+          runStart = System.currentTimeMillis() - elapsedMillis;
+        }
+        final long it = iteration;
+        long steps = Math.min(segment, iterations - it);
+        double t = (double) it / (double) iterations;
+        temperature = schedule.temperature(it, iterations);
+        if (pool == null) chains[0].run(steps, temperature);
+        else ParallelTempering.segment(pool, chains, ladder, steps, temperature, it / segment, exchangeRnd);
+        iteration = it + steps;
+
+        for (AnnealChain c : chains) {
+          if (c.bestEnergy < bestEnergy) {
+            bestEnergy = c.bestEnergy;
+            bestIteration = c.bestStep;
+            c.copyBest(best);
+            bestChanged = true;
+          }
+        }
+        long reported = k > 1 ? bestEnergy : chains[0].energy;
+        schedule.onChunk(iteration, reported);
+        if (metrics != null && iteration >= nextSample) {
+          metrics.sample(iteration, temperature, chains[0].energy, bestEnergy);
+          nextSample = iteration + traceEvery;
+        }
+
+        long now = System.currentTimeMillis();
+        elapsedMillis = now - runStart;
+        if (cb != null && now >= nextTick) {
+          if (metrics != null) updateMetrics(metrics, temperature);
+          cb.onStatus(elapsedMillis / 1000, t * 100.0, it, temperature, reported);
+          if (bestChanged) cb.onBest(best, bestEnergy);
+          bestChanged = false;
+          nextTick = now + 300;
+        }
+        if (checkpointFile != null && checkpointIntervalMillis > 0 && now >= nextCheckpoint && iteration < iterations) {
+          saveCheckpoint();
+          nextCheckpoint = System.currentTimeMillis() + checkpointIntervalMillis;
+        }
+      }
+    } finally {
+      if (pool != null) pool.shutdownNow();
+    }
+    if (reason != PermutationAnnealer2D.StopReason.CANCELLED) stopReason = reason;
+    if (metrics != null) {
+      updateMetrics(metrics, temperature);
+      if (nextSample - traceEvery < iteration) metrics.sample(iteration, temperature, chains[0].energy, bestEnergy);
+    }
+    if (cb != null) cb.onStopped(reason, iteration, bestEnergy);
+    return best.clone();
+  }
+
+  private void updateMetrics(SolverMetrics m, double temperature) {
+    long accepted = 0, improved = 0;
+    for (AnnealChain c : chains) {
+      accepted += c.accepted;
+      improved += c.improved;
+    }
+    m.update(iteration, elapsedMillis, (iteration - counterBase) * chains.length, accepted, improved,
+        temperature, chains[0].energy, bestEnergy);
+  }
+
+  /** Alasan berhenti sebelum chunk berikutnya, atau null untuk lanjut. */
+  private PermutationAnnealer2D.StopReason checkStop() {
+    if (cancelRequested) return PermutationAnnealer2D.StopReason.CANCELLED;
+    if (bestEnergy <= lowerBound) return PermutationAnnealer2D.StopReason.OPTIMAL;
+    if (opts.targetEnergy >= 0 && bestEnergy <= opts.targetEnergy) return PermutationAnnealer2D.StopReason.TARGET_REACHED;
+    if (iteration >= iterations) return PermutationAnnealer2D.StopReason.COMPLETED;
+    if (opts.stallIterations > 0 && iteration - bestIteration >= opts.stallIterations) {
+      return PermutationAnnealer2D.StopReason.STALLED;
+    }
+    if (opts.timeBudgetMillis > 0 && elapsedMillis >= opts.timeBudgetMillis) {
+      return PermutationAnnealer2D.StopReason.TIME_BUDGET;
+    }
+    return null;
+  }
+
+  private void saveCheckpoint() {
+    try {
+      writeCheckpoint(checkpointFile);
+      checkpointError = null;
+    } catch (IOException e) {
+      checkpointError = e;
+    }
+  }
+
+  private boolean awaitResume() {
+    synchronized (pauseLock) {
+      while (pauseRequested && !cancelRequested) {
+        try {
+          pauseLock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          cancelRequested = true;
+        }
+      }
+    }
+    return !cancelRequested;
+  }
+
+  /** Jeda di batas chunk berikutnya (checkpoint ditulis bila aktif). */
+  public void pause() { pauseRequested = true; }
+
+  /** Lanjutkan setelah {@link #pause}. */
+  public void resume() {
+    synchronized (pauseLock) {
+      pauseRequested = false;
+      pauseLock.notifyAll();
+    }
+  }
+
+  /** Hentikan {@link #run} di batas chunk berikutnya; hasil terbaik sejauh ini tetap dikembalikan. */
+  public void cancel() {
+    synchronized (pauseLock) {
+      cancelRequested = true;
+      pauseLock.notifyAll();
+    }
+  }
+
+  /** Error tulis checkpoint terakhir dari {@link #run}; null bila checkpoint terakhir berhasil. */
+  public IOException checkpointError() { return checkpointError; }
+
+  public boolean isPaused() { return pauseRequested; }
+
+  public boolean isCancelled() { return cancelRequested; }
+
+  /** True bila run selesai (semua iterasi atau aturan berhenti dini); batal tidak termasuk. */
+  public boolean isFinished() { return stopReason != null; }
+
+  /** Alasan run terakhir selesai; null bila belum selesai atau dibatalkan. */
+  public PermutationAnnealer2D.StopReason stopReason() { return stopReason; }
+
+  /** Iterasi saat energi terbaik terakhir membaik. */
+  public long bestIteration() { return bestIteration; }
+
+  public long iteration() { return iteration; }
+
+  public long totalIterations() { return iterations; }
+
+  public long bestEnergy() { return bestEnergy; }
+
+  /** Batas bawah energi semua susunan untuk tabel sesi ini (lihat {@link ExactSolver#lowerBound}). */
+  public long lowerBound() { return lowerBound; }
+
+  public int rows() { return tables.rows; }
+
+  public int cols() { return tables.cols; }
+
+  // ===== checkpoint =====
+
+  /** Tulis checkpoint secara atomik (file sementara + rename). Panggil dari thread {@link #run} atau saat tidak berjalan. */
+  public void writeCheckpoint(File file) throws IOException {
+    File tmp = new File(file.getPath() + ".tmp");
+    FileOutputStream fos = new FileOutputStream(tmp);
+    try {
+      CRC32 crc = new CRC32();
+      DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(fos, 1 << 16), crc));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(tables.rows);
+      out.writeInt(tables.cols);
+      out.writeInt(chains.length);
+      out.writeInt(scheduleKind.ordinal());
+      out.writeLong(iterations);
+      out.writeLong(iteration);
+      out.writeLong(elapsedMillis);
+      out.writeDouble(startTemp);
+      out.writeLong(exchangeRnd.getState());
+      out.writeLong(bestEnergy);
+      out.writeLong(bestIteration);
+      writePerm(out, best);
+      for (AnnealChain c : chains) {
+        out.writeLong(c.rnd.getState());
+        out.writeLong(c.energy);
+        writePerm(out, c.pos2tile);
+      }
+      schedule.writeState(out);
+      out.flush();
+      new DataOutputStream(fos).writeInt((int) crc.getValue());
+      fos.getFD().sync();
+    } finally {
+      fos.close();
+    }
+    if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+      throw new IOException("Gagal mengganti checkpoint: " + file);
+    }
+  }
+
+  /**
+   * Lanjutkan sesi dari checkpoint. {@code tables} dan {@code opts} harus sama dengan run asal
+   * (energi tiap rantai dicek ulang terhadap tabel); jumlah replika dan jadwal diambil dari file.
+   */
+  public static SolverSession restore(CostTables tables, PermutationAnnealer2D.Options opts, File file)
+      throws IOException {
+    CRC32 crc = new CRC32();
+    try (DataInputStream in = new DataInputStream(
+        new CheckedInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16), crc))) {
+      if (in.readInt() != MAGIC) throw new IOException("Bukan file checkpoint");
+      int version = in.readInt();
+      if (version != VERSION) throw new IOException("Versi checkpoint tidak didukung: " + version);
+      int rows = in.readInt(), cols = in.readInt();
+      if (rows != tables.rows || cols != tables.cols) {
+        throw new IOException("Checkpoint untuk grid " + rows + "x" + cols + ", bukan " + tables.rows + "x" + tables.cols);
+      }
+      int k = in.readInt(), kind = in.readInt();
+      if (k <= 0 || kind < 0 || kind >= CoolingSchedule.Kind.values().length) throw new IOException("Checkpoint rusak");
+      long iterations = in.readLong(), iteration = in.readLong(), elapsed = in.readLong();
+      double startTemp = in.readDouble();
+      FastRandom exchangeRnd = new FastRandom(in.readLong());
+      long bestEnergy = in.readLong();
+      long bestIteration = in.readLong();
+      int[] best = readPerm(in, tables.n);
+
+      SolverSession s = new SolverSession(tables, opts, CoolingSchedule.Kind.values()[kind], startTemp, iterations,
+          new AnnealChain[k], exchangeRnd, best, bestEnergy);
+      for (int i = 0; i < k; i++) {
+        long rngState = in.readLong(), energy = in.readLong();
+        AnnealChain c = s.newChain(readPerm(in, tables.n), new FastRandom(rngState));
+        if (c.energy != energy) throw new IOException("Checkpoint tidak cocok dengan tabel biaya");
+        s.chains[i] = c;
+      }
+      s.schedule.readState(in);
+      int expected = (int) crc.getValue();
+      if (in.readInt() != expected) throw new IOException("Checksum checkpoint salah");
+      if (AnnealChain.totalEnergy(best, rows, cols, tables.h, tables.v) != bestEnergy) {
+        throw new IOException("Checkpoint tidak cocok dengan tabel biaya");
+      }
+      s.iteration = Math.min(iteration, iterations);
+      s.bestIteration = Math.min(bestIteration, s.iteration);
+      s.elapsedMillis = elapsed;
+      s.counterBase = s.iteration;
+      for (AnnealChain c : s.chains) c.resetSteps(s.iteration);
+      return s;
+    }
+  }
+
+  private static void writePerm(DataOutputStream out, int[] perm) throws IOException {
+    for (int t : perm) out.writeInt(t);
+  }
+
+  private static int[] readPerm(DataInputStream in, int n) throws IOException {
+    int[] perm = new int[n];
+    boolean[] seen = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      int t = in.readInt();
+      if (t < 0 || t >= n || seen[t]) throw new IOException("Permutasi checkpoint tidak valid");
+      seen[t] = true;
+      perm[i] = t;
+    }
+    return perm;
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.permutasi.core;
+
+/**
+ * Kalibrasi suhu awal dari tabel biaya: ambil sampel delta swap acak pada state awal, lalu cari
+ * T sehingga rata-rata peluang terima langkah naik (kriteria 2^(-delta/T) yang dipakai kernel)
+ * = target. Langkah turun selalu diterima jadi tidak ikut dihitung; di state acak porsinya
+ * sudah ~50% sehingga rasio total tidak informatif.
+ */
+public final class TemperatureCalibrator {
+  private TemperatureCalibrator() {}
+
+  /** Jumlah sampel default; cukup untuk estimasi rasio terima dalam ±2%. */
+  public static final int DEFAULT_SAMPLES = 4096;
+
+  /** @param targetAcceptance rasio terima langkah naik yang diinginkan di awal run, (0,1). */
+  public static double calibrate(CostTables tables, int[] pos2tile, double targetAcceptance,
+                                 int samples, FastRandom rnd) {
+    if (!(targetAcceptance > 0 && targetAcceptance < 1)) {
+      throw new IllegalArgumentException("targetAcceptance harus di (0,1)");
+    }
+    if (tables.n < 2) return 1.0;
+    AnnealChain probe = new AnnealChain(tables, pos2tile, rnd);
+    long[] uphill = new long[samples];
+    int nUp = 0;
+    for (int s = 0; s < samples; s++) {
+      int i = rnd.nextInt(tables.n), j = rnd.nextInt(tables.n - 1);
+      if (j >= i) j++;
+      long d = probe.deltaSwap(i, j);
+      if (d > 0) uphill[nUp++] = d;
+    }
+    if (nUp == 0) return 1.0;
+
+    // Rasio terima naik monoton terhadap T: bisection di ruang log.
+    double lo = Math.log(1e-6), hi = Math.log(1e12);
+    for (int iter = 0; iter < 100; iter++) {
+      double mid = 0.5 * (lo + hi);
+      double acc = acceptance(uphill, nUp, Math.exp(mid));
+      if (acc < targetAcceptance) lo = mid; else hi = mid;
+    }
+    return Math.exp(hi);
+  }
+
+  private static double acceptance(long[] uphill, int nUp, double temperature) {
+    double sum = 0;
+    for (int k = 0; k < nUp; k++) sum += Math.pow(2.0, -uphill[k] / temperature);
+    return sum / nUp;
+  }
+}
@@ -0,0 +1,185 @@
+package com.example.permutasi.core;
+
+import java.util.Arrays;
+
+/**
+ * Strip tepi tiap tile (kanan, kiri, bawah, atas) yang diekstrak sekali dari gambar ke array
+ * kontigu. Biaya pasangan dihitung dari strip ini saja, tanpa membaca ulang seluruh piksel.
+ * Tile id row-major (id = r*cols + c); strip tile a ada di offset a*panjangStrip.
+ */
+public final class TileEdges {
+  public final int rows, cols, n;
+  public final int tileW, tileH;
+
+  /** Kolom paling kanan/kiri tiap tile, atas→bawah; panjang n*tileH. */
+  final int[] right, left;
+  /** Baris paling bawah/atas tiap tile, kiri→kanan; panjang n*tileW. */
+  final int[] bottom, top;
+  /**
+   * Garis kedua dari tepi (untuk metrik prediksi gradien), tata letak sama dengan strip luar.
+   * Tile selebar/setinggi 1 piksel memakai garis tepi itu sendiri.
+   */
+  final int[] rightInner, leftInner, bottomInner, topInner;
+
+  private TileEdges(int rows, int cols, int tileW, int tileH) {
+    this.rows = rows;
+    this.cols = cols;
+    this.n = rows * cols;
+    this.tileW = tileW;
+    this.tileH = tileH;
+    this.right = new int[n * tileH];
+    this.left = new int[n * tileH];
+    this.bottom = new int[n * tileW];
+    this.top = new int[n * tileW];
+    this.rightInner = new int[n * tileH];
+    this.leftInner = new int[n * tileH];
+    this.bottomInner = new int[n * tileW];
+    this.topInner = new int[n * tileW];
+  }
+
+  /**
+   * Piksel maksimum per baca {@link PixelSource#getPixels} saat memproses per band; membatasi buffer
+   * (4 MB) untuk sumber streaming seperti region decoder, berapa pun ukuran gambarnya.
+   */
+  static final int BAND_PIXELS = 1 << 20;
+
+  /**
+   * Ekstrak 4 strip tepi per tile, band demi band (satu baris tile, dipotong per beberapa scanline
+   * bila terlalu lebar). Sumber dibaca berurutan atas→bawah, jadi region decoder cukup sekali lewat.
+   */
+  public static TileEdges extract(PixelSource src, int rows, int cols) {
+    return extract(src, rows, cols, src.getWidth(), src.getHeight(), 1);
+  }
+
+  /**
+   * Seperti {@link #extract(PixelSource, int, int)}, tapi {@code level} adalah gambar {@code fullW×fullH}
+   * yang diperkecil dengan faktor {@code sampleSize} (piksel level x ≈ piksel penuh x·sampleSize).
+   * Batas tile dihitung di resolusi penuh lalu dipetakan ke level, dan hanya piksel level yang
+   * seluruhnya di dalam tile yang dipakai; jadi tile yang lebarnya bukan kelipatan sampleSize tidak
+   * bergeser ke tetangganya. Semua strip dipotong ke sisi tile level terpendek.
+   */
+  public static TileEdges extract(PixelSource level, int rows, int cols, int fullW, int fullH, int sampleSize) {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    if (sampleSize <= 0) throw new IllegalArgumentException("sampleSize harus > 0");
+    if (fullW < cols || fullH < rows) {
+      throw new IllegalArgumentException("Gambar (" + fullW + "x" + fullH + ") lebih kecil dari grid " + rows + "x" + cols);
+    }
+    final int[] x0 = new int[cols], x1 = new int[cols], y0 = new int[rows], y1 = new int[rows];
+    final int tileW = spans(fullW / cols, cols, sampleSize, level.getWidth(), x0, x1);
+    final int tileH = spans(fullH / rows, rows, sampleSize, level.getHeight(), y0, y1);
+    if (tileW <= 0 || tileH <= 0) {
+      throw new IllegalArgumentException("Tile terlalu kecil untuk sampleSize " + sampleSize);
+    }
+    final int usedW = x1[cols - 1];
+    final int lines = linesPerRead(usedW, tileH);
+    TileEdges e = new TileEdges(rows, cols, tileW, tileH);
+    int[] buf = new int[usedW * lines];
+    for (int r = 0; r < rows; r++) {
+      final int top = y0[r], bottom = y1[r] - 1, span = y1[r] - top;
+      final int innerY = Math.min(1, span - 1);
+      for (int ty = 0; ty < span; ty += lines) {
+        int k = Math.min(lines, span - ty);
+        level.getPixels(buf, 0, usedW, 0, top + ty, usedW, k);
+        for (int l = 0; l < k; l++) {
+          int y = top + ty + l, row = l * usedW;
+          for (int c = 0; c < cols; c++) {
+            int a = r * cols + c, x = row + x0[c], xr = row + x1[c] - 1;
+            int innerX = Math.min(1, x1[c] - x0[c] - 1);
+            if (y - top < tileH) {
+              int at = a * tileH + y - top;
+              e.left[at] = buf[x];
+              e.right[at] = buf[xr];
+              e.leftInner[at] = buf[x + innerX];
+              e.rightInner[at] = buf[xr - innerX];
+            }
+            if (y == top) System.arraycopy(buf, x, e.top, a * tileW, tileW);
+            if (y == top + innerY) System.arraycopy(buf, x, e.topInner, a * tileW, tileW);
+            if (y == bottom - innerY) System.arraycopy(buf, x, e.bottomInner, a * tileW, tileW);
+            if (y == bottom) System.arraycopy(buf, x, e.bottom, a * tileW, tileW);
+          }
+        }
+      }
+    }
+    return e;
+  }
+
+  /**
+   * Rentang piksel level [from[i], to[i]) yang seluruhnya di dalam tile ke-i (sisi {@code tile} piksel
+   * penuh) di satu sumbu; return panjang rentang terpendek (0 bila ada tile tanpa piksel utuh).
+   */
+  private static int spans(int tile, int count, int s, int levelLen, int[] from, int[] to) {
+    int min = Integer.MAX_VALUE;
+    for (int i = 0; i < count; i++) {
+      from[i] = (int) (((long) i * tile + s - 1) / s);
+      to[i] = (int) Math.min(levelLen, ((long) i + 1) * tile / s);
+      min = Math.min(min, to[i] - from[i]);
+    }
+    return Math.max(0, min);
+  }
+
+  /** Jumlah scanline per baca agar {@code width × lines <= BAND_PIXELS} (minimal 1, maksimal tinggi tile). */
+  static int linesPerRead(int width, int tileH) {
+    return Math.max(1, Math.min(tileH, BAND_PIXELS / Math.max(1, width)));
+  }
+
+  /** Biaya a di kiri, b di kanan: kolom kanan a vs kolom kiri b. */
+  public int horizontalDiff(int a, int b) {
+    return stripDiff(right, a * tileH, left, b * tileH, tileH);
+  }
+
+  /** Biaya a di atas, b di bawah: baris bawah a vs baris atas b. */
+  public int verticalDiff(int a, int b) {
+    return stripDiff(bottom, a * tileW, top, b * tileW, tileW);
+  }
+
+  /** Batas atas {@link #horizontalDiff} untuk semua pasangan (dari rentang kanal per posisi). */
+  public long maxHorizontalDiff() {
+    return maxStripDiff(right, left, tileH, n);
+  }
+
+  /** Batas atas {@link #verticalDiff} untuk semua pasangan. */
+  public long maxVerticalDiff() {
+    return maxStripDiff(bottom, top, tileW, n);
+  }
+
+  /** Jumlah {@link #rgbAbsDiff} dua strip sepanjang {@code len}. */
+  static int stripDiff(int[] pa, int oa, int[] pb, int ob, int len) {
+    int d = 0;
+    for (int k = 0; k < len; k++) {
+      d += rgbAbsDiff(pa[oa + k], pb[ob + k]);
+    }
+    return d;
+  }
+
+  static int rgbAbsDiff(int p0, int p1) {
+    return Math.abs((p0 & 0xFF) - (p1 & 0xFF))
+         + Math.abs(((p0 >>> 8) & 0xFF) - ((p1 >>> 8) & 0xFF))
+         + Math.abs(((p0 >>> 16) & 0xFF) - ((p1 >>> 16) & 0xFF));
+  }
+
+  /** Per posisi k dan kanal: max - min atas semua strip di kedua sisi; jumlahnya membatasi semua pasangan. */
+  static long maxStripDiff(int[] sa, int[] sb, int len, int n) {
+    int[] lo = new int[3 * len];
+    int[] hi = new int[3 * len];
+    Arrays.fill(lo, 255);
+    for (int t = 0; t < n; t++) {
+      accumulateRange(sa, t * len, len, lo, hi);
+      accumulateRange(sb, t * len, len, lo, hi);
+    }
+    long bound = 0;
+    for (int i = 0; i < lo.length; i++) bound += Math.max(0, hi[i] - lo[i]);
+    return bound;
+  }
+
+  private static void accumulateRange(int[] strip, int off, int len, int[] lo, int[] hi) {
+    for (int k = 0; k < len; k++) {
+      int p = strip[off + k];
+      for (int ch = 0; ch < 3; ch++) {
+        int v = (p >>> (ch * 8)) & 0xFF;
+        int i = k * 3 + ch;
+        if (v < lo[i]) lo[i] = v;
+        if (v > hi[i]) hi[i] = v;
+      }
+    }
+  }
+}
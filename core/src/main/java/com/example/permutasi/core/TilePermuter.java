@@ -0,0 +1,140 @@
+package com.example.permutasi.core;
+
+import java.util.Arrays;
+
+/**
+ * Susun ulang tile di buffer ARGB row-major (lebar × tinggi) sesuai permutasi 0-based pos→tile.
+ * Area sisa di kanan/bawah yang tidak habis dibagi grid dikosongkan (0), sama seperti bitmap baru.
+ */
+public final class TilePermuter {
+  private TilePermuter() {}
+
+  /**
+   * Permutasi di tempat. Permutasi valid diikuti per siklus dengan satu buffer seukuran tile;
+   * selain itu (id ganda / grid lebih besar dari gambar) jatuh ke salinan penuh.
+   */
+  public static void permuteInPlace(int[] px, int width, int height, int rows, int cols, int[] perm0) {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    if (perm0 == null || perm0.length != rows*cols) throw new IllegalArgumentException("perm length mismatch");
+    if (px.length < width * height) throw new IllegalArgumentException("buffer terlalu pendek");
+    final int tileW = Math.max(1, width / cols);
+    final int tileH = Math.max(1, height / rows);
+
+    if (cols * tileW > width || rows * tileH > height || !isPermutation(perm0)) {
+      int[] out = new int[width * height];
+      copyTiles(px, out, width, height, rows, cols, perm0);
+      System.arraycopy(out, 0, px, 0, out.length);
+      return;
+    }
+
+    final int n = perm0.length;
+    boolean[] done = new boolean[n];
+    int[] tmp = new int[tileW * tileH];
+    for (int start = 0; start < n; start++) {
+      if (done[start]) continue;
+      done[start] = true;
+      if (perm0[start] == start) continue;
+      // Siklus: pos menerima tile dari perm0[pos]; tile di awal siklus disimpan dulu.
+      readTile(px, width, tileW, tileH, start % cols, start / cols, tmp);
+      int cur = start;
+      for (int src = perm0[cur]; src != start; src = perm0[cur]) {
+        moveTile(px, width, tileW, tileH, src, cur, cols);
+        done[src] = true;
+        cur = src;
+      }
+      writeTile(px, width, tileW, tileH, cur % cols, cur / cols, tmp);
+    }
+    clearRemainder(px, width, height, cols * tileW, rows * tileH);
+  }
+
+  /** Salin tile dari {@code in} ke posisinya di {@code out} (buffer berbeda); tile di luar gambar dilewati. */
+  public static void copyTiles(int[] in, int[] out, int width, int height, int rows, int cols, int[] perm0) {
+    final int tileW = Math.max(1, width / cols);
+    final int tileH = Math.max(1, height / rows);
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < cols; c++) {
+        int tileId = perm0[r * cols + c]; // 0-based: id asal
+        int sx = (tileId % cols) * tileW;
+        int sy = (tileId / cols) * tileH;
+        int dx = c * tileW;
+        int dy = r * tileH;
+
+        int wCopy = Math.min(tileW, width - Math.max(sx, dx));
+        int hCopy = Math.min(tileH, height - Math.max(sy, dy));
+        if (wCopy <= 0 || hCopy <= 0) continue;
+
+        for (int y = 0; y < hCopy; y++) {
+          System.arraycopy(in, (sy + y) * width + sx, out, (dy + y) * width + dx, wCopy);
+        }
+      }
+    }
+  }
+
+  /** True bila {@code perm0} berisi tiap id 0..n-1 tepat sekali (bitset, O(n)). */
+  public static boolean isPermutation(int[] perm0) {
+    return firstInvalid(perm0) < 0;
+  }
+
+  /** Seperti {@link #isPermutation} tapi melempar dengan posisi dan id pertama yang salah. */
+  public static void checkPermutation(int[] perm0) {
+    int pos = firstInvalid(perm0);
+    if (pos < 0) return;
+    int t = perm0[pos];
+    if (t < 0 || t >= perm0.length) {
+      throw new IllegalArgumentException("Tile " + (t + 1) + " di posisi " + (pos + 1) + " di luar 1.." + perm0.length);
+    }
+    throw new IllegalArgumentException("Tile " + (t + 1) + " muncul dua kali (posisi " + (pos + 1) + ")");
+  }
+
+  /**
+   * Ukuran tile preview {tileW, tileH} untuk gambar srcW×srcH dengan grid rows×cols (sisa kanan/bawah
+   * dibuang): tile diperkecil dengan skala sama (tidak pernah diperbesar) supaya lebar grid paling banyak
+   * {@code maxWidth} dan luasnya paling banyak {@code maxPixels}. Tile minimal 1 px, jadi grid yang lebih
+   * lebar dari {@code maxWidth} kolom tetap melewati batas.
+   */
+  public static int[] previewTileSize(int srcW, int srcH, int rows, int cols, int maxWidth, long maxPixels) {
+    if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows/cols harus > 0");
+    if (maxWidth <= 0 || maxPixels <= 0) throw new IllegalArgumentException("maxWidth/maxPixels harus > 0");
+    final int tileW = Math.max(1, srcW / cols), tileH = Math.max(1, srcH / rows);
+    double scale = Math.min(1, Math.min((double) maxWidth / ((double) tileW * cols),
+        Math.sqrt((double) maxPixels / ((double) tileW * cols * tileH * rows))));
+    return new int[] {Math.max(1, (int) (tileW * scale)), Math.max(1, (int) (tileH * scale))};
+  }
+
+  /** Posisi pertama yang id-nya di luar rentang atau sudah muncul; -1 bila valid. */
+  private static int firstInvalid(int[] perm0) {
+    final int n = perm0.length;
+    long[] seen = new long[(n + 63) >>> 6];
+    for (int pos = 0; pos < n; pos++) {
+      int t = perm0[pos];
+      if (t < 0 || t >= n) return pos;
+      long bit = 1L << t;
+      if ((seen[t >>> 6] & bit) != 0) return pos;
+      seen[t >>> 6] |= bit;
+    }
+    return -1;
+  }
+
+  private static void readTile(int[] px, int width, int tileW, int tileH, int tc, int tr, int[] tmp) {
+    int base = tr * tileH * width + tc * tileW;
+    for (int y = 0; y < tileH; y++) System.arraycopy(px, base + y * width, tmp, y * tileW, tileW);
+  }
+
+  private static void writeTile(int[] px, int width, int tileW, int tileH, int tc, int tr, int[] tmp) {
+    int base = tr * tileH * width + tc * tileW;
+    for (int y = 0; y < tileH; y++) System.arraycopy(tmp, y * tileW, px, base + y * width, tileW);
+  }
+
+  private static void moveTile(int[] px, int width, int tileW, int tileH, int from, int to, int cols) {
+    int sb = (from / cols) * tileH * width + (from % cols) * tileW;
+    int db = (to / cols) * tileH * width + (to % cols) * tileW;
+    for (int y = 0; y < tileH; y++) System.arraycopy(px, sb + y * width, px, db + y * width, tileW);
+  }
+
+  private static void clearRemainder(int[] px, int width, int height, int usedW, int usedH) {
+    if (usedW < width) {
+      for (int y = 0; y < usedH; y++) Arrays.fill(px, y * width + usedW, (y + 1) * width, 0);
+    }
+    if (usedH < height) Arrays.fill(px, usedH * width, height * width, 0);
+  }
+}
@@ -0,0 +1,195 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/** Delta inkremental tiap jenis langkah harus sama dengan hitung ulang energi penuh. */
+public class AnnealChainTest {
+  private static final int ROWS = 4, COLS = 5;
+
+  /** Tabel padat acak ROWS×COLS (biaya 0..999). */
+  private static CostTables tables(long seed) {
+    Random r = new Random(seed);
+    int n = ROWS * COLS;
+    CostMatrix h = CostMatrix.allocate(n, 1000), v = CostMatrix.allocate(n, 1000);
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        h.set(a, b, r.nextInt(1000));
+        v.set(a, b, r.nextInt(1000));
+      }
+    }
+    return new CostTables(ROWS, COLS, h, v);
+  }
+
+  /** Rantai dari susunan acak. */
+  private static AnnealChain chain(CostTables t, Random r) {
+    int[] p = new int[t.n];
+    for (int i = 0; i < p.length; i++) p[i] = i;
+    for (int i = p.length - 1; i > 0; i--) {
+      int j = r.nextInt(i + 1);
+      int x = p[i];
+      p[i] = p[j];
+      p[j] = x;
+    }
+    return new AnnealChain(t, p, new FastRandom(r.nextLong()));
+  }
+
+  private static long energy(CostTables t, int[] pos2tile) {
+    return AnnealChain.totalEnergy(pos2tile, t.rows, t.cols, t.h, t.v);
+  }
+
+  /** Energi dan energi terbaik yang dilacak rantai = hitung ulang, setelah tiap putaran pendinginan. */
+  private static void assertTrackedEnergyExact(CostTables t, AnnealChain c) {
+    for (int round = 0; round < 20; round++) {
+      c.run(500, 50.0 / (round + 1));
+      assertEquals(energy(t, c.pos2tile), c.energy);
+      int[] best = new int[t.n];
+      c.copyBest(best);
+      assertEquals(energy(t, best), c.bestEnergy);
+    }
+  }
+
+  @Test
+  public void swapDeltaMatchesRecompute() {
+    Random r = new Random(1);
+    CostTables t = tables(1);
+    for (int trial = 0; trial < 20; trial++) {
+      AnnealChain c = chain(t, r);
+      long before = energy(t, c.pos2tile);
+      for (int i = 0; i < t.n; i++) {
+        for (int j = 0; j < t.n; j++) {
+          if (i == j) continue;
+          int[] after = c.pos2tile.clone();
+          after[i] = c.pos2tile[j];
+          after[j] = c.pos2tile[i];
+          assertEquals("swap " + i + "," + j, energy(t, after) - before, c.deltaSwap(i, j));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void trackedEnergyStaysExactWithSwaps() {
+    CostTables t = tables(5);
+    AnnealChain c = chain(t, new Random(5));
+    c.setMoveMix(1, 0, 0, 0, 0);
+    assertTrackedEnergyExact(t, c);
+  }
+
+  @Test
+  public void blockSwapDeltaMatchesRecompute() {
+    Random r = new Random(2);
+    CostTables t = tables(2);
+    for (int trial = 0; trial < 10; trial++) {
+      AnnealChain c = chain(t, r);
+      long before = energy(t, c.pos2tile);
+      for (int bh = 1; bh <= ROWS / 2; bh++) {
+        for (int bw = 1; bw <= COLS / 2; bw++) {
+          for (int ra = 0; ra + bh <= ROWS; ra++) for (int ca = 0; ca + bw <= COLS; ca++) {
+            for (int rb = 0; rb + bh <= ROWS; rb++) for (int cb = 0; cb + bw <= COLS; cb++) {
+              if (Math.abs(ra - rb) < bh && Math.abs(ca - cb) < bw) continue; // tumpang tindih
+              int[] after = c.pos2tile.clone();
+              for (int i = 0; i < bh; i++) {
+                for (int j = 0; j < bw; j++) {
+                  int a = (ra + i) * COLS + ca + j, b = (rb + i) * COLS + cb + j;
+                  after[a] = c.pos2tile[b];
+                  after[b] = c.pos2tile[a];
+                }
+              }
+              assertEquals(energy(t, after) - before, c.deltaBlockSwap(ra, ca, rb, cb, bh, bw));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void shiftRowsDeltaMatchesRecompute() {
+    Random r = new Random(3);
+    CostTables t = tables(3);
+    for (int trial = 0; trial < 10; trial++) {
+      AnnealChain c = chain(t, r);
+      long before = energy(t, c.pos2tile);
+      for (int w = 2; w <= COLS; w++) for (int bh = 1; bh <= ROWS; bh++) {
+        for (int r0 = 0; r0 + bh <= ROWS; r0++) for (int c0 = 0; c0 + w <= COLS; c0++) {
+          for (int k = 1; k < w; k++) {
+            int[] after = c.pos2tile.clone();
+            for (int row = r0; row < r0 + bh; row++) {
+              for (int j = 0; j < w; j++) after[row * COLS + c0 + (j + k) % w] = c.pos2tile[row * COLS + c0 + j];
+            }
+            assertEquals(energy(t, after) - before, c.deltaShiftRows(r0, c0, bh, w, k));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void shiftColsDeltaMatchesRecompute() {
+    Random r = new Random(4);
+    CostTables t = tables(4);
+    for (int trial = 0; trial < 10; trial++) {
+      AnnealChain c = chain(t, r);
+      long before = energy(t, c.pos2tile);
+      for (int h = 2; h <= ROWS; h++) for (int bw = 1; bw <= COLS; bw++) {
+        for (int r0 = 0; r0 + h <= ROWS; r0++) for (int c0 = 0; c0 + bw <= COLS; c0++) {
+          for (int k = 1; k < h; k++) {
+            int[] after = c.pos2tile.clone();
+            for (int col = c0; col < c0 + bw; col++) {
+              for (int i = 0; i < h; i++) after[(r0 + (i + k) % h) * COLS + col] = c.pos2tile[(r0 + i) * COLS + col];
+            }
+            assertEquals(energy(t, after) - before, c.deltaShiftCols(r0, c0, h, bw, k));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void trackedEnergyStaysExactWithBlockAndShiftMoves() {
+    int[][] mixes = {{1, 1, 1}, {0, 1, 0}, {0, 0, 1}};
+    Random r = new Random(6);
+    for (int[] m : mixes) {
+      CostTables t = tables(6);
+      AnnealChain c = chain(t, r);
+      c.setMoveMix(m[0], 0, m[1], m[2], 0);
+      assertTrackedEnergyExact(t, c);
+    }
+  }
+
+  /** Langkah kandidat (dan campurannya) di tabel kandidat: energi terlacak tetap tepat. */
+  @Test
+  public void trackedEnergyStaysExactWithCandidateMoves() {
+    Random r = new Random(7);
+    ArgbRaster img = new ArgbRaster(COLS * 8, ROWS * 8);
+    for (int i = 0; i < img.pixels().length; i++) img.pixels()[i] = 0xFF000000 | r.nextInt(0x1000000);
+    CostTables t = CostTables.buildSparse(TileEdges.extract(img, ROWS, COLS), EdgeCost.create(EdgeCost.Kind.L1), 4, 1);
+    int[][] mixes = {{0, 1, 0, 0}, {1, 1, 0, 0}, {8, 4, 1, 1}};
+    for (int[] m : mixes) {
+      AnnealChain c = chain(t, r);
+      c.setMoveMix(m[0], m[1], m[2], m[3], 0);
+      assertTrackedEnergyExact(t, c);
+    }
+  }
+
+  @Test
+  public void fastRandomStateResumesSequence() {
+    FastRandom a = new FastRandom(42);
+    for (int i = 0; i < 10; i++) a.nextLong();
+    FastRandom b = new FastRandom(a.getState());
+    for (int i = 0; i < 100; i++) assertEquals(a.nextLong(), b.nextLong());
+    for (int bound : new int[] {1, 2, 7, 1000, Integer.MAX_VALUE}) {
+      for (int i = 0; i < 1000; i++) {
+        int x = a.nextInt(bound);
+        assertTrue(x >= 0 && x < bound);
+        double d = a.nextDouble();
+        assertTrue(d >= 0 && d < 1);
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+/** Reconstruct per band (dan PNG streaming) harus sama dengan reconstruct di memori. */
+public class BandReconstructorTest {
+  private static ArgbRaster noise(int w, int h, boolean opaque, long seed) {
+    Random r = new Random(seed);
+    ArgbRaster img = new ArgbRaster(w, h);
+    for (int i = 0; i < img.pixels().length; i++) {
+      int p = r.nextInt();
+      img.pixels()[i] = opaque ? p | 0xFF000000 : p;
+    }
+    return img;
+  }
+
+  private static int[] reversed(int n) {
+    int[] p = new int[n];
+    for (int i = 0; i < n; i++) p[i] = n - 1 - i;
+    return p;
+  }
+
+  /** Kumpulkan semua baris dari sink; juga cek baris datang berurutan dan jumlah per band dibatasi. */
+  private static int[] collect(PixelSource src, int rows, int cols, int[] perm) throws IOException {
+    final int w = src.getWidth();
+    final int[] out = new int[w * src.getHeight()];
+    final int[] y = new int[1];
+    final int maxRows = Math.max(1, TileEdges.BAND_PIXELS / w);
+    BandReconstructor.reconstruct(src, rows, cols, perm, (argb, offset, stride, rowCount) -> {
+      assertTrue(rowCount >= 1 && rowCount <= maxRows);
+      for (int l = 0; l < rowCount; l++) System.arraycopy(argb, offset + l * stride, out, (y[0] + l) * w, w);
+      y[0] += rowCount;
+    });
+    assertEquals(src.getHeight(), y[0]);
+    return out;
+  }
+
+  @Test
+  public void matchesInMemoryReconstructWithRemainder() throws IOException {
+    ArgbRaster img = noise(7 * 13 + 5, 4 * 11 + 3, false, 1);
+    int[] perm = reversed(4 * 7);
+    assertArrayEquals(PermutationAnnealer2D.reconstruct(img, 4, 7, perm).pixels(), collect(img, 4, 7, perm));
+  }
+
+  /** Tile lebih tinggi dari satu band: tiap tile dibaca dalam beberapa potongan. */
+  @Test
+  public void matchesInMemoryReconstructAcrossBands() throws IOException {
+    ArgbRaster img = noise(4096, 2 * 300, false, 2);
+    assertTrue(TileEdges.linesPerRead(4096, 300) < 300);
+    int[] perm = {5, 2, 7, 0, 3, 6, 1, 4};
+    assertArrayEquals(PermutationAnnealer2D.reconstruct(img, 2, 4, perm).pixels(), collect(img, 2, 4, perm));
+  }
+
+  @Test
+  public void pngDecodesToReconstructedPixels() throws IOException {
+    for (boolean alpha : new boolean[] {false, true}) {
+      ArgbRaster img = noise(6 * 17 + 2, 5 * 9 + 1, !alpha, 3);
+      int[] perm = reversed(30);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      BandReconstructor.writePng(img, 5, 6, perm, alpha, bytes);
+      BufferedImage png = ImageIO.read(new ByteArrayInputStream(bytes.toByteArray()));
+      int w = img.getWidth(), h = img.getHeight();
+      assertEquals(w, png.getWidth());
+      assertEquals(h, png.getHeight());
+      int[] expected = PermutationAnnealer2D.reconstruct(img, 5, 6, perm).pixels();
+      // Tanpa alpha, PNG RGB dibaca sebagai opak (area sisa 0 → hitam opak).
+      if (!alpha) for (int i = 0; i < expected.length; i++) expected[i] |= 0xFF000000;
+      assertArrayEquals("alpha=" + alpha, expected, png.getRGB(0, 0, w, h, null, 0, w));
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/** Tabel kandidat top-K dibanding tabel padat dari strip tepi yang sama. */
+public class CostMatrixTest {
+  private static final int ROWS = 6, COLS = 7, TILE = 6, K = 4;
+
+  /** Gambar noise acak: biaya tepi beragam, jadi daftar kandidat tidak trivial. */
+  private static TileEdges edges(long seed) {
+    Random r = new Random(seed);
+    ArgbRaster img = new ArgbRaster(COLS * TILE, ROWS * TILE);
+    for (int i = 0; i < img.pixels().length; i++) img.pixels()[i] = 0xFF000000 | r.nextInt(0x1000000);
+    return TileEdges.extract(img, ROWS, COLS);
+  }
+
+  private static boolean isCandidate(CostMatrix m, int a, int b) {
+    for (int s = 0; s < m.candidateCount(); s++) {
+      if (m.nextCandidate(a, s) == b || m.prevCandidate(b, s) == a) return true;
+    }
+    return false;
+  }
+
+  @Test
+  public void sparseKeepsExactCostsAndBoundsTheRest() {
+    TileEdges e = edges(1);
+    EdgeCost cost = EdgeCost.create(EdgeCost.Kind.L1);
+    CostTables dense = CostTables.build(e, cost, 1);
+    CostTables sparse = CostTables.buildSparse(e, cost, K, 1);
+    assertTrue(sparse.h.isSparse() && sparse.v.isSparse());
+    assertEquals(K, sparse.h.candidateCount());
+    for (CostMatrix[] m : new CostMatrix[][] {{dense.h, sparse.h}, {dense.v, sparse.v}}) {
+      CostMatrix.Lookup lookup = m[1].lookup();
+      for (int a = 0; a < e.n; a++) {
+        int prev = -1;
+        for (int s = 0; s < K; s++) {
+          int b = m[1].nextCandidate(a, s);
+          assertTrue("kandidat urut naik", m[0].get(a, b) >= prev);
+          prev = m[0].get(a, b);
+        }
+        for (int b = 0; b < e.n; b++) {
+          if (a == b) continue;
+          int got = m[1].get(a, b);
+          assertEquals(got, lookup.get(a, b));
+          if (isCandidate(m[1], a, b)) assertEquals(m[0].get(a, b), got);
+          else assertTrue("penalti > biaya asli", got <= m[0].get(a, b));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void denseLookupMatchesGet() {
+    Random r = new Random(2);
+    for (long max : new long[] {1000, 1L << 20}) {
+      CostMatrix m = CostMatrix.allocate(30, max);
+      assertEquals(max <= Character.MAX_VALUE, m.isNarrow());
+      for (int a = 0; a < 30; a++) for (int b = 0; b < 30; b++) m.set(a, b, r.nextInt((int) max));
+      CostMatrix.Lookup lookup = m.lookup();
+      for (int a = 0; a < 30; a++) for (int b = 0; b < 30; b++) assertEquals(m.get(a, b), lookup.get(a, b));
+    }
+  }
+}
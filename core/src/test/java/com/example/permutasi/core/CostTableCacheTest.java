@@ -0,0 +1,130 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CostTableCacheTest {
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  /** Tabel padat acak; {@code max > 0xFFFF} = storage int. */
+  private static CostTables tables(int rows, int cols, int max, long seed) {
+    Random r = new Random(seed);
+    int n = rows * cols;
+    CostMatrix h = CostMatrix.allocate(n, max), v = CostMatrix.allocate(n, max);
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        h.set(a, b, r.nextInt(max));
+        v.set(a, b, r.nextInt(max));
+      }
+    }
+    return new CostTables(rows, cols, h, v);
+  }
+
+  /** Strip tepi dari tile noise 8×8. */
+  private static TileEdges edges(int rows, int cols, long seed) {
+    Random r = new Random(seed);
+    ArgbRaster img = new ArgbRaster(cols * 8, rows * 8);
+    for (int i = 0; i < img.pixels().length; i++) img.pixels()[i] = 0xFF000000 | r.nextInt(0x1000000);
+    return TileEdges.extract(img, rows, cols);
+  }
+
+  private static void assertSameTables(CostTables expected, CostTables actual) {
+    assertEquals(expected.rows, actual.rows);
+    assertEquals(expected.cols, actual.cols);
+    assertEquals(expected.h.isSparse(), actual.h.isSparse());
+    assertEquals(expected.h.isNarrow(), actual.h.isNarrow());
+    for (int a = 0; a < expected.n; a++) {
+      for (int b = 0; b < expected.n; b++) {
+        if (a == b) continue;
+        assertEquals(expected.h.get(a, b), actual.h.get(a, b));
+        assertEquals(expected.v.get(a, b), actual.v.get(a, b));
+      }
+    }
+  }
+
+  @Test
+  public void roundTripNarrowWideAndSparse() throws IOException {
+    CostTableCache cache = new CostTableCache(tmp.getRoot(), 1L << 30);
+    TileEdges edges = edges(4, 5, 1);
+    CostTables[] tables = {
+        tables(4, 5, 1000, 1),
+        tables(4, 5, 1 << 20, 2),
+        CostTables.buildSparse(edges, EdgeCost.create(EdgeCost.Kind.L1), 4, 1)};
+    for (int i = 0; i < tables.length; i++) cache.put("k" + i, tables[i]);
+    for (int i = 0; i < tables.length; i++) {
+      CostTables t = new CostTableCache(tmp.getRoot(), 1L << 30).get("k" + i);
+      assertNotNull(t);
+      assertSameTables(tables[i], t);
+    }
+    assertNull(cache.get("tidak-ada"));
+  }
+
+  @Test
+  public void getOrBuildReusesStoredTables() {
+    CostTableCache cache = new CostTableCache(tmp.getRoot(), 1L << 30);
+    TileEdges edges = edges(3, 3, 3);
+    EdgeCost cost = EdgeCost.create(EdgeCost.Kind.L1);
+    CostTables built = cache.getOrBuild(edges, cost, 0, 1);
+    assertTrue(new File(tmp.getRoot(), CostTableCache.key(edges, cost, 0) + ".ctab").isFile());
+    assertSameTables(built, cache.getOrBuild(edges, cost, 0, 1));
+  }
+
+  @Test
+  public void corruptFileIsDropped() throws IOException {
+    CostTableCache cache = new CostTableCache(tmp.getRoot(), 1L << 30);
+    cache.put("k", tables(3, 3, 1000, 4));
+    File f = new File(tmp.getRoot(), "k.ctab");
+    try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+      raf.setLength(10);
+    }
+    assertNull(cache.get("k"));
+    assertFalse(f.exists());
+  }
+
+  /** Urutan LRU dari indeks, bukan mtime (yang sengaja dibuat menyesatkan di sini). */
+  @Test
+  public void evictsLeastRecentlyUsedRegardlessOfMtime() throws Exception {
+    CostTables t = tables(4, 4, 1000, 5);
+    long one = 16 + 2 * (4 + 2 * 16 * 16);
+    CostTableCache cache = new CostTableCache(tmp.getRoot(), 3 * one);
+    for (String k : new String[] {"a", "b", "c"}) {
+      cache.put(k, t);
+      Thread.sleep(5);
+    }
+    assertTrue(new File(tmp.getRoot(), "a.ctab").setLastModified(1000));
+    assertTrue(new File(tmp.getRoot(), "b.ctab").setLastModified(System.currentTimeMillis() + 100_000));
+    assertNotNull(cache.get("a"));
+    Thread.sleep(5);
+    // Instance baru: urutan harus datang dari indeks di disk.
+    new CostTableCache(tmp.getRoot(), 3 * one).put("d", t);
+    assertTrue(new File(tmp.getRoot(), "a.ctab").exists());
+    assertFalse(new File(tmp.getRoot(), "b.ctab").exists());
+    assertTrue(new File(tmp.getRoot(), "c.ctab").exists());
+    assertTrue(new File(tmp.getRoot(), "d.ctab").exists());
+  }
+
+  /** Kunci ikut berubah bila isi tepi, metrik, atau K berubah. */
+  @Test
+  public void keyDependsOnEdgesMetricAndK() {
+    TileEdges e = edges(3, 4, 6);
+    EdgeCost l1 = EdgeCost.create(EdgeCost.Kind.L1);
+    String k = CostTableCache.key(e, l1, 0);
+    assertEquals(k, CostTableCache.key(edges(3, 4, 6), l1, 0));
+    assertNotEquals(k, CostTableCache.key(edges(3, 4, 7), l1, 0));
+    assertNotEquals(k, CostTableCache.key(e, EdgeCost.create(EdgeCost.Kind.PREDICTION), 0));
+    assertNotEquals(k, CostTableCache.key(e, l1, 4));
+  }
+}
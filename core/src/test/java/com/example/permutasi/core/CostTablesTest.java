@@ -0,0 +1,62 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Random;
+import org.junit.Test;
+
+/** Precompute paralel harus identik dengan versi satu thread, sel demi sel. */
+public class CostTablesTest {
+  private static final int THREADS = 4;
+
+  /** Tile noise acak; cukup banyak tile supaya blok/chunk terbagi ke semua thread. */
+  private static TileEdges randomEdges(int grid, int tile, long seed) {
+    Random r = new Random(seed);
+    ArgbRaster img = new ArgbRaster(grid * tile, grid * tile);
+    for (int i = 0; i < img.pixels().length; i++) img.pixels()[i] = 0xFF000000 | r.nextInt(0x1000000);
+    return TileEdges.extract(img, grid, grid);
+  }
+
+  private static void assertSameDense(CostMatrix a, CostMatrix b) {
+    assertEquals(a.isNarrow(), b.isNarrow());
+    if (a.isNarrow()) assertArrayEquals(a.narrow, b.narrow);
+    else assertArrayEquals(a.wide, b.wide);
+  }
+
+  private static void assertSameSparse(CostMatrix a, CostMatrix b) {
+    assertEquals(a.candidateCount(), b.candidateCount());
+    assertArrayEquals(a.nextIds, b.nextIds);
+    assertArrayEquals(a.nextCost, b.nextCost);
+    assertArrayEquals(a.prevIds, b.prevIds);
+    assertArrayEquals(a.prevCost, b.prevCost);
+  }
+
+  @Test
+  public void parallelDenseBuildMatchesSequential() {
+    TileEdges narrow = randomEdges(20, 4, 1), wide = randomEdges(12, 90, 2);
+    for (EdgeCost.Kind kind : EdgeCost.Kind.values()) {
+      for (TileEdges e : new TileEdges[] {narrow, wide}) {
+        CostTables one = CostTables.build(e, EdgeCost.create(kind), 1);
+        CostTables many = CostTables.build(e, EdgeCost.create(kind), THREADS);
+        assertSameDense(one.h, many.h);
+        assertSameDense(one.v, many.v);
+      }
+    }
+    assertFalse(CostTables.build(wide, EdgeCost.create(EdgeCost.Kind.L1), 1).h.isNarrow());
+  }
+
+  @Test
+  public void parallelSparseBuildMatchesSequential() {
+    TileEdges e = randomEdges(20, 4, 3);
+    for (EdgeCost.Kind kind : EdgeCost.Kind.values()) {
+      for (int k : new int[] {1, 8}) {
+        CostTables one = CostTables.buildSparse(e, EdgeCost.create(kind), k, 1);
+        CostTables many = CostTables.buildSparse(e, EdgeCost.create(kind), k, THREADS);
+        assertSameSparse(one.h, many.h);
+        assertSameSparse(one.v, many.v);
+      }
+    }
+  }
+}
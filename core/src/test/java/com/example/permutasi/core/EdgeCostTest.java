@@ -0,0 +1,110 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class EdgeCostTest {
+  private static final int TILE = 4;
+
+  /** Dua tile berdampingan (1×2) dengan kanal merah naik linear {@code step} per kolom. */
+  private static TileEdges ramp(int step) {
+    ArgbRaster img = new ArgbRaster(2 * TILE, TILE);
+    for (int y = 0; y < TILE; y++) {
+      for (int x = 0; x < 2 * TILE; x++) img.pixels()[y * 2 * TILE + x] = 0xFF000000 | Math.min(255, step * x) << 16;
+    }
+    return TileEdges.extract(img, 1, 2);
+  }
+
+  private static TileEdges noise(int rows, int cols, long seed) {
+    Random r = new Random(seed);
+    ArgbRaster img = new ArgbRaster(cols * TILE, rows * TILE);
+    for (int i = 0; i < img.pixels().length; i++) img.pixels()[i] = 0xFF000000 | r.nextInt(0x1000000);
+    return TileEdges.extract(img, rows, cols);
+  }
+
+  @Test
+  public void l1ComparesTouchingColumns() {
+    EdgeCost.Evaluator l1 = EdgeCost.create(EdgeCost.Kind.L1).prepare(ramp(10));
+    // Kolom kanan tile 0 = 30, kolom kiri tile 1 = 40, 4 baris.
+    assertEquals(4 * 10, l1.horizontal(0, 1));
+    // Kolom kanan tile 1 = 70 vs kolom kiri tile 0 = 0.
+    assertEquals(4 * 70, l1.horizontal(1, 0));
+  }
+
+  /** Gradien yang melintasi potongan: prediksi tidak menghitungnya sebagai selisih, L1 menghitung. */
+  @Test
+  public void predictionIgnoresSmoothGradient() {
+    TileEdges e = ramp(10);
+    EdgeCost.Evaluator pred = EdgeCost.create(EdgeCost.Kind.PREDICTION).prepare(e);
+    assertEquals(0, pred.horizontal(0, 1));
+    assertTrue(pred.horizontal(1, 0) > 0);
+    assertTrue(EdgeCost.create(EdgeCost.Kind.L1).prepare(e).horizontal(0, 1) > 0);
+  }
+
+  /** Prediksi di-clamp ke 0..255: gradien yang jenuh di tepi tetap dinilai wajar. */
+  @Test
+  public void predictionClampsChannels() {
+    EdgeCost.Evaluator pred = EdgeCost.create(EdgeCost.Kind.PREDICTION).prepare(ramp(60));
+    // Tile 0: 0,60,120,180; tile 1: 240,255,255,255. Prediksi kanan = 240 (tepat), kiri dari tile 1 = 225 vs 180.
+    assertEquals(4 * 45, pred.horizontal(0, 1));
+  }
+
+  @Test
+  public void maxBoundsCoverEveryPair() {
+    TileEdges e = noise(3, 4, 1);
+    for (EdgeCost.Kind kind : new EdgeCost.Kind[] {EdgeCost.Kind.L1, EdgeCost.Kind.PREDICTION}) {
+      EdgeCost.Evaluator eval = EdgeCost.create(kind).prepare(e);
+      for (int a = 0; a < e.n; a++) {
+        for (int b = 0; b < e.n; b++) {
+          if (a == b) continue;
+          assertTrue(kind + " h", eval.horizontal(a, b) <= eval.maxHorizontal());
+          assertTrue(kind + " v", eval.vertical(a, b) <= eval.maxVertical());
+        }
+      }
+    }
+  }
+
+  /** Rasio = biaya prediksi / (terbaik kedua dari sisi a atau b + 1), skala 1024, cap 16 bit. */
+  @Test
+  public void ratioDividesBySecondBest() {
+    TileEdges e = noise(3, 3, 2);
+    CostTables base = CostTables.build(e, EdgeCost.create(EdgeCost.Kind.PREDICTION), 1);
+    CostTables ratio = CostTables.build(e, EdgeCost.create(EdgeCost.Kind.RATIO), 1);
+    assertTrue(ratio.h.isNarrow());
+    int n = e.n;
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        long second = Math.min(secondBest(base.h, a, true), secondBest(base.h, b, false));
+        long expected = Math.min(0xFFFF, base.h.get(a, b) * (long) EdgeCost.Ratio.SCALE / (second + 1));
+        assertEquals(expected, ratio.h.get(a, b));
+      }
+    }
+  }
+
+  /** Terbaik kedua di baris {@code x} (x di kiri) atau kolom {@code x} (x di kanan), tanpa diri sendiri. */
+  private static long secondBest(CostMatrix m, int x, boolean row) {
+    long best = Long.MAX_VALUE, second = Long.MAX_VALUE;
+    for (int y = 0; y < m.size(); y++) {
+      if (y == x) continue;
+      long d = row ? m.get(x, y) : m.get(y, x);
+      if (d < best) {
+        second = best;
+        best = d;
+      } else if (d < second) {
+        second = d;
+      }
+    }
+    return second;
+  }
+
+  @Test
+  public void idsAreStableCacheKeys() {
+    assertEquals("l1", EdgeCost.create(EdgeCost.Kind.L1).id());
+    assertEquals("pred", EdgeCost.create(EdgeCost.Kind.PREDICTION).id());
+    assertEquals("ratio-pred", EdgeCost.create(EdgeCost.Kind.RATIO).id());
+  }
+}
@@ -0,0 +1,115 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/** Branch-and-bound harus sama dengan coba semua permutasi, dan batas bawahnya tidak melebihi optimum. */
+public class ExactSolverTest {
+  /** Tabel padat acak rows×cols (biaya 0..999). */
+  private static CostTables tables(int rows, int cols, long seed) {
+    Random r = new Random(seed);
+    int n = rows * cols;
+    CostMatrix h = CostMatrix.allocate(n, 1000), v = CostMatrix.allocate(n, 1000);
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        h.set(a, b, r.nextInt(1000));
+        v.set(a, b, r.nextInt(1000));
+      }
+    }
+    return new CostTables(rows, cols, h, v);
+  }
+
+  private static long energy(CostTables t, int[] pos2tile) {
+    return AnnealChain.totalEnergy(pos2tile, t.rows, t.cols, t.h, t.v);
+  }
+
+  /** Energi minimum dengan mencoba semua permutasi. */
+  private static long bruteForce(CostTables t) {
+    int[] p = new int[t.n];
+    for (int i = 0; i < p.length; i++) p[i] = i;
+    long best = Long.MAX_VALUE;
+    do {
+      best = Math.min(best, energy(t, p));
+    } while (nextPermutation(p));
+    return best;
+  }
+
+  private static boolean nextPermutation(int[] a) {
+    int i = a.length - 2;
+    while (i >= 0 && a[i] >= a[i + 1]) i--;
+    if (i < 0) return false;
+    int j = a.length - 1;
+    while (a[j] <= a[i]) j--;
+    swap(a, i, j);
+    for (int l = i + 1, r = a.length - 1; l < r; l++, r--) swap(a, l, r);
+    return true;
+  }
+
+  private static void swap(int[] a, int i, int j) {
+    int t = a[i];
+    a[i] = a[j];
+    a[j] = t;
+  }
+
+  /** Gambar halus rows×cols tile berukuran {@code tile}: tiap tepi hanya cocok dengan tetangga aslinya. */
+  private static ArgbRaster image(int rows, int cols, int tile) {
+    int w = cols * tile, h = rows * tile;
+    ArgbRaster img = new ArgbRaster(w, h);
+    for (int y = 0; y < h; y++) {
+      for (int x = 0; x < w; x++) {
+        img.pixels()[y * w + x] = 0xFF000000 | (x * 255 / w) << 16 | (y * 255 / h) << 8 | (x * y) % 11;
+      }
+    }
+    return img;
+  }
+
+  @Test
+  public void matchesBruteForceOnSmallGrids() {
+    int[][] grids = {{2, 2}, {2, 3}, {3, 2}, {1, 5}};
+    long seed = 1;
+    for (int[] g : grids) {
+      for (int trial = 0; trial < 10; trial++, seed++) {
+        CostTables t = tables(g[0], g[1], seed);
+        ExactSolver.Result e = ExactSolver.solve(t, null, 0);
+        long optimum = bruteForce(t);
+        assertTrue(e.optimal);
+        assertEquals(optimum, e.energy);
+        assertEquals(e.energy, energy(t, e.pos2tile));
+        assertTrue("batas bawah > optimum", ExactSolver.lowerBound(t) <= optimum);
+      }
+    }
+  }
+
+  @Test
+  public void solvesShuffledImageExactly() {
+    int rows = 3, cols = 4, n = rows * cols;
+    int[] shuffle = new int[n];
+    for (int i = 0; i < n; i++) shuffle[i] = i;
+    Random r = new Random(7);
+    for (int i = n - 1; i > 0; i--) swap(shuffle, i, r.nextInt(i + 1));
+    ArgbRaster img = PermutationAnnealer2D.reconstruct(image(rows, cols, 16), rows, cols, shuffle);
+    CostTables t = PermutationAnnealer2D.buildTables(TileEdges.extract(img, rows, cols),
+        new PermutationAnnealer2D.Options());
+    // Posisi p menampung tile asal p, yang di gambar acak berada di posisi q dengan shuffle[q] == p.
+    int[] expected = new int[n];
+    for (int q = 0; q < n; q++) expected[shuffle[q]] = q;
+    ExactSolver.Result e = ExactSolver.solve(t, null, 0);
+    assertTrue(e.optimal);
+    assertArrayEquals(expected, e.pos2tile);
+  }
+
+  @Test
+  public void nodeLimitReturnsBestSoFarWithoutProof() {
+    CostTables t = tables(3, 3, 99);
+    ExactSolver.Result e = ExactSolver.solve(t, null, 1);
+    assertFalse(e.optimal);
+    assertEquals(e.energy, energy(t, e.pos2tile));
+    assertTrue(TilePermuter.isPermutation(e.pos2tile));
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class GreedyPlacerTest {
+  private static final int TILE = 10;
+
+  /** Pola halus dua arah (tanpa noise): tiap tepi paling cocok dengan tetangga aslinya. */
+  private static ArgbRaster smooth(int rows, int cols) {
+    int w = cols * TILE, h = rows * TILE;
+    ArgbRaster img = new ArgbRaster(w, h);
+    for (int y = 0; y < h; y++) {
+      for (int x = 0; x < w; x++) {
+        int red = (int) (127 + 120 * Math.sin(x * 0.043 + y * 0.011));
+        int green = (int) (127 + 120 * Math.cos(y * 0.051 - x * 0.007));
+        img.pixels()[y * w + x] = 0xFF000000 | red << 16 | green << 8 | (x * 255 / w);
+      }
+    }
+    return img;
+  }
+
+  private static int[] shuffle(int n, long seed) {
+    Random r = new Random(seed);
+    int[] p = new int[n];
+    for (int i = 0; i < n; i++) p[i] = i;
+    for (int i = n - 1; i > 0; i--) {
+      int j = r.nextInt(i + 1);
+      int x = p[i];
+      p[i] = p[j];
+      p[j] = x;
+    }
+    return p;
+  }
+
+  private static CostTables tables(ArgbRaster img, int rows, int cols, int k) {
+    TileEdges e = TileEdges.extract(img, rows, cols);
+    EdgeCost cost = EdgeCost.create(EdgeCost.Kind.L1);
+    return k > 0 ? CostTables.buildSparse(e, cost, k, 1) : CostTables.build(e, cost, 1);
+  }
+
+  /** Gambar halus yang diacak tersusun kembali persis, dengan tabel padat maupun kandidat. */
+  @Test
+  public void reassemblesShuffledImage() {
+    int[][] grids = {{6, 6}, {4, 9}, {8, 3}};
+    for (int[] g : grids) {
+      int rows = g[0], cols = g[1];
+      ArgbRaster original = smooth(rows, cols);
+      ArgbRaster shuffled = PermutationAnnealer2D.reconstruct(original, rows, cols, shuffle(rows * cols, rows * 31 + cols));
+      for (int k : new int[] {0, 4}) {
+        int[] perm = GreedyPlacer.solve(tables(shuffled, rows, cols, k));
+        ArgbRaster solved = PermutationAnnealer2D.reconstruct(shuffled, rows, cols, perm);
+        assertArrayEquals(rows + "x" + cols + " k=" + k, original.pixels(), solved.pixels());
+      }
+    }
+  }
+
+  /** Tabel acak (tanpa struktur gambar): hasil tetap permutasi sah untuk grid bentuk apa pun. */
+  @Test
+  public void returnsPermutationForAnyGridShape() {
+    int[][] grids = {{1, 1}, {1, 7}, {7, 1}, {2, 2}, {5, 3}, {3, 11}};
+    Random r = new Random(3);
+    for (int[] g : grids) {
+      int n = g[0] * g[1];
+      CostMatrix h = CostMatrix.allocate(n, 1000), v = CostMatrix.allocate(n, 1000);
+      for (int a = 0; a < n; a++) {
+        for (int b = 0; b < n; b++) {
+          h.set(a, b, r.nextInt(1000));
+          v.set(a, b, r.nextInt(1000));
+        }
+      }
+      int[] perm = GreedyPlacer.solve(new CostTables(g[0], g[1], h, v));
+      assertEquals(n, perm.length);
+      assertTrue(TilePermuter.isPermutation(perm));
+    }
+  }
+}
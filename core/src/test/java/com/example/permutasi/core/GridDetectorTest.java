@@ -0,0 +1,82 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Test;
+
+public class GridDetectorTest {
+  /**
+   * Grid teracak sintetis: tiap tile warna dasar acak plus noise kecil per piksel, jadi lonjakan
+   * gradien hanya ada di batas tile. Sisa {@code extraW/extraH} piksel di kanan/bawah ikut noise.
+   */
+  private static ArgbRaster grid(int rows, int cols, int tileW, int tileH, int extraW, int extraH, long seed) {
+    Random r = new Random(seed);
+    int w = cols * tileW + extraW, h = rows * tileH + extraH;
+    int[] base = new int[(rows + 1) * (cols + 1)];
+    for (int i = 0; i < base.length; i++) base[i] = r.nextInt(0x1000000);
+    ArgbRaster img = new ArgbRaster(w, h);
+    for (int y = 0; y < h; y++) {
+      for (int x = 0; x < w; x++) {
+        int c = base[Math.min(rows, y / tileH) * (cols + 1) + Math.min(cols, x / tileW)];
+        int n = r.nextInt(6);
+        int red = Math.min(255, ((c >> 16) & 0xFF) + n), green = Math.min(255, ((c >> 8) & 0xFF) + n);
+        img.pixels()[y * w + x] = 0xFF000000 | red << 16 | green << 8 | (c & 0xFF);
+      }
+    }
+    return img;
+  }
+
+  private static void assertDetects(ArgbRaster img, int rows, int cols) {
+    GridDetector.Result res = GridDetector.detect(img, img.getWidth(), img.getHeight(), GridDetector.DEFAULT_MAX_COUNT);
+    assertEquals(rows, res.rows());
+    assertEquals(cols, res.cols());
+    assertTrue(res.confidence() > 0 && res.confidence() <= 1);
+  }
+
+  @Test
+  public void detectsSquareGrid() {
+    assertDetects(grid(5, 5, 24, 24, 0, 0, 1), 5, 5);
+  }
+
+  @Test
+  public void detectsNonSquareGrid() {
+    assertDetects(grid(6, 11, 17, 29, 0, 0, 2), 6, 11);
+    assertDetects(grid(12, 3, 40, 9, 0, 0, 3), 12, 3);
+  }
+
+  @Test
+  public void detectsGridWithRemainderPixels() {
+    assertDetects(grid(7, 9, 21, 15, 5, 3, 4), 7, 9);
+  }
+
+  @Test
+  public void detectsFromSampledPyramidLevel() throws IOException {
+    ArgbRaster img = grid(8, 10, 300, 280, 0, 0, 5);
+    GridDetector.Result res = GridDetector.detect(ImagePyramid.of(img), 64);
+    assertEquals(8, res.rows());
+    assertEquals(10, res.cols());
+  }
+
+  /** Tebakan cadangan terurut skor dan tidak mengulang lebar tile yang sama dengan usulan. */
+  @Test
+  public void alternativeGuessesHaveDistinctTileSizes() {
+    ArgbRaster img = grid(4, 6, 30, 30, 0, 0, 6);
+    GridDetector.Result res = GridDetector.detect(img, img.getWidth(), img.getHeight(), 40);
+    assertEquals(6, res.cols());
+    assertEquals(4, res.rows());
+    assertGuesses(res.rows, img.getHeight());
+    assertGuesses(res.cols, img.getWidth());
+  }
+
+  private static void assertGuesses(GridDetector.Guess[] axis, int len) {
+    assertTrue(axis.length >= 1 && axis.length <= GridDetector.MAX_GUESSES);
+    for (int i = 1; i < axis.length; i++) {
+      for (int j = 0; j < i; j++) assertNotEquals(len / axis[j].count, len / axis[i].count);
+      if (i > 1) assertTrue(axis[i - 1].confidence >= axis[i].confidence);
+    }
+  }
+}
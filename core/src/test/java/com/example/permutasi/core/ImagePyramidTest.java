@@ -0,0 +1,99 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import org.junit.Test;
+
+public class ImagePyramidTest {
+  private static final int ROWS = 10, COLS = 40;
+
+  /** Warna rata unik per tile (id row-major), ditambah sisa piksel abu-abu di kanan/bawah. */
+  private static ArgbRaster flatTiles(int tileW, int tileH, int extra) {
+    int w = COLS * tileW + extra, h = ROWS * tileH + extra;
+    ArgbRaster img = new ArgbRaster(w, h);
+    for (int y = 0; y < h; y++) {
+      for (int x = 0; x < w; x++) {
+        int c = x / tileW, r = y / tileH;
+        img.pixels()[y * w + x] = c < COLS && r < ROWS ? color(r * COLS + c) : 0xFF808080;
+      }
+    }
+    return img;
+  }
+
+  private static int color(int id) {
+    return 0xFF000000 | (id * 37 % 256) << 16 | (id * 101 % 256) << 8 | id % 256;
+  }
+
+  private static void assertStrip(int[] strip, int tile, int len) {
+    for (int k = 0; k < len; k++) {
+      assertEquals("tile " + tile + " piksel " + k, color(tile), strip[tile * len + k]);
+    }
+  }
+
+  /** Tile yang sisinya bukan kelipatan sample size tetap membaca strip dari tile-nya sendiri di level kecil. */
+  @Test
+  public void levelStripsStayInsideNonDividingTiles() throws IOException {
+    for (int side : new int[] {51, 75, 102}) {
+      ArgbRaster img = flatTiles(side, side, 3);
+      int w = img.getWidth(), h = img.getHeight();
+      int s = ImagePyramid.chooseSampleSize(w, h, ROWS, COLS, 24);
+      assertTrue("sample size " + s + " untuk tile " + side, s > 1 && side % s != 0);
+      TileEdges e = TileEdges.extract(ImagePyramid.of(img).level(s), ROWS, COLS, w, h, s);
+      assertTrue(e.tileW >= 24 && e.tileH >= 24);
+      for (int a = 0; a < ROWS * COLS; a++) {
+        assertStrip(e.left, a, e.tileH);
+        assertStrip(e.right, a, e.tileH);
+        assertStrip(e.leftInner, a, e.tileH);
+        assertStrip(e.rightInner, a, e.tileH);
+        assertStrip(e.top, a, e.tileW);
+        assertStrip(e.bottom, a, e.tileW);
+        assertStrip(e.topInner, a, e.tileW);
+        assertStrip(e.bottomInner, a, e.tileW);
+      }
+    }
+  }
+
+  /** Tabel biaya dari level kecil: tiap tile paling murah di sebelah tetangga aslinya. */
+  @Test
+  public void pyramidTablesMatchFullResolution() throws IOException {
+    ArgbRaster img = flatTiles(51, 75, 0);
+    PermutationAnnealer2D.Options opts = new PermutationAnnealer2D.Options();
+    opts.parallelism = 1;
+    opts.candidateK = -1;
+    CostTables full = PermutationAnnealer2D.buildTables(TileEdges.extract(img, ROWS, COLS), opts);
+    opts.pyramidMinTileSide = 12;
+    final int[] level = new int[1];
+    CostTables small = PermutationAnnealer2D.buildTables(ImagePyramid.of(img), ROWS, COLS, opts,
+        new PermutationAnnealer2D.ProgressListener() {
+          @Override public void onStatus(long seconds, double donePct, long iter, double temperature, long energy) {}
+
+          @Override public void onPyramidLevel(int sampleSize, int levelWidth, int levelHeight) {
+            level[0] = sampleSize;
+          }
+        });
+    assertTrue(level[0] > 1);
+    int n = ROWS * COLS;
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        assertEquals(full.h.get(a, b) == 0, small.h.get(a, b) == 0);
+        assertEquals(full.v.get(a, b) == 0, small.v.get(a, b) == 0);
+      }
+    }
+  }
+
+  @Test
+  public void sampleSizeKeepsWholeLevelPixels() {
+    assertEquals(1, ImagePyramid.chooseSampleSize(4000, 3000, 10, 10, 0));
+    // tile 400x300: 300/8 = 37.5 → 36 piksel utuh (>= 32); 300/16 → 17 (< 32).
+    assertEquals(8, ImagePyramid.chooseSampleSize(4000, 3000, 10, 10, 32));
+    assertEquals(4, ImagePyramid.chooseSampleSize(4000, 3000, 10, 10, 37));
+    for (int tile = 24; tile < 200; tile++) {
+      int s = ImagePyramid.chooseSampleSize(tile * 5, tile * 3, 3, 5, 24);
+      assertTrue(ImagePyramid.levelTileSide(tile, s) >= 24);
+      assertTrue(ImagePyramid.levelTileSide(tile, s * 2) < 24);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+/** Prioritas, preempt, jeda, dan anggaran memori antrean job. */
+public class JobSchedulerTest {
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  private JobScheduler scheduler;
+
+  @After
+  public void shutdown() {
+    if (scheduler != null) scheduler.shutdown();
+  }
+
+  /** Tabel padat acak 4×5 (biaya 1..1000, jadi batas bawah tidak langsung tercapai). */
+  private static CostTables tables(long seed) {
+    Random r = new Random(seed);
+    int n = 20;
+    CostMatrix h = CostMatrix.allocate(n, 1001), v = CostMatrix.allocate(n, 1001);
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        h.set(a, b, 1 + r.nextInt(1000));
+        v.set(a, b, 1 + r.nextInt(1000));
+      }
+    }
+    return new CostTables(4, 5, h, v);
+  }
+
+  /** Sesi annealing yang praktis tidak selesai sendiri; dihentikan lewat cancel. */
+  private static SolverSession endlessSession(long seed) {
+    PermutationAnnealer2D.Options o = new PermutationAnnealer2D.Options();
+    o.parallelism = 1;
+    o.exactMaxTiles = 0;
+    return new SolverSession(tables(seed), Long.MAX_VALUE / 2, 100, o);
+  }
+
+  /** Job batch yang memasang sesi, memberi tanda sudah jalan, lalu menjalankannya. */
+  private static JobScheduler.Work<int[]> solving(final SolverSession s, final CountDownLatch started) {
+    return new JobScheduler.Work<int[]>() {
+      @Override public int[] run(JobScheduler.Job<int[]> job) {
+        job.attach(s);
+        started.countDown();
+        return s.run(null);
+      }
+    };
+  }
+
+  private static void await(CountDownLatch latch) throws InterruptedException {
+    assertTrue("job tidak mulai", latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+  }
+
+  private static void awaitState(JobScheduler.Job<?> job, JobScheduler.State state) throws InterruptedException {
+    long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (job.state() != state) {
+      assertTrue("state " + job.state() + ", diharapkan " + state, System.currentTimeMillis() < end);
+      Thread.sleep(5);
+    }
+  }
+
+  @Test
+  public void interactiveJobPreemptsRunningBatch() throws InterruptedException {
+    scheduler = new JobScheduler(1, 1L << 30);
+    SolverSession session = endlessSession(1);
+    CountDownLatch started = new CountDownLatch(1);
+    final JobScheduler.Job<int[]> batch = scheduler.submit("solve", JobScheduler.Priority.BATCH, 0, solving(session, started));
+    await(started);
+    assertEquals(JobScheduler.State.RUNNING, batch.state());
+
+    // Slot penuh: job interaktif tetap langsung jalan, job batch dijeda selama itu.
+    JobScheduler.Job<JobScheduler.State> interactive = scheduler.submit("preview", JobScheduler.Priority.INTERACTIVE,
+        0, new JobScheduler.Work<JobScheduler.State>() {
+          @Override public JobScheduler.State run(JobScheduler.Job<JobScheduler.State> job) {
+            return batch.state();
+          }
+        });
+    awaitState(interactive, JobScheduler.State.DONE);
+    assertEquals(JobScheduler.State.PREEMPTED, interactive.result());
+
+    // Setelah job interaktif selesai slotnya kembali ke job batch.
+    awaitState(batch, JobScheduler.State.RUNNING);
+    assertFalse(session.isPaused());
+    batch.cancel();
+    awaitState(batch, JobScheduler.State.CANCELLED);
+    assertNotNull(batch.result());
+    assertTrue(TilePermuter.isPermutation(batch.result()));
+  }
+
+  @Test
+  public void pausedBatchReleasesSlot() throws InterruptedException {
+    scheduler = new JobScheduler(1, 1L << 30);
+    CountDownLatch firstStarted = new CountDownLatch(1), secondStarted = new CountDownLatch(1);
+    SolverSession first = endlessSession(2), second = endlessSession(3);
+    JobScheduler.Job<int[]> a = scheduler.submit("a", JobScheduler.Priority.BATCH, 0, solving(first, firstStarted));
+    JobScheduler.Job<int[]> b = scheduler.submit("b", JobScheduler.Priority.BATCH, 0, solving(second, secondStarted));
+    await(firstStarted);
+    assertEquals(JobScheduler.State.QUEUED, b.state());
+
+    a.pause();
+    assertEquals(JobScheduler.State.PAUSED, a.state());
+    assertTrue(first.isPaused());
+    await(secondStarted);
+    assertEquals(JobScheduler.State.RUNNING, b.state());
+
+    // Jeda dilepas: a menunggu slot sampai b selesai, lalu lanjut.
+    a.resume();
+    assertEquals(JobScheduler.State.PREEMPTED, a.state());
+    b.cancel();
+    awaitState(b, JobScheduler.State.CANCELLED);
+    awaitState(a, JobScheduler.State.RUNNING);
+    assertFalse(first.isPaused());
+    a.cancel();
+    awaitState(a, JobScheduler.State.CANCELLED);
+  }
+
+  @Test
+  public void batchWaitsForMemoryBudget() throws InterruptedException {
+    scheduler = new JobScheduler(2, 100);
+    CountDownLatch firstStarted = new CountDownLatch(1), secondStarted = new CountDownLatch(1);
+    JobScheduler.Job<int[]> a = scheduler.submit("a", JobScheduler.Priority.BATCH, 60,
+        solving(endlessSession(4), firstStarted));
+    JobScheduler.Job<int[]> b = scheduler.submit("b", JobScheduler.Priority.BATCH, 60,
+        solving(endlessSession(5), secondStarted));
+    await(firstStarted);
+    // Slot masih ada, tetapi 60 + 60 melebihi anggaran.
+    assertEquals(JobScheduler.State.QUEUED, b.state());
+    a.cancel();
+    awaitState(a, JobScheduler.State.CANCELLED);
+    await(secondStarted);
+    b.cancel();
+    awaitState(b, JobScheduler.State.CANCELLED);
+  }
+
+  @Test
+  public void cancelQueuedJobSkipsIt() throws InterruptedException {
+    scheduler = new JobScheduler(1, 1L << 30);
+    CountDownLatch started = new CountDownLatch(1);
+    JobScheduler.Job<int[]> a = scheduler.submit("a", JobScheduler.Priority.BATCH, 0, solving(endlessSession(6), started));
+    final boolean[] ran = {false};
+    JobScheduler.Job<Void> b = scheduler.submit("b", JobScheduler.Priority.BATCH, 0, new JobScheduler.Work<Void>() {
+      @Override public Void run(JobScheduler.Job<Void> job) {
+        ran[0] = true;
+        return null;
+      }
+    });
+    await(started);
+    b.cancel();
+    assertEquals(JobScheduler.State.CANCELLED, b.state());
+    a.cancel();
+    awaitState(a, JobScheduler.State.CANCELLED);
+    assertFalse(ran[0]);
+  }
+}
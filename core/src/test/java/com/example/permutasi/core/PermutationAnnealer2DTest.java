@@ -0,0 +1,64 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/** Solver end-to-end di JVM biasa: raster ARGB teracak → permutasi → raster asli. */
+public class PermutationAnnealer2DTest {
+  private static final int TILE = 12;
+
+  /** Gradien dua arah: tiap tepi tile hanya cocok dengan tetangga aslinya. */
+  private static ArgbRaster gradient(int rows, int cols) {
+    int w = cols * TILE, h = rows * TILE;
+    ArgbRaster img = new ArgbRaster(w, h);
+    for (int y = 0; y < h; y++) {
+      for (int x = 0; x < w; x++) {
+        img.pixels()[y * w + x] = 0xFF000000 | (x * 255 / w) << 16 | (y * 255 / h) << 8 | (x + y) % 7;
+      }
+    }
+    return img;
+  }
+
+  /** Permutasi tetap yang memindahkan semua tile (rotasi satu langkah). */
+  private static int[] rotated(int n) {
+    int[] p = new int[n];
+    for (int i = 0; i < n; i++) p[i] = (i + 1) % n;
+    return p;
+  }
+
+  private static void assertUnscrambles(int rows, int cols, PermutationAnnealer2D.Options opts, long iterations) {
+    ArgbRaster original = gradient(rows, cols);
+    ArgbRaster scrambled = PermutationAnnealer2D.reconstruct(original, rows, cols, rotated(rows * cols));
+    int[] perm = PermutationAnnealer2D.solve(scrambled, rows, cols, iterations, 1000, opts, null);
+    assertEquals(rows * cols, perm.length);
+    ArgbRaster solved = PermutationAnnealer2D.reconstruct(scrambled, rows, cols, perm);
+    assertArrayEquals(original.pixels(), solved.pixels());
+  }
+
+  @Test
+  public void unscramblesWithExactSolver() {
+    assertUnscrambles(3, 4, new PermutationAnnealer2D.Options(), 1000);
+  }
+
+  @Test
+  public void unscramblesWithAnnealingOnly() {
+    PermutationAnnealer2D.Options opts = new PermutationAnnealer2D.Options();
+    opts.exactMaxTiles = 0;
+    opts.greedyStart = true;
+    opts.parallelism = 1;
+    assertUnscrambles(4, 4, opts, 200_000);
+  }
+
+  @Test
+  public void reconstructRejectsNonPermutation() {
+    ArgbRaster img = gradient(2, 2);
+    try {
+      PermutationAnnealer2D.reconstruct(img, 2, 2, new int[] {0, 1, 1, 3});
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/** Format biner permutasi: bolak-balik dan penolakan file rusak/terpotong. */
+public class PermutationFileTest {
+  /** Permutasi acak 0..n-1 (Fisher–Yates). */
+  private static int[] shuffled(int n, Random r) {
+    int[] p = new int[n];
+    for (int i = 0; i < n; i++) p[i] = i;
+    for (int i = n - 1; i > 0; i--) {
+      int j = r.nextInt(i + 1);
+      int x = p[i];
+      p[i] = p[j];
+      p[j] = x;
+    }
+    return p;
+  }
+
+  private static byte[] write(int[] perm, int rows, int cols) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PermutationFile.write(out, perm, rows, cols);
+    return out.toByteArray();
+  }
+
+  private static void assertRejected(byte[] data) {
+    try {
+      PermutationFile.read(new ByteArrayInputStream(data));
+      fail("file rusak diterima");
+    } catch (IOException expected) {
+      // ok
+    }
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    Random r = new Random(1);
+    // 200×200 melewati beberapa buffer 64 KB.
+    int[][] grids = {{1, 1}, {3, 4}, {100, 100}, {200, 200}};
+    for (int[] g : grids) {
+      int[] perm = shuffled(g[0] * g[1], r);
+      byte[] data = write(perm, g[0], g[1]);
+      assertTrue(PermutationFile.looksLike(data));
+      PermutationFile.Permutation p = PermutationFile.read(new ByteArrayInputStream(data));
+      assertEquals(g[0], p.rows);
+      assertEquals(g[1], p.cols);
+      assertArrayEquals(perm, p.pos2tile);
+    }
+  }
+
+  @Test
+  public void rejectsCorruptedTruncatedAndForeignData() throws IOException {
+    int[] perm = shuffled(30 * 30, new Random(2));
+    byte[] data = write(perm, 30, 30);
+    for (int i = 4; i < data.length; i += 97) {
+      byte[] bad = data.clone();
+      bad[i] ^= 0x10;
+      assertRejected(bad);
+    }
+    assertRejected(Arrays.copyOf(data, data.length - 1));
+    assertRejected(Arrays.copyOf(data, 6));
+    byte[] text = "[1,2;3,4]".getBytes("UTF-8");
+    assertFalse(PermutationFile.looksLike(text));
+    assertRejected(text);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void writeRejectsDuplicateTiles() throws IOException {
+    write(new int[] {0, 1, 1, 3}, 2, 2);
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import org.junit.Test;
+
+/** Format teks matriks 1-based: bolak-balik, toleransi penulisan, dan penolakan input rusak. */
+public class PermutationTextTest {
+  /** Permutasi acak 0..n-1 (Fisher–Yates). */
+  private static int[] shuffled(int n, Random r) {
+    int[] p = new int[n];
+    for (int i = 0; i < n; i++) p[i] = i;
+    for (int i = n - 1; i > 0; i--) {
+      int j = r.nextInt(i + 1);
+      int x = p[i];
+      p[i] = p[j];
+      p[j] = x;
+    }
+    return p;
+  }
+
+  @Test
+  public void formatAndParseRoundTrip() throws IOException {
+    Random r = new Random(1);
+    int[][] grids = {{1, 1}, {2, 3}, {7, 5}, {40, 60}};
+    for (int[] g : grids) {
+      int[] perm = shuffled(g[0] * g[1], r);
+      String text = PermutationText.formatPermutationMatrix1Based(perm, g[0], g[1]);
+      StringWriter w = new StringWriter();
+      PermutationText.write(w, perm, g[0], g[1]);
+      assertEquals(text, w.toString());
+      assertArrayEquals(perm, PermutationText.parse(text, g[0], g[1]));
+      assertArrayEquals(perm, PermutationText.read(new StringReader(text), g[0], g[1]));
+    }
+  }
+
+  @Test
+  public void formatMatchesExistingLayout() {
+    assertEquals("[2,1,3;6,4,5]", PermutationText.formatPermutationMatrix1Based(new int[] {1, 0, 2, 5, 3, 4}, 2, 3));
+  }
+
+  @Test
+  public void parseToleratesWhitespaceMissingBracketsAndTrailingSeparator() {
+    int[] expected = {3, 2, 1, 0};
+    assertArrayEquals(expected, PermutationText.parse(" [ 4 , 3 ;\n 2,1 ] \n", 2, 2));
+    assertArrayEquals(expected, PermutationText.parse("4,3;2,1;", 2, 2));
+    assertArrayEquals(new int[] {4, 3, 2, 1}, PermutationText.parsePermutation1Based("[4,3;2,1]", 2, 2));
+  }
+
+  @Test
+  public void parseRejectsInvalidInput() {
+    String[] bad = {"[1,2;2,4]", "[1,2;3,5]", "[0,1;2,3]", "[1,2,3;4]", "[1;2,3,4]", "[1,2;3,4;5,6]", "[1,2]",
+        "[1,2;3,x]", "[1,2;3,4] z", "", "[99999999999,2;3,4]"};
+    for (String s : bad) {
+      try {
+        PermutationText.parse(s, 2, 2);
+        fail("diterima: " + s);
+      } catch (IllegalArgumentException expected) {
+        // ok
+      }
+    }
+  }
+}
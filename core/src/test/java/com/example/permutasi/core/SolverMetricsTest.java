@@ -0,0 +1,123 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+import org.junit.Test;
+
+/** Ring buffer jejak, rasio turunan, CSV, dan isi telemetri dari run solver sungguhan. */
+public class SolverMetricsTest {
+  /** Tabel padat acak (biaya 1..1000). */
+  private static CostTables tables(int rows, int cols, long seed) {
+    Random r = new Random(seed);
+    int n = rows * cols;
+    CostMatrix h = CostMatrix.allocate(n, 1001), v = CostMatrix.allocate(n, 1001);
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        h.set(a, b, 1 + r.nextInt(1000));
+        v.set(a, b, 1 + r.nextInt(1000));
+      }
+    }
+    return new CostTables(rows, cols, h, v);
+  }
+
+  @Test
+  public void traceKeepsNewestSamplesOldestFirst() {
+    SolverMetrics m = new SolverMetrics(4);
+    for (int i = 0; i < 6; i++) m.sample(i * 10, 100 - i, 50 - i, 40 - i);
+    assertEquals(4, m.traceSize());
+    long[] it = new long[4], e = new long[4], b = new long[4];
+    double[] t = new double[4];
+    assertEquals(4, m.copyTrace(it, t, e, b));
+    assertArrayEquals(new long[] {20, 30, 40, 50}, it);
+    assertArrayEquals(new double[] {98, 97, 96, 95}, t, 0);
+    assertArrayEquals(new long[] {48, 47, 46, 45}, e);
+    assertArrayEquals(new long[] {38, 37, 36, 35}, b);
+    // Array null dilewati.
+    assertEquals(4, m.copyTrace(null, null, null, b));
+
+    m.reset();
+    assertEquals(0, m.traceSize());
+    assertEquals(-1, m.bestEnergy());
+    assertEquals(-1, m.optimalityGap(), 0);
+  }
+
+  @Test
+  public void derivedRates() {
+    SolverMetrics m = new SolverMetrics();
+    assertEquals(0, m.acceptanceRate(), 0);
+    assertEquals(0, m.iterationsPerSecond(), 0);
+    m.update(5000, 250, 8000, 2000, 300, 1.5, 120, 110);
+    assertEquals(6000, m.rejected());
+    assertEquals(0.25, m.acceptanceRate(), 1e-12);
+    assertEquals(20_000, m.iterationsPerSecond(), 1e-9);
+    assertEquals(-1, m.optimalityGap(), 0);
+    m.setLowerBound(100);
+    assertEquals(0.1, m.optimalityGap(), 1e-12);
+    m.setLowerBound(0);
+    assertEquals(Double.POSITIVE_INFINITY, m.optimalityGap(), 0);
+    m.update(5000, 250, 8000, 2000, 300, 1.5, 0, 0);
+    assertEquals(0, m.optimalityGap(), 0);
+  }
+
+  @Test
+  public void csvHasSummaryHeaderAndOneRowPerSample() throws IOException {
+    SolverMetrics m = new SolverMetrics(8);
+    m.update(300, 10, 300, 30, 3, 0.5, 77, 70);
+    m.setLowerBound(35);
+    for (int i = 1; i <= 3; i++) m.sample(i * 100, 0.5, 80 - i, 70);
+    StringWriter w = new StringWriter();
+    m.writeCsv(w);
+    String[] lines = w.toString().split("\n");
+    assertEquals(5, lines.length);
+    assertTrue(lines[0], lines[0].startsWith("# edge_ms=0,"));
+    assertTrue(lines[0], lines[0].contains(",iterations=300,proposed=300,accepted=30,improved=3,iter_per_s=30000,"));
+    assertTrue(lines[0], lines[0].endsWith(",best_energy=70,lower_bound=35"));
+    assertEquals("iteration,temperature,energy,best_energy", lines[1]);
+    assertEquals("100,0.5,79,70", lines[2]);
+    assertEquals("300,0.5,77,70", lines[4]);
+
+    StringBuilder sb = new StringBuilder();
+    m.appendSummary(sb);
+    assertTrue(sb.toString(), sb.toString().contains("terima=10.0%"));
+    assertTrue(sb.toString(), sb.toString().contains("(gap 100.0%)"));
+  }
+
+  @Test
+  public void solverRunFillsMetrics() {
+    CostTables t = tables(4, 5, 3);
+    PermutationAnnealer2D.Options o = new PermutationAnnealer2D.Options();
+    o.parallelism = 1;
+    o.exactMaxTiles = 0;
+    o.metrics = new SolverMetrics(16);
+    SolverSession s = new SolverSession(t, 200_000, 100, o);
+    s.run(null);
+    SolverMetrics m = o.metrics;
+
+    assertEquals(s.iteration(), m.iteration());
+    assertEquals(s.bestEnergy(), m.bestEnergy());
+    assertEquals(ExactSolver.lowerBound(t), m.lowerBound());
+    assertTrue(m.optimalityGap() >= 0);
+    assertTrue(m.proposed() >= m.iteration());
+    assertTrue(m.accepted() > 0 && m.accepted() <= m.proposed());
+    assertTrue(m.improved() > 0 && m.improved() <= m.accepted());
+
+    // Sampel dijarangkan supaya seluruh run muat: dari iterasi 0 sampai akhir, terbaik tidak naik.
+    int n = m.traceSize();
+    assertTrue("sampel " + n, n > 2 && n <= 16);
+    long[] it = new long[n], best = new long[n];
+    m.copyTrace(it, null, null, best);
+    assertEquals(0, it[0]);
+    assertEquals(s.iteration(), it[n - 1]);
+    assertEquals(s.bestEnergy(), best[n - 1]);
+    for (int i = 1; i < n; i++) {
+      assertTrue(it[i] > it[i - 1]);
+      assertTrue(best[i] <= best[i - 1]);
+    }
+  }
+}
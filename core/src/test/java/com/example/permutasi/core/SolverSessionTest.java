@@ -0,0 +1,183 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SolverSessionTest {
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  /** Tabel padat acak (biaya 0..999). */
+  private static CostTables tables(int rows, int cols, long seed) {
+    Random r = new Random(seed);
+    int n = rows * cols;
+    CostMatrix h = CostMatrix.allocate(n, 1000), v = CostMatrix.allocate(n, 1000);
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < n; b++) {
+        if (a == b) continue;
+        h.set(a, b, r.nextInt(1000));
+        v.set(a, b, r.nextInt(1000));
+      }
+    }
+    return new CostTables(rows, cols, h, v);
+  }
+
+  /** Annealing saja (tanpa solver eksak), jadwal reheat supaya state jadwal ikut diuji. */
+  private static PermutationAnnealer2D.Options options(int replicas) {
+    PermutationAnnealer2D.Options o = new PermutationAnnealer2D.Options();
+    o.replicas = replicas;
+    o.parallelism = 1;
+    o.exchangeInterval = 2048;
+    o.schedule = CoolingSchedule.Kind.REHEAT;
+    o.reheatStallIterations = 4096;
+    o.exactMaxTiles = 0;
+    return o;
+  }
+
+  /** Batalkan sesi di laporan status pertama (setelah chunk/segmen pertama). */
+  private static PermutationAnnealer2D.ProgressListener cancelOnFirstStatus(final SolverSession s) {
+    return new PermutationAnnealer2D.ProgressListener() {
+      @Override public void onStatus(long seconds, double donePct, long iter, double temperature, long energy) {
+        s.cancel();
+      }
+    };
+  }
+
+  /** Run yang dibatalkan lalu dilanjutkan dari checkpoint menempuh jalur yang sama dengan run utuh. */
+  @Test
+  public void cancelledRunResumesIdentically() throws IOException {
+    for (int replicas : new int[] {1, 3}) {
+      CostTables t = tables(5, 6, replicas);
+      File start = tmp.newFile("start-" + replicas + ".ckpt");
+      new SolverSession(t, 60_000, 200, options(replicas)).writeCheckpoint(start);
+
+      int[] uninterrupted = SolverSession.restore(t, options(replicas), start).run(null);
+
+      SolverSession first = SolverSession.restore(t, options(replicas), start);
+      first.run(cancelOnFirstStatus(first));
+      assertTrue(first.isCancelled());
+      assertFalse(first.isFinished());
+      assertTrue(first.iteration() > 0 && first.iteration() < 60_000);
+      File mid = tmp.newFile("mid-" + replicas + ".ckpt");
+      first.writeCheckpoint(mid);
+
+      SolverSession resumed = SolverSession.restore(t, options(replicas), mid);
+      assertEquals(first.iteration(), resumed.iteration());
+      assertEquals(first.bestEnergy(), resumed.bestEnergy());
+      assertArrayEquals(uninterrupted, resumed.run(null));
+      assertEquals(PermutationAnnealer2D.StopReason.COMPLETED, resumed.stopReason());
+    }
+  }
+
+  @Test
+  public void restoreRejectsOtherTables() throws IOException {
+    CostTables t = tables(4, 4, 1);
+    File f = tmp.newFile("s.ckpt");
+    new SolverSession(t, 10_000, 100, options(1)).writeCheckpoint(f);
+    try {
+      SolverSession.restore(tables(4, 4, 2), options(1), f);
+      fail("tabel lain diterima");
+    } catch (IOException expected) {
+      // ok
+    }
+    try {
+      SolverSession.restore(tables(4, 5, 1), options(1), f);
+      fail("grid lain diterima");
+    } catch (IOException expected) {
+      // ok
+    }
+  }
+
+  @Test
+  public void restoreRejectsCorruptCheckpoint() throws IOException {
+    CostTables t = tables(4, 4, 1);
+    SolverSession s = new SolverSession(t, 10_000, 100, options(1));
+    s.run(null);
+    File f = tmp.newFile("s.ckpt");
+    s.writeCheckpoint(f);
+    try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+      raf.seek(raf.length() / 2);
+      int b = raf.read();
+      raf.seek(raf.length() / 2);
+      raf.write(b ^ 0x01);
+    }
+    try {
+      SolverSession.restore(t, options(1), f);
+      fail("checkpoint rusak diterima");
+    } catch (IOException expected) {
+      // ok
+    }
+  }
+
+  @Test
+  public void returnedBestMatchesTrackedEnergy() {
+    CostTables t = tables(4, 5, 3);
+    SolverSession s = new SolverSession(t, 50_000, 100, options(2));
+    int[] best = s.run(null);
+    assertEquals(s.bestEnergy(), AnnealChain.totalEnergy(best, t.rows, t.cols, t.h, t.v));
+    assertTrue(s.bestIteration() <= s.iteration());
+  }
+
+  @Test
+  public void stopsWhenStalled() {
+    PermutationAnnealer2D.Options o = options(1);
+    o.schedule = CoolingSchedule.Kind.LINEAR;
+    o.stallIterations = 20_000;
+    SolverSession s = new SolverSession(tables(4, 4, 4), 50_000_000, 1, o);
+    s.run(null);
+    assertEquals(PermutationAnnealer2D.StopReason.STALLED, s.stopReason());
+    assertTrue(s.iteration() - s.bestIteration() >= 20_000);
+    assertTrue(s.iteration() < 50_000_000);
+  }
+
+  @Test
+  public void stopsWhenTargetReached() {
+    CostTables t = tables(4, 4, 5);
+    PermutationAnnealer2D.Options o = options(1);
+    SolverSession s = new SolverSession(t, 50_000_000, 100, o);
+    o.targetEnergy = s.bestEnergy() * 3 / 4;
+    int[] best = s.run(null);
+    assertEquals(PermutationAnnealer2D.StopReason.TARGET_REACHED, s.stopReason());
+    assertTrue(AnnealChain.totalEnergy(best, t.rows, t.cols, t.h, t.v) <= o.targetEnergy);
+  }
+
+  /** Iterasi terbaik ikut checkpoint, jadi aturan stall tetap benar setelah restore. */
+  @Test
+  public void checkpointKeepsBestIteration() throws IOException {
+    CostTables t = tables(4, 4, 6);
+    SolverSession s = new SolverSession(t, 30_000, 100, options(1));
+    s.run(null);
+    File f = tmp.newFile("best.ckpt");
+    s.writeCheckpoint(f);
+    SolverSession r = SolverSession.restore(t, options(1), f);
+    assertEquals(s.bestIteration(), r.bestIteration());
+    assertEquals(s.bestEnergy(), r.bestEnergy());
+  }
+
+  @Test
+  public void restoreRejectsOtherVersion() throws IOException {
+    CostTables t = tables(4, 4, 7);
+    File f = tmp.newFile("v.ckpt");
+    new SolverSession(t, 10_000, 100, options(1)).writeCheckpoint(f);
+    try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+      raf.seek(4);
+      raf.writeInt(2);
+    }
+    try {
+      SolverSession.restore(t, options(1), f);
+      fail("versi lain diterima");
+    } catch (IOException expected) {
+      assertTrue(expected.getMessage(), expected.getMessage().startsWith("Versi checkpoint"));
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.permutasi.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/** Ukuran atlas preview: muat di batas lebar dan luas, skala sama ke dua arah, tidak diperbesar. */
+public class TilePermuterTest {
+  @Test
+  public void previewFitsWidthAndArea() {
+    int[][] images = {{4000, 3000}, {3000, 4000}, {1000, 1000}, {12000, 800}, {640, 9000}};
+    int[][] grids = {{1, 1}, {10, 20}, {7, 3}, {40, 60}, {100, 100}};
+    for (int[] img : images) {
+      for (int[] g : grids) {
+        int rows = g[0], cols = g[1];
+        int srcTileW = img[0] / cols, srcTileH = img[1] / rows;
+        for (int maxWidth : new int[] {720, 1080}) {
+          long maxPixels = (long) maxWidth * 2340;
+          int[] size = TilePermuter.previewTileSize(img[0], img[1], rows, cols, maxWidth, maxPixels);
+          String at = img[0] + "x" + img[1] + " grid " + rows + "x" + cols + " lebar " + maxWidth;
+          assertTrue(at, size[0] >= 1 && size[1] >= 1);
+          assertTrue(at, size[0] <= srcTileW && size[1] <= srcTileH);
+          assertTrue(at, (long) size[0] * cols <= maxWidth);
+          assertTrue(at, (long) size[0] * cols * size[1] * rows <= maxPixels);
+          // Skala sama: rasio tile dipertahankan sampai pembulatan ke bawah.
+          double sw = (double) size[0] / srcTileW, sh = (double) size[1] / srcTileH;
+          assertTrue(at, Math.abs(sw - sh) <= 1.0 / Math.min(srcTileW, srcTileH) + 1e-9);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void previewKeepsSmallImageAtFullSize() {
+    // 600×400, grid 4×6 → tile 100×100, sudah muat.
+    assertArrayEquals(new int[] {100, 100}, TilePermuter.previewTileSize(600, 400, 4, 6, 1080, 1080L * 2340));
+    // Sisa kanan/bawah dibuang sebelum dihitung.
+    assertArrayEquals(new int[] {100, 100}, TilePermuter.previewTileSize(605, 403, 4, 6, 1080, 1080L * 2340));
+  }
+
+  @Test
+  public void previewTileIsAtLeastOnePixel() {
+    // Tile sumber 2×20, skala 0,27: lebar dibulatkan naik ke 1 px, tinggi tetap ikut skala.
+    assertArrayEquals(new int[] {1, 5}, TilePermuter.previewTileSize(4000, 4000, 200, 2000, 1080, 1080L * 2340));
+    assertArrayEquals(new int[] {1, 1}, TilePermuter.previewTileSize(10, 10, 20, 20, 1080, 1080L * 2340));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void previewRejectsEmptyGrid() {
+    TilePermuter.previewTileSize(100, 100, 0, 4, 1080, 1080L * 2340);
+  }
+}